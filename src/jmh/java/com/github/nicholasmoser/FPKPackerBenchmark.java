@@ -0,0 +1,113 @@
+package com.github.nicholasmoser;
+
+import com.github.nicholasmoser.fpk.PRSCache;
+import com.github.nicholasmoser.gnt4.GNT4Workspace;
+import com.github.nicholasmoser.workspace.WorkspaceFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link FPKPacker#repackFPK(String, java.util.Collection, boolean)} with a
+ * synthetic workspace of compressible FPK children.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FPKPackerBenchmark {
+
+  // Held so that the level set on it is not lost if the logger is garbage collected.
+  private static final Logger LOGGER = Logger.getLogger("com.github.nicholasmoser");
+
+  private static final String FPK_PATH = "files/fpack/synthetic.fpk";
+
+  @Param({"32"})
+  private int childCount;
+
+  @Param({"65536"})
+  private int childSize;
+
+  @Param({"true", "false"})
+  private boolean parallel;
+
+  @Param({"true", "false"})
+  private boolean cached;
+
+  private Path workspaceDir;
+
+  private GNT4Workspace workspace;
+
+  private List<WorkspaceFile> files;
+
+  private FPKPacker packer;
+
+  /**
+   * Creates a workspace with the uncompressed children of a single FPK file. The workspace state is
+   * not needed to repack an FPK file, so it is not created.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    // Each compressed child is logged, which would otherwise be measured
+    LOGGER.setLevel(java.util.logging.Level.WARNING);
+    workspaceDir = SyntheticData.getTempDirectory();
+    workspace = new GNT4Workspace(workspaceDir, null);
+    files = new ArrayList<>(childCount);
+    for (int i = 0; i < childCount; i++) {
+      String filePath = String.format("files/chr/syn/%04d.seq", i);
+      Path path = workspace.getUncompressedDirectory().resolve(filePath);
+      Files.createDirectories(path.getParent());
+      Files.write(path, SyntheticData.getCompressibleBytes(childSize, i));
+      files.add(new WorkspaceFile(filePath, 0, 0, FPK_PATH, true));
+    }
+    packer = new FPKPacker(workspace);
+  }
+
+  /**
+   * Clears the PRS cache before each repack when the cache is not being measured, so that every
+   * child is compressed.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup(Level.Invocation)
+  public void clearCache() throws IOException {
+    if (!cached) {
+      SyntheticData.delete(workspaceDir.resolve(PRSCache.DIRECTORY_NAME));
+      packer = new FPKPacker(workspace);
+    }
+  }
+
+  /**
+   * Deletes the workspace.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(workspaceDir);
+  }
+
+  /**
+   * @return The repacked FPK file path.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public Path repackFPK() throws IOException {
+    return packer.repackFPK(FPK_PATH, files, parallel);
+  }
+}
@@ -0,0 +1,67 @@
+package com.github.nicholasmoser;
+
+import com.github.nicholasmoser.PRSCompressor.Parse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for {@link PRSCompressor} and {@link PRSUncompressor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PRSBenchmark {
+
+  @Param({"65536", "1048576"})
+  private int size;
+
+  @Param({"GREEDY", "OPTIMAL"})
+  private Parse parse;
+
+  private byte[] uncompressed;
+
+  private byte[] compressed;
+
+  private byte[] output;
+
+  /**
+   * Generates the uncompressed bytes and compresses them for the uncompress benchmarks.
+   */
+  @Setup
+  public void setup() {
+    uncompressed = SyntheticData.getCompressibleBytes(size, size);
+    compressed = new PRSCompressor(uncompressed, parse).compress();
+    output = new byte[size];
+  }
+
+  /**
+   * @return The compressed bytes.
+   */
+  @Benchmark
+  public byte[] compress() {
+    return new PRSCompressor(uncompressed, parse).compress();
+  }
+
+  /**
+   * @return The uncompressed bytes.
+   */
+  @Benchmark
+  public byte[] uncompress() {
+    return new PRSUncompressor(compressed, size).uncompress();
+  }
+
+  /**
+   * @return The number of bytes uncompressed into the reused output buffer.
+   */
+  @Benchmark
+  public int uncompressIntoBuffer() {
+    return PRSUncompressor.uncompress(compressed, output);
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.nicholasmoser;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Synthetic inputs for the benchmarks, so that they can be run without a game ISO. The inputs are
+ * generated from a fixed seed so that each run of a benchmark measures the same data.
+ */
+public class SyntheticData {
+
+  /**
+   * Returns bytes that compress similarly to game files, made of short runs of random bytes and
+   * copies of earlier bytes within the PRS window.
+   *
+   * @param size The number of bytes.
+   * @param seed The seed of the random number generator.
+   * @return The compressible bytes.
+   */
+  public static byte[] getCompressibleBytes(int size, long seed) {
+    Random random = new Random(seed);
+    byte[] bytes = new byte[size];
+    int i = 0;
+    while (i < size) {
+      if (i >= 16 && random.nextInt(3) != 0) {
+        int distance = 1 + random.nextInt(Math.min(i, 0x1FFF));
+        int length = Math.min(size - i, 3 + random.nextInt(32));
+        for (int j = 0; j < length; j++, i++) {
+          bytes[i] = bytes[i - distance];
+        }
+      } else {
+        int length = Math.min(size - i, 1 + random.nextInt(8));
+        for (int j = 0; j < length; j++, i++) {
+          bytes[i] = (byte) random.nextInt(256);
+        }
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns a new directory path in the temp directory. The directory is not created.
+   *
+   * @return The new directory path.
+   * @throws IOException If the temp directory cannot be created.
+   */
+  public static Path getTempDirectory() throws IOException {
+    return FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+  }
+
+  /**
+   * Deletes a directory created by a benchmark if it exists.
+   *
+   * @param directory The directory to delete.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static void delete(Path directory) throws IOException {
+    if (directory != null && Files.isDirectory(directory)) {
+      MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+    }
+  }
+}
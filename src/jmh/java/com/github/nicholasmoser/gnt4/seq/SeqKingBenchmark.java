@@ -0,0 +1,87 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import com.github.nicholasmoser.SyntheticData;
+import com.github.nicholasmoser.gnt4.seq.opcodes.Opcode;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link SeqKing#getOpcodes(Path, String, boolean, boolean)} with a synthetic seq
+ * file made of a repeated block of opcodes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeqKingBenchmark {
+
+  // A seq file name that has no known binary data or functions
+  private static final String FILE_NAME = "files/game/synthetic.seq";
+
+  // Register moves, an unknown opcode, a pointer opcode, a branch and a branch link
+  private static final byte[] BLOCK = new byte[]{
+      0x04, 0x02, 0x02, 0x13,
+      0x04, 0x02, 0x13, 0x2f,
+      0x04, 0x02, 0x1a, 0x3f, 0x00, 0x00, 0x00, 0x01,
+      0x01, 0x00, 0x00, 0x00,
+      0x09, 0x08, 0x1d, 0x3f, 0x00, 0x01, (byte) 0xbf, 0x24,
+      0x01, 0x32, 0x00, 0x00, 0x00, 0x00, 0x00, 0x10,
+      0x01, 0x3c, 0x00, 0x00, 0x00, 0x00, 0x00, 0x10
+  };
+
+  @Param({"10000"})
+  private int blockCount;
+
+  private Path directory;
+
+  private Path seqPath;
+
+  /**
+   * Writes the synthetic seq file, a 16-byte header followed by the repeated block of opcodes.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    directory = SyntheticData.getTempDirectory();
+    Files.createDirectories(directory);
+    seqPath = directory.resolve("synthetic.seq");
+    ByteArrayOutputStream seq = new ByteArrayOutputStream(16 + BLOCK.length * blockCount);
+    seq.write(new byte[16]);
+    for (int i = 0; i < blockCount; i++) {
+      seq.write(BLOCK);
+    }
+    Files.write(seqPath, seq.toByteArray());
+  }
+
+  /**
+   * Deletes the synthetic seq file.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(directory);
+  }
+
+  /**
+   * @return The opcodes of the seq file.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public List<Opcode> getOpcodes() throws IOException {
+    return SeqKing.getOpcodes(seqPath, FILE_NAME, false, false);
+  }
+}
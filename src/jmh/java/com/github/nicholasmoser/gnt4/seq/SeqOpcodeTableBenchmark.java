@@ -0,0 +1,165 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import com.github.nicholasmoser.gnt4.seq.opcodes.Opcode;
+import com.github.nicholasmoser.utils.ByteStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for decoding seq opcodes with {@link SeqOpcodeTable} compared to the switch statements
+ * of {@link SeqHelper#getSeqOpcode(ByteStream, byte, byte)}. The opcodes are every implemented
+ * opcode with random operand bytes, mixed with random words that are mostly not opcodes, similar to
+ * decoding a character seq file in permissive mode. A word that cannot be decoded is skipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SeqOpcodeTableBenchmark {
+
+  // Operand bytes of general purpose registers, seq values, globals and immediate values
+  private static final byte[] OPERAND_BYTES = new byte[]{0x00, 0x02, 0x13, 0x17, 0x18, 0x26, 0x2f,
+      0x30, 0x32, 0x3c, 0x3e, 0x3f, 0x42, 0x7f, (byte) 0x80, (byte) 0xa0, (byte) 0xbf};
+
+  // About the size of a character seq file
+  @Param({"300000"})
+  private int size;
+
+  private byte[] bytes;
+
+  /**
+   * Creates the synthetic seq bytes, where two out of three words start with an implemented
+   * opcode and the rest are random.
+   */
+  @Setup
+  public void setup() {
+    List<Integer> implemented = new ArrayList<>();
+    for (int index = 0; index <= 0xFFFF; index++) {
+      if (SeqOpcodeTable.isImplemented((byte) (index >> 8), (byte) index)) {
+        implemented.add(index);
+      }
+    }
+    Random random = new Random(size);
+    bytes = new byte[size];
+    for (int i = 0; i + 4 <= size; i += 4) {
+      if (random.nextInt(3) == 0) {
+        int word = random.nextInt();
+        bytes[i] = (byte) (word >> 24);
+        bytes[i + 1] = (byte) (word >> 16);
+        bytes[i + 2] = (byte) (word >> 8);
+        bytes[i + 3] = (byte) word;
+      } else {
+        int index = implemented.get(random.nextInt(implemented.size()));
+        bytes[i] = (byte) (index >> 8);
+        bytes[i + 1] = (byte) index;
+        bytes[i + 2] = OPERAND_BYTES[random.nextInt(OPERAND_BYTES.length)];
+        bytes[i + 3] = OPERAND_BYTES[random.nextInt(OPERAND_BYTES.length)];
+      }
+    }
+  }
+
+  /**
+   * @return The opcodes decoded with the switch statements.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public List<Opcode> switchStatements() throws IOException {
+    List<Opcode> opcodes = new ArrayList<>();
+    ByteStream bs = new ByteStream(bytes);
+    while (bs.offset() + 4 <= size) {
+      int offset = bs.offset();
+      int word = bs.peekWord();
+      try {
+        opcodes.add(SeqHelper.getSeqOpcode(bs, (byte) (word >> 24), (byte) (word >> 16)));
+      } catch (Exception e) {
+        if (!skipWord(bs, offset)) {
+          break;
+        }
+      }
+    }
+    return opcodes;
+  }
+
+  /**
+   * @return The opcodes decoded with the dispatch table.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public List<Opcode> dispatchTable() throws IOException {
+    List<Opcode> opcodes = new ArrayList<>();
+    ByteStream bs = new ByteStream(bytes);
+    while (bs.offset() + 4 <= size) {
+      int offset = bs.offset();
+      int word = bs.peekWord();
+      byte opcodeGroup = (byte) (word >> 24);
+      byte opcode = (byte) (word >> 16);
+      if (!SeqOpcodeTable.isImplemented(opcodeGroup, opcode)) {
+        if (!skipWord(bs, offset)) {
+          break;
+        }
+        continue;
+      }
+      try {
+        opcodes.add(SeqOpcodeTable.decode(bs, opcodeGroup, opcode));
+      } catch (Exception e) {
+        if (!skipWord(bs, offset)) {
+          break;
+        }
+      }
+    }
+    return opcodes;
+  }
+
+  /**
+   * @return The number of opcodes found by only scanning the lengths of them.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public int lengths() throws IOException {
+    int count = 0;
+    ByteStream bs = new ByteStream(bytes);
+    while (bs.offset() + 4 <= size) {
+      int offset = bs.offset();
+      int length;
+      try {
+        length = SeqOpcodeTable.getLength(bs);
+      } catch (Exception e) {
+        length = 0;
+      }
+      if (length != 0) {
+        count++;
+      }
+      int next = offset + (length == 0 ? 4 : length);
+      if (next >= size) {
+        break;
+      }
+      bs.seek(next);
+    }
+    return count;
+  }
+
+  /**
+   * Moves past the word at an offset that could not be decoded.
+   *
+   * @param bs     The seq byte stream.
+   * @param offset The offset of the word.
+   * @return If there are any bytes left after the word.
+   */
+  private static boolean skipWord(ByteStream bs, int offset) {
+    if (offset + 4 >= bs.length()) {
+      return false;
+    }
+    bs.seek(offset + 4);
+    return true;
+  }
+}
@@ -0,0 +1,89 @@
+package com.github.nicholasmoser.iso;
+
+import com.github.nicholasmoser.SyntheticData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link FileSystemTable} with a synthetic file tree of a similar size to GNT4.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileSystemTableBenchmark {
+
+  @Param({"3000"})
+  private int fileCount;
+
+  private Path inputDir;
+
+  private ISOHeader isoHeader;
+
+  private Path fstBin;
+
+  /**
+   * Creates the synthetic file tree, parses it and writes its fst.bin. Only the sizes of the files
+   * matter to the fst.bin, so each file is small.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    inputDir = SyntheticData.getTempDirectory();
+    Path sys = inputDir.resolve("sys");
+    Files.createDirectories(sys);
+    Files.write(sys.resolve("boot.bin"), new byte[ISO.BOOT_BIN_LEN]);
+    Files.write(sys.resolve("bi2.bin"), new byte[ISO.BI_2_LEN]);
+    Files.write(sys.resolve("apploader.img"), new byte[0x2000]);
+    Files.write(sys.resolve("main.dol"), new byte[0x10000]);
+    Files.write(sys.resolve("fst.bin"), new byte[0]);
+    Path files = inputDir.resolve("files");
+    for (int i = 0; i < fileCount; i++) {
+      Path directory = files.resolve(String.format("dir%02d/sub%d", i % 50, i % 3));
+      Files.createDirectories(directory);
+      Files.write(directory.resolve(String.format("%04d.bin", i)), new byte[i % 64]);
+    }
+    isoHeader = new DirectoryParser(inputDir, true).getISOHeader();
+    fstBin = inputDir.resolve(isoHeader.getFstBin().getGamePath());
+    FileSystemTable.rewrite(inputDir, isoHeader);
+  }
+
+  /**
+   * Deletes the synthetic file tree.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(inputDir);
+  }
+
+  /**
+   * @return The ISO items read from the fst.bin.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public List<ISOItem> read() throws IOException {
+    return FileSystemTable.read(fstBin);
+  }
+
+  /**
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public void rewrite() throws IOException {
+    FileSystemTable.rewrite(inputDir, isoHeader);
+  }
+}
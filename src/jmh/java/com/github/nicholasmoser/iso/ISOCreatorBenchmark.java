@@ -0,0 +1,98 @@
+package com.github.nicholasmoser.iso;
+
+import com.github.nicholasmoser.SyntheticData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for writing an ISO with {@link ISOCreator} with a FileChannel and with an
+ * OutputStream. The synthetic file tree is about 1 GB, so each invocation writes about 1 GB to the
+ * temp directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ISOCreatorBenchmark {
+
+  @Param({"256"})
+  private int fileCount;
+
+  @Param({"4194304"})
+  private int fileSize;
+
+  @Param({"true", "false"})
+  private boolean useFileChannel;
+
+  private Path testDir;
+
+  private Path inputDir;
+
+  private Path isoPath;
+
+  /**
+   * Creates the synthetic file tree with the sys files and random files spread over a few
+   * directories.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    testDir = SyntheticData.getTempDirectory();
+    inputDir = testDir.resolve("input");
+    isoPath = testDir.resolve("benchmark.iso");
+    Random random = new Random(fileCount);
+    Path sys = inputDir.resolve("sys");
+    Files.createDirectories(sys);
+    byte[] bootBin = new byte[ISO.BOOT_BIN_LEN];
+    // GameCube magic number
+    bootBin[28] = (byte) 0xC2;
+    bootBin[29] = 0x33;
+    bootBin[30] = (byte) 0x9F;
+    bootBin[31] = 0x3D;
+    Files.write(sys.resolve("boot.bin"), bootBin);
+    Files.write(sys.resolve("bi2.bin"), new byte[ISO.BI_2_LEN]);
+    Files.write(sys.resolve("apploader.img"), new byte[0x2000]);
+    Files.write(sys.resolve("main.dol"), new byte[0x60000]);
+    Files.write(sys.resolve("fst.bin"), new byte[0]);
+    Path files = inputDir.resolve("files");
+    byte[] bytes = new byte[fileSize];
+    for (int i = 0; i < fileCount; i++) {
+      Path directory = files.resolve(String.format("dir%d", i % 4));
+      Files.createDirectories(directory);
+      random.nextBytes(bytes);
+      Files.write(directory.resolve(String.format("%04d.bin", i)), bytes);
+    }
+  }
+
+  /**
+   * Deletes the synthetic file tree and ISO.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(testDir);
+  }
+
+  /**
+   * @return The path to the written ISO.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public Path create() throws IOException {
+    new ISOCreator(inputDir, isoPath, useFileChannel).create(false);
+    return isoPath;
+  }
+}
@@ -0,0 +1,151 @@
+package com.github.nicholasmoser.mot;
+
+import com.github.nicholasmoser.SyntheticData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link Motion#parseFromFile(Path)} parsing every .mot file of a synthetic set of
+ * characters, each with a similar number of animations and bones to a GNT4 character.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MotionBenchmark {
+
+  private static final int ANIMATION_IDS = 300;
+
+  private static final int BONE_ANIMATIONS = 40;
+
+  @Param({"30"})
+  private int motCount;
+
+  private Path directory;
+
+  private List<Path> motPaths;
+
+  /**
+   * Writes the synthetic .mot files. Each one is written as .gnta files and then packed, so that
+   * it is laid out the same as a .mot file packed by GNTool.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    directory = SyntheticData.getTempDirectory();
+    Files.createDirectories(directory);
+    Random random = new Random(motCount);
+    motPaths = new ArrayList<>(motCount);
+    for (int i = 0; i < motCount; i++) {
+      Path unpacked = directory.resolve(String.format("%02d", i));
+      Files.createDirectories(unpacked);
+      List<String> fileNames = new ArrayList<>();
+      for (int id = 0; id < ANIMATION_IDS; id++) {
+        // Some animation ids are unused
+        if (random.nextInt(4) != 0) {
+          String fileName = String.format("0x%04X.gnta", id);
+          getAnimation(random, id).writeTo(unpacked.resolve(fileName));
+          fileNames.add(fileName);
+        }
+      }
+      new AnimationList(ANIMATION_IDS, fileNames).writeTo(unpacked.resolve(AnimationList.NAME));
+      Path motPath = directory.resolve(String.format("%02d.mot", i));
+      Motion.parseFromDirectory(unpacked).pack(motPath);
+      motPaths.add(motPath);
+    }
+  }
+
+  /**
+   * Deletes the synthetic .mot files.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(directory);
+  }
+
+  /**
+   * @return The motions of every .mot file.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public List<Motion> parseFromFile() throws IOException {
+    List<Motion> motions = new ArrayList<>(motPaths.size());
+    for (Path motPath : motPaths) {
+      motions.add(Motion.parseFromFile(motPath));
+    }
+    return motions;
+  }
+
+  /**
+   * Returns an animation with bone animations of random numbers of key frames, using both short
+   * and float coordinates.
+   *
+   * @param random The random number generator.
+   * @param id     The animation id.
+   * @return The animation.
+   */
+  private static GNTAnimation getAnimation(Random random, int id) {
+    List<BoneAnimation> boneAnimations = new ArrayList<>(BONE_ANIMATIONS);
+    int dataOffset = 0x10 + (BONE_ANIMATIONS * 0x20);
+    for (int bone = 0; bone < BONE_ANIMATIONS; bone++) {
+      short numOfKeyFrames = (short) (1 + random.nextInt(30));
+      boolean floats = random.nextInt(4) == 0;
+      List<Float> timeValues = new ArrayList<>(numOfKeyFrames);
+      List<Coordinate> coordinates = new ArrayList<>(numOfKeyFrames);
+      for (int i = 0; i < numOfKeyFrames; i++) {
+        timeValues.add((float) i / numOfKeyFrames);
+        if (floats) {
+          coordinates.add(new Coordinate(random.nextFloat(), random.nextFloat(),
+              random.nextFloat(), random.nextFloat()));
+        } else {
+          coordinates.add(new Coordinate((short) random.nextInt(), (short) random.nextInt(),
+              (short) random.nextInt(), (short) random.nextInt()));
+        }
+      }
+      int timeValuesOffset = dataOffset;
+      int coordinatesOffset = timeValuesOffset + align16(numOfKeyFrames * 4);
+      dataOffset = coordinatesOffset + align16(numOfKeyFrames * (floats ? 16 : 8));
+      boneAnimations.add(new BoneAnimation.Builder()
+          .offset(0x10 + (bone * 0x20))
+          .flags1((short) (floats ? 0x0204 : 0x0202))
+          .boneId((short) bone)
+          .numOfKeyFrames(numOfKeyFrames)
+          .totalTime(1.0f)
+          .timeValuesOffset(timeValuesOffset)
+          .coordinatesOffset(coordinatesOffset)
+          .coordinates(coordinates)
+          .timeValues(timeValues)
+          .create());
+    }
+    return new GNTAnimation.Builder()
+        .id(id)
+        .playSpeed(1.0f)
+        .endTime(1.0f)
+        .boneAnimations(boneAnimations)
+        .create();
+  }
+
+  /**
+   * @param number The number to 16-byte align.
+   * @return The number 16-byte aligned.
+   */
+  private static int align16(int number) {
+    return (number + 15) & ~15;
+  }
+}
@@ -0,0 +1,84 @@
+package com.github.nicholasmoser.utils;
+
+import com.github.nicholasmoser.SyntheticData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks for {@link CRC32} and {@link CRC32C} of bytes and of files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CRC32Benchmark {
+
+  @Param({"4096", "1048576", "16777216"})
+  private int size;
+
+  private byte[] bytes;
+
+  private Path directory;
+
+  private Path file;
+
+  /**
+   * Generates the bytes to hash and writes them to a file.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Setup
+  public void setup() throws IOException {
+    bytes = SyntheticData.getCompressibleBytes(size, size);
+    directory = SyntheticData.getTempDirectory();
+    Files.createDirectories(directory);
+    file = directory.resolve("crc32.bin");
+    Files.write(file, bytes);
+  }
+
+  /**
+   * Deletes the file.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @TearDown
+  public void tearDown() throws IOException {
+    SyntheticData.delete(directory);
+  }
+
+  /**
+   * @return The CRC32 hash of the bytes.
+   */
+  @Benchmark
+  public int getHashBytes() {
+    return CRC32.getHash(bytes);
+  }
+
+  /**
+   * @return The CRC32 hash of the file.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public int getHashFile() throws IOException {
+    return CRC32.getHash(file);
+  }
+
+  /**
+   * @return The CRC32C hash of the file.
+   * @throws IOException If an I/O error occurs.
+   */
+  @Benchmark
+  public int getHashFileCRC32C() throws IOException {
+    return CRC32C.getHash(file);
+  }
+}
@@ -1,26 +1,34 @@
 package com.github.nicholasmoser;
 
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
 
-import com.github.nicholasmoser.fpk.FPKFile;
+import com.github.nicholasmoser.PRSCompressor.Parse;
 import com.github.nicholasmoser.fpk.FPKFileHeader;
+import com.github.nicholasmoser.fpk.FPKIndex;
 import com.github.nicholasmoser.fpk.FPKOptions;
 import com.github.nicholasmoser.fpk.FileNames;
+import com.github.nicholasmoser.fpk.PRSCache;
 import com.github.nicholasmoser.utils.ByteUtils;
 import com.github.nicholasmoser.utils.FPKUtils;
 import com.github.nicholasmoser.workspace.WorkspaceFile;
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
-import com.google.common.primitives.Bytes;
+import com.github.nicholasmoser.workspace.WorkspaceSnapshot;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Packs FPK files. This includes compressing them with the Eighting PRS algorithm and modding the
@@ -30,6 +38,9 @@ public class FPKPacker {
 
   private static final Logger LOGGER = Logger.getLogger(FPKPacker.class.getName());
 
+  // Shared zeroes used to pad file data to a 16-byte boundary.
+  private static final byte[] PADDING = new byte[16];
+
   private final Path compressedDirectory;
 
   private final Path uncompressedDirectory;
@@ -42,19 +53,34 @@ public class FPKPacker {
 
   private final FileNames fileNames;
 
+  private final Parse parse;
+
+  private final PRSCache cache;
+
   /**
    * Creates a new FPK packer for a workspace.
    *
    * @param workspace The workspace to pack the FPKs for.
    */
   public FPKPacker(Workspace workspace) {
+    this(workspace, workspace.getFPKOptions());
+  }
+
+  /**
+   * Creates a new FPK packer for a workspace with the given FPK options.
+   *
+   * @param workspace The workspace to pack the FPKs for.
+   * @param options   The FPK options to pack the FPKs with.
+   */
+  public FPKPacker(Workspace workspace, FPKOptions options) {
     this.workspace = workspace;
     this.compressedDirectory = workspace.getCompressedDirectory();
     this.uncompressedDirectory = workspace.getUncompressedDirectory();
-    FPKOptions options = workspace.getFPKOptions();
     this.longPaths = options.longPaths();
     this.bigEndian = options.bigEndian();
     this.fileNames = options.fileNames();
+    this.parse = options.parse();
+    this.cache = PRSCache.forWorkspace(workspace.getWorkspaceDirectory());
   }
 
   /**
@@ -66,18 +92,18 @@ public class FPKPacker {
    *
    * @param changedFiles The files that have been changed.
    * @param parallel     If the repacking should attempt to be done in parallel.
+   * @return The relative paths of the FPK and non-FPK files that were written.
    * @throws IOException If there is an I/O issue repacking or moving the files.
    */
-  public void pack(List<String> changedFiles, boolean parallel) throws IOException {
+  public Set<String> pack(Collection<String> changedFiles, boolean parallel) throws IOException {
     // Get data needed to repack
     Set<String> changedFPKFiles = new HashSet<>();
     Set<String> changedNonFPKFiles = new HashSet<>();
-    List<WorkspaceFile> allFiles = workspace.getAllFiles();
-    Multimap<String, WorkspaceFile> fpkToFiles = getFPKToFiles(allFiles);
+    WorkspaceSnapshot snapshot = workspace.getSnapshot();
 
     // Get changed FPK files and non-FPK files
-    for (WorkspaceFile file : allFiles) {
-      if (changedFiles.contains(file.filePath())) {
+    for (String changedFile : changedFiles) {
+      for (WorkspaceFile file : snapshot.getFiles(changedFile)) {
         String fpkFilePath = file.fpkFilePath();
         if (fpkFilePath != null) {
           changedFPKFiles.add(fpkFilePath);
@@ -106,7 +132,7 @@ public class FPKPacker {
       changedFPKFiles.parallelStream().forEach(fpk -> {
             try {
               LOGGER.info(String.format("Packing %s...", fpk));
-              repackFPK(fpk, fpkToFiles.get(fpk));
+              repackFPK(fpk, snapshot.getFPKChildren(fpk), true);
               LOGGER.info(String.format("Packed %s", fpk));
             } catch (IOException e) {
               String message = String.format("Failed to pack %s", fpk);
@@ -117,103 +143,167 @@ public class FPKPacker {
     } else {
       for (String fpk : changedFPKFiles) {
         LOGGER.info(String.format("Packing %s...", fpk));
-        repackFPK(fpk, fpkToFiles.get(fpk));
+        repackFPK(fpk, snapshot.getFPKChildren(fpk), false);
         LOGGER.info(String.format("Packed %s", fpk));
       }
     }
     LOGGER.info("FPK files have been packed at " + compressedDirectory);
+    LOGGER.info(String.format("PRS cache had %d hit(s) and %d miss(es) and is now %d bytes.",
+        cache.getHits(), cache.getMisses(), cache.getTotalSize()));
+    Set<String> packedFiles = new HashSet<>(changedFPKFiles);
+    packedFiles.addAll(changedNonFPKFiles);
+    return packedFiles;
   }
 
   /**
-   * Returns a multimapping of FPK file paths to their file children. The only FPK file paths that
-   * will be included are those with children included in the method parameter.
+   * Repacks the given FPK file. Finds the children of the FPK and compresses them in parallel from
+   * the input directory and packs them into an FPK file at the output directory. If the file
+   * already exists in the output directory it will be overridden. The input directory must have the
+   * uncompressed child files.
    *
-   * @param files The FPK child files.
-   * @return A multimapping of FPK file paths to their file children.
+   * @param fpkPath The FPK file to repack.
+   * @param files   The children files of the FPK file.
+   * @return The repacked FPK full file path.
+   * @throws IOException If there is an I/O issue repacking or moving the files.
    */
-  Multimap<String, WorkspaceFile> getFPKToFiles(List<WorkspaceFile> files) {
-    Multimap<String, WorkspaceFile> fpktoFiles = ArrayListMultimap.create();
-    for (WorkspaceFile file : files) {
-      String fpkFilePath = file.fpkFilePath();
-      if (fpkFilePath != null) {
-        fpktoFiles.put(fpkFilePath, file);
-      }
-    }
-    return fpktoFiles;
+  public Path repackFPK(String fpkPath, Collection<WorkspaceFile> files) throws IOException {
+    return repackFPK(fpkPath, files, true);
   }
 
   /**
    * Repacks the given FPK file. Finds the children of the FPK and individually compresses them from
    * the input directory and packs them into an FPK file at the output directory. If the file
    * already exists in the output directory it will be overridden. The input directory must have the
-   * uncompressed child files.
+   * uncompressed child files. The offsets of the children are computed once all children are
+   * compressed, and the FPK header, file headers and 16-byte aligned file data are then written
+   * directly to the output file without first being combined into a single byte array.
    *
-   * @param fpkPath The FPK file to repack.
-   * @param files   The children files of the FPK file.
+   * @param fpkPath  The FPK file to repack.
+   * @param files    The children files of the FPK file.
+   * @param parallel If the children should be compressed in parallel.
    * @return The repacked FPK full file path.
    * @throws IOException If there is an I/O issue repacking or moving the files.
    */
-  public Path repackFPK(String fpkPath, Collection<WorkspaceFile> files) throws IOException {
+  public Path repackFPK(String fpkPath, Collection<WorkspaceFile> files, boolean parallel)
+      throws IOException {
     for (WorkspaceFile file : files) {
       if (!fpkPath.equals(file.fpkFilePath())) {
         throw new IllegalArgumentException(
             String.format("fpk parent paths differ: %s %s", fpkPath, file.fpkFilePath()));
       }
     }
-    List<FPKFile> fpkChildren = new ArrayList<>(files.size());
-    for (WorkspaceFile file : files) {
-      byte[] input = Files.readAllBytes(uncompressedDirectory.resolve(file.filePath()));
-      byte[] output;
-
-      if (file.compressed()) {
-        PRSCompressor compressor = new PRSCompressor(input);
-        output = compressor.compress();
-      } else {
-        output = input;
-      }
-
-      // Set the offset to -1 for now, we cannot figure it out until we have all of
-      // the files
-      String compressedName = fileNames.getCompressedName(file.filePath());
-      String shiftJisPath = ByteUtils.encodeShiftJis(compressedName);
-      // TODO: Remove GameCube FPK format assumption (short paths, big endian)
-      FPKFileHeader header = new FPKFileHeader(shiftJisPath, output.length, input.length, false,
-          true);
-      fpkChildren.add(new FPKFile(header, output));
-      LOGGER.info(String.format("%s has been compressed from %d bytes to %d bytes.",
-          file.filePath(), input.length, output.length));
+    List<CompressedChild> fpkChildren;
+    try {
+      Stream<WorkspaceFile> stream = parallel ? files.parallelStream() : files.stream();
+      fpkChildren = stream.map(file -> {
+        try {
+          return compressChild(file);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }).toList();
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
 
     int outputSize = 16; // FPK header is 16 bytes so start with that.
     outputSize += fpkChildren.size() * 32; // Each FPK file header is 32 bytes
-    for (FPKFile file : fpkChildren) {
-      FPKFileHeader header = file.getHeader();
-      header.setOffset(outputSize);
-      int compressedSize = header.getCompressedSize();
-      int modDifference = compressedSize % 16;
-      if (modDifference == 0) {
-        outputSize += compressedSize;
-      } else {
-        // Make sure the offset is divisible by 16
-        outputSize += compressedSize + (16 - modDifference);
-      }
+    int headerSize = outputSize;
+    for (CompressedChild child : fpkChildren) {
+      child.header().setOffset(outputSize);
+      // Make sure the offset is divisible by 16
+      outputSize += child.data().length + getPadding(child.data().length);
     }
 
-    // FPK Header
-    byte[] fpkBytes = FPKUtils.createFPKHeader(fpkChildren.size(), outputSize, bigEndian);
-    // File headers
-    for (FPKFile file : fpkChildren) {
-      fpkBytes = Bytes.concat(fpkBytes, file.getHeader().getBytes());
+    // FPK header and file headers
+    ByteBuffer headers = ByteBuffer.allocate(headerSize);
+    headers.put(FPKUtils.createFPKHeader(fpkChildren.size(), outputSize, bigEndian));
+    for (CompressedChild child : fpkChildren) {
+      headers.put(child.header().getBytes());
     }
-    // File Data
-    for (FPKFile file : fpkChildren) {
-      fpkBytes = Bytes.concat(fpkBytes, file.getData());
+    headers.flip();
+
+    // File data, each followed by its padding
+    List<ByteBuffer> buffers = new ArrayList<>(fpkChildren.size() * 2 + 1);
+    buffers.add(headers);
+    for (CompressedChild child : fpkChildren) {
+      buffers.add(ByteBuffer.wrap(child.data()));
+      int padding = getPadding(child.data().length);
+      if (padding != 0) {
+        buffers.add(ByteBuffer.wrap(PADDING, 0, padding));
+      }
     }
+
     Path outputFPK = compressedDirectory.resolve(fpkPath);
     if (!Files.isDirectory(outputFPK.getParent())) {
       Files.createDirectories(outputFPK.getParent());
     }
-    Files.write(outputFPK, fpkBytes);
+    try (FileChannel channel = FileChannel.open(outputFPK, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      ByteBuffer[] srcs = buffers.toArray(ByteBuffer[]::new);
+      long remaining = outputSize;
+      while (remaining > 0) {
+        remaining -= channel.write(srcs);
+      }
+    } finally {
+      FPKIndex.invalidate(outputFPK);
+    }
     return outputFPK;
   }
+
+  /**
+   * Reads and compresses a single child of an FPK file. The compressed bytes are taken from the PRS
+   * cache when the child has been compressed before. The header will not have an offset set.
+   *
+   * @param file The child file to compress.
+   * @return The compressed child.
+   * @throws IOException If there is an I/O issue reading the file.
+   */
+  private CompressedChild compressChild(WorkspaceFile file) throws IOException {
+    byte[] input = Files.readAllBytes(uncompressedDirectory.resolve(file.filePath()));
+    byte[] output;
+
+    if (file.compressed()) {
+      Optional<byte[]> cached = cache.get(input, parse);
+      if (cached.isPresent()) {
+        output = cached.get();
+      } else {
+        PRSCompressor compressor = new PRSCompressor(input, parse);
+        output = compressor.compress();
+        cache.put(input, parse, output);
+      }
+    } else {
+      output = input;
+    }
+
+    // The offset will be -1 for now, we cannot figure it out until we have all of the files
+    String compressedName = fileNames.getCompressedName(file.filePath());
+    String shiftJisPath = ByteUtils.encodeShiftJis(compressedName);
+    // TODO: Remove GameCube FPK format assumption (short paths, big endian)
+    FPKFileHeader header = new FPKFileHeader(shiftJisPath, output.length, input.length, false,
+        true);
+    LOGGER.info(String.format("%s has been compressed from %d bytes to %d bytes.",
+        file.filePath(), input.length, output.length));
+    return new CompressedChild(header, output);
+  }
+
+  /**
+   * Returns the number of bytes needed to pad data of the given size to a 16-byte boundary.
+   *
+   * @param size The size of the data.
+   * @return The number of bytes of padding.
+   */
+  private static int getPadding(int size) {
+    int modDifference = size % 16;
+    return modDifference == 0 ? 0 : 16 - modDifference;
+  }
+
+  /**
+   * A compressed child of an FPK file and its header.
+   *
+   * @param header The FPK file header.
+   * @param data   The compressed data, without any padding.
+   */
+  private record CompressedChild(FPKFileHeader header, byte[] data) {
+
+  }
 }
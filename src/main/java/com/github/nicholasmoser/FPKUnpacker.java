@@ -1,17 +1,29 @@
 package com.github.nicholasmoser;
 
 import com.github.nicholasmoser.fpk.FPKFileHeader;
+import com.github.nicholasmoser.fpk.FPKIndex;
 import com.github.nicholasmoser.fpk.FileNames;
-import com.github.nicholasmoser.utils.FPKUtils;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
 
@@ -25,6 +37,9 @@ public class FPKUnpacker {
 
   private static final Logger LOGGER = Logger.getLogger(FPKUnpacker.class.getName());
 
+  private static final ThreadLocal<ExtractBuffers> EXTRACT_BUFFERS = ThreadLocal.withInitial(
+      ExtractBuffers::new);
+
   private final Path inputDirectory;
   private final Path filesDirectory;
   private final Optional<FileNames> fileNames;
@@ -66,6 +81,100 @@ public class FPKUnpacker {
     LOGGER.info("Finished unpacking FPKs.");
   }
 
+  /**
+   * Unpacks all fpks in the input directory in parallel. All fpks are found first and then unpacked
+   * from largest to smallest on a pool of the given number of threads, so that the largest fpks do
+   * not finish last. The contents will be stored in the "files" directory in the input directory.
+   * The "fpack" directory in the "files" directory will be deleted upon completion.
+   *
+   * @param threads The number of threads to unpack fpks with.
+   * @throws IOException If there is an I/O related exception.
+   */
+  public void unpackDirectory(int threads) throws IOException {
+    unpackFPKs(getFPKs(inputDirectory), threads);
+    MoreFiles.deleteRecursively(inputDirectory.resolve("files/fpack"),
+        RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  /**
+   * Unpacks all fpks in a source directory in parallel into the "files" directory in the input
+   * directory. The fpks are read from the source directory and are not deleted, so the input
+   * directory does not need its own copy of the fpks.
+   *
+   * @param sourceDirectory The directory to find the fpks in.
+   * @param threads         The number of threads to unpack fpks with.
+   * @throws IOException If there is an I/O related exception.
+   */
+  public void unpackDirectory(Path sourceDirectory, int threads) throws IOException {
+    unpackFPKs(getFPKs(sourceDirectory), threads);
+  }
+
+  /**
+   * Unpacks fpks in parallel into the "files" directory in the input directory. The fpks are
+   * unpacked in the given order on a pool of the given number of threads.
+   *
+   * @param fpks    The fpks to unpack.
+   * @param threads The number of threads to unpack fpks with.
+   * @throws IOException If there is an I/O related exception.
+   */
+  private void unpackFPKs(List<Path> fpks, int threads) throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1: " + threads);
+    }
+    LOGGER.info(String.format("Unpacking FPKs with %d thread(s)...", threads));
+    long start = System.nanoTime();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>(fpks.size());
+      for (Path fpk : fpks) {
+        futures.add(executor.submit(() -> {
+          long fpkStart = System.nanoTime();
+          extractFPK(fpk, filesDirectory, fileNames, longPaths, bigEndian);
+          long milliseconds = (System.nanoTime() - fpkStart) / 1_000_000;
+          LOGGER.info(String.format("Unpacked %s in %d ms", fpk, milliseconds));
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioException) {
+        throw ioException;
+      }
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while unpacking FPKs", e);
+    } finally {
+      executor.shutdownNow();
+    }
+    long milliseconds = (System.nanoTime() - start) / 1_000_000;
+    LOGGER.info(String.format("Finished unpacking %d FPKs in %d ms.", fpks.size(), milliseconds));
+  }
+
+  /**
+   * Returns all fpks in a given directory recursively, sorted from largest to smallest.
+   *
+   * @param directory The directory to search.
+   * @return The fpks sorted from largest to smallest.
+   * @throws IOException If there is an I/O related exception.
+   */
+  private static List<Path> getFPKs(Path directory) throws IOException {
+    Map<Path, Long> sizes = new HashMap<>();
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.toList()) {
+        if (Files.isRegularFile(path) && path.toString().toLowerCase().endsWith(".fpk")) {
+          sizes.put(path, Files.size(path));
+        }
+      }
+    }
+    return sizes.keySet()
+        .stream()
+        .sorted(Comparator.comparing(sizes::get, Comparator.reverseOrder()))
+        .toList();
+  }
+
   /**
    * Extracts and uncompresses the files inside an FPK from a given directory recursively.
    *
@@ -93,7 +202,11 @@ public class FPKUnpacker {
 
 
   /**
-   * Extracts the given Wii or GameCube fpk file to the given output directory path.
+   * Extracts the given Wii or GameCube fpk file to the given output directory path. The file
+   * headers are read at once and the children are then read in the order of their offsets with
+   * positional reads, so that a short read is retried rather than treated as the end of a child.
+   * The compressed and uncompressed bytes of each child are held in buffers that are reused
+   * between children and fpk files on the same thread.
    *
    * @param fpkPath         The path to the fpk file.
    * @param outputDirectory The path to the output directory.
@@ -104,56 +217,96 @@ public class FPKUnpacker {
    */
   public static void extractFPK(Path fpkPath, Path outputDirectory, Optional<FileNames> fileNames,
       boolean longPaths, boolean bigEndian) throws IOException {
-    int bytesRead = 0;
-    try (InputStream is = Files.newInputStream(fpkPath)) {
-      int fileCount = FPKUtils.readFPKHeader(is, bigEndian);
-      bytesRead += 16;
-
-      List<FPKFileHeader> fpkHeaders = new ArrayList<>(fileCount);
-      for (int i = 0; i < fileCount; i++) {
-        fpkHeaders.add(FPKUtils.readFPKFileHeader(is, longPaths, bigEndian));
-        bytesRead += longPaths ? 48 : 32;
+    try (FileChannel channel = FileChannel.open(fpkPath, StandardOpenOption.READ)) {
+      List<FPKFileHeader> fpkHeaders = new ArrayList<>(
+          FPKIndex.readHeaders(channel, longPaths, bigEndian));
+      fpkHeaders.sort(Comparator.comparingInt(FPKFileHeader::getOffset));
+
+      // Size the buffers to the largest child so that they are only grown once per fpk
+      int maxCompressedSize = 0;
+      int maxUncompressedSize = 0;
+      for (FPKFileHeader header : fpkHeaders) {
+        maxCompressedSize = Math.max(maxCompressedSize, header.getCompressedSize());
+        maxUncompressedSize = Math.max(maxUncompressedSize, header.getUncompressedSize());
       }
+      ExtractBuffers buffers = EXTRACT_BUFFERS.get();
+      byte[] compressed = buffers.getCompressed(maxCompressedSize);
+      byte[] uncompressed = buffers.getUncompressed(maxUncompressedSize);
 
+      Set<Path> directories = new HashSet<>();
       for (FPKFileHeader header : fpkHeaders) {
         String fileName = header.getFileName();
         if (fileNames.isPresent()) {
           fileName = fileNames.get().fix(fileName);
         }
-        int offset = header.getOffset();
         int compressedSize = header.getCompressedSize();
         int uncompressedSize = header.getUncompressedSize();
-
-        // Skip to the next offset if we are not already there
-        if (bytesRead < offset) {
-          int bytesToMove = offset - bytesRead;
-          if (is.skip(bytesToMove) != bytesToMove) {
-            String errorMessage = String.format("Failed to skip to binary data of %s", fileName);
+        ByteBuffer input = ByteBuffer.wrap(compressed, 0, compressedSize);
+        while (input.hasRemaining()) {
+          long position = header.getOffset() + (long) input.position();
+          if (channel.read(input, position) < 0) {
+            String errorMessage = String.format("Failed to read all binary data of %s", fileName);
             throw new IOException(errorMessage);
           }
-          bytesRead += bytesToMove;
         }
 
-        byte[] fileBytes = new byte[compressedSize];
-        if (is.read(fileBytes) != compressedSize) {
-          String errorMessage = String.format("Failed to read all binary data of %s", fileName);
-          throw new IOException(errorMessage);
-        }
-        bytesRead += compressedSize;
-
         // Create directories from fileName and get output directory
         Path outputFilePath = outputDirectory.resolve(fileName);
-        Files.createDirectories(outputFilePath.getParent());
+        if (directories.add(outputFilePath.getParent())) {
+          Files.createDirectories(outputFilePath.getParent());
+        }
 
         // Files with the same compressed and uncompressed size are not compressed
+        ByteBuffer output;
         if (compressedSize == uncompressedSize) {
-          Files.write(outputFilePath, fileBytes);
+          output = ByteBuffer.wrap(compressed, 0, compressedSize);
         } else {
-          PRSUncompressor uncompressor = new PRSUncompressor(fileBytes, uncompressedSize);
-          byte[] output = uncompressor.uncompress();
-          Files.write(outputFilePath, output);
+          int written = PRSUncompressor.uncompress(compressed, 0, compressedSize, uncompressed, 0,
+              uncompressedSize);
+          // Clear any bytes left over from a previous child if the child is shorter than expected
+          Arrays.fill(uncompressed, written, uncompressedSize, (byte) 0);
+          output = ByteBuffer.wrap(uncompressed, 0, uncompressedSize);
         }
+        try (FileChannel outputChannel = FileChannel.open(outputFilePath, StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+          while (output.hasRemaining()) {
+            outputChannel.write(output);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Buffers for the compressed and uncompressed bytes of children being extracted, which grow to
+   * the largest child extracted on a thread.
+   */
+  private static class ExtractBuffers {
+
+    private byte[] compressed = new byte[0];
+
+    private byte[] uncompressed = new byte[0];
+
+    /**
+     * @param size The minimum size of the buffer.
+     * @return A buffer for compressed bytes of at least the given size.
+     */
+    byte[] getCompressed(int size) {
+      if (compressed.length < size) {
+        compressed = new byte[size];
+      }
+      return compressed;
+    }
+
+    /**
+     * @param size The minimum size of the buffer.
+     * @return A buffer for uncompressed bytes of at least the given size.
+     */
+    byte[] getUncompressed(int size) {
+      if (uncompressed.length < size) {
+        uncompressed = new byte[size];
       }
+      return uncompressed;
     }
   }
 }
@@ -11,6 +11,58 @@ import java.util.Arrays;
  */
 public class PRSCompressor {
 
+  /**
+   * The strategy used to find previous occurrences of the bytes at the current input index.
+   */
+  public enum MatchFinder {
+    /**
+     * Follows chains of previous positions that share the same two byte prefix. Produces output
+     * identical to {@link #WINDOW_SCAN} in a fraction of the time.
+     */
+    HASH_CHAIN,
+    /**
+     * Scans backwards through every byte of the 8192 byte window. This is the original algorithm
+     * and is kept as a reference for format compatibility.
+     */
+    WINDOW_SCAN
+  }
+
+  /**
+   * The strategy used to choose between uncompressed bytes and matches.
+   */
+  public enum Parse {
+    /**
+     * Takes the longest match found at each position. This is fast and is the original algorithm.
+     */
+    GREEDY,
+    /**
+     * Finds the cheapest sequence of uncompressed bytes, short searches and long searches for the
+     * entire input. This produces the smallest output but is slower than {@link #GREEDY}.
+     */
+    OPTIMAL
+  }
+
+  // The maximum distance back in the input bytes that a match can be found.
+  private static final int WINDOW_SIZE = 8192;
+
+  // The maximum length of a match when using the optimal parse.
+  private static final int MAX_MATCH_LENGTH = 256;
+
+  // The number of bits needed for an uncompressed byte (1 flag bit and 1 byte).
+  private static final int UNCOMPRESSED_BITS = 9;
+
+  // The number of bits needed for a short search (4 flag bits and 1 byte).
+  private static final int SHORT_COMPRESSION_BITS = 12;
+
+  // The number of bits needed for a long search with a length of 3 to 9 (2 flag bits and 2 bytes).
+  private static final int LONG_COMPRESSION_BITS = 18;
+
+  // The number of bits needed for a long search with a length over 9 (2 flag bits and 3 bytes).
+  private static final int EXTENDED_COMPRESSION_BITS = 26;
+
+  // The marker for the end of a hash chain.
+  private static final int NO_POSITION = -1;
+
   // Input bytes to compress.
   private final byte[] input;
 
@@ -34,20 +86,74 @@ public class PRSCompressor {
 
   private int pos;
 
+  // The strategy used to find previous occurrences of bytes.
+  private final MatchFinder matchFinder;
+
+  // The strategy used to choose between uncompressed bytes and matches.
+  private final Parse parse;
+
+  // The most recent input index for each two byte prefix, used by the hash chain match finder.
+  private int[] head;
+
+  // The previous input index with the same two byte prefix, used by the hash chain match finder.
+  private int[] previous;
+
+  // The next input index to be added to the hash chains.
+  private int hashIndex;
+
   /**
-   * Creates a new Eighting PRS compressor.
+   * Creates a new Eighting PRS compressor using the hash chain match finder.
    * 
    * @param input The input bytes to compress.
    */
   public PRSCompressor(byte[] input) {
+    this(input, MatchFinder.HASH_CHAIN, Parse.GREEDY);
+  }
+
+  /**
+   * Creates a new Eighting PRS compressor using the greedy parse.
+   *
+   * @param input The input bytes to compress.
+   * @param matchFinder The strategy used to find previous occurrences of bytes.
+   */
+  public PRSCompressor(byte[] input, MatchFinder matchFinder) {
+    this(input, matchFinder, Parse.GREEDY);
+  }
+
+  /**
+   * Creates a new Eighting PRS compressor using the hash chain match finder.
+   *
+   * @param input The input bytes to compress.
+   * @param parse The strategy used to choose between uncompressed bytes and matches.
+   */
+  public PRSCompressor(byte[] input, Parse parse) {
+    this(input, MatchFinder.HASH_CHAIN, parse);
+  }
+
+  /**
+   * Creates a new Eighting PRS compressor.
+   *
+   * @param input The input bytes to compress.
+   * @param matchFinder The strategy used to find previous occurrences of bytes.
+   * @param parse The strategy used to choose between uncompressed bytes and matches.
+   */
+  private PRSCompressor(byte[] input, MatchFinder matchFinder, Parse parse) {
     this.input = input;
+    this.matchFinder = matchFinder;
+    this.parse = parse;
     flagIndex = 0;
     outputIndex = 1;
     flagBitIndex = 7;
     currentCompressionLength = 0;
     pos = 0;
     inputIndex = 0;
+    hashIndex = 0;
     output = new byte[input.length * 2];
+    if (matchFinder == MatchFinder.HASH_CHAIN) {
+      head = new int[0x10000];
+      Arrays.fill(head, NO_POSITION);
+      previous = new int[input.length];
+    }
   }
 
   /**
@@ -56,6 +162,21 @@ public class PRSCompressor {
    * @return The compressed bytes.
    */
   public byte[] compress() {
+    if (parse == Parse.OPTIMAL) {
+      parseOptimal();
+    } else {
+      parseGreedy();
+    }
+    terminateFile();
+
+    // Return the length of the output plus three so that the file ends with three 0s.
+    return Arrays.copyOfRange(output, 0, (outputIndex) + 3);
+  }
+
+  /**
+   * Writes the input bytes to the output by taking the longest match found at each position.
+   */
+  private void parseGreedy() {
     while (inputIndex < input.length) {
       if (checkWindow()) {
         writeCompressedBytes();
@@ -68,10 +189,119 @@ public class PRSCompressor {
         inputIndex++;
       }
     }
-    terminateFile();
+  }
 
-    // Return the length of the output plus three so that the file ends with three 0s.
-    return Arrays.copyOfRange(output, 0, (outputIndex) + 3);
+  /**
+   * Writes the input bytes to the output using the cheapest sequence of uncompressed bytes and
+   * matches. The cost in bits to reach each input index is found by relaxing every uncompressed
+   * byte and every match length at each index, and the cheapest path is then written out.
+   */
+  private void parseOptimal() {
+    int length = input.length;
+    int[] cost = new int[length + 1];
+    int[] stepLength = new int[length + 1];
+    int[] stepDistance = new int[length + 1];
+    int[] nearestDistance = new int[MAX_MATCH_LENGTH + 1];
+    Arrays.fill(cost, 1, length + 1, Integer.MAX_VALUE);
+
+    for (int i = 0; i < length; i++) {
+      int literalCost = cost[i] + UNCOMPRESSED_BITS;
+      if (literalCost < cost[i + 1]) {
+        cost[i + 1] = literalCost;
+        stepLength[i + 1] = 1;
+      }
+      inputIndex = i;
+      int longest = findAllMatches(nearestDistance);
+      for (int matchLength = 2; matchLength <= longest; matchLength++) {
+        int distance = nearestDistance[matchLength];
+        int bits = getCompressionBits(matchLength, distance);
+        if (bits != -1 && cost[i] + bits < cost[i + matchLength]) {
+          cost[i + matchLength] = cost[i] + bits;
+          stepLength[i + matchLength] = matchLength;
+          stepDistance[i + matchLength] = distance;
+        }
+      }
+    }
+
+    // Walk backwards from the end to find the cheapest path, then write it out in order
+    int steps = 0;
+    for (int i = length; i > 0; i -= stepLength[i]) {
+      steps++;
+    }
+    int[] path = new int[steps];
+    for (int i = length, step = steps - 1; step >= 0; i -= stepLength[i], step--) {
+      path[step] = i;
+    }
+    inputIndex = 0;
+    for (int end : path) {
+      currentCompressionLength = stepLength[end];
+      if (currentCompressionLength == 1) {
+        writeUncompressedByte();
+      } else {
+        pos = stepDistance[end];
+        writeCompressedBytes();
+      }
+      inputIndex += currentCompressionLength;
+    }
+  }
+
+  /**
+   * Follows the hash chain at the current buffer position and records the nearest distance of a
+   * match for every length up to the longest match found.
+   *
+   * @param nearestDistance The nearest distance of a match indexed by the length of the match.
+   * @return The longest match length found.
+   */
+  private int findAllMatches(int[] nearestDistance) {
+    updateHashChains();
+    int bytesLeft = input.length - inputIndex;
+    if (inputIndex < 1 || bytesLeft < 2) {
+      return 0;
+    }
+
+    int maxMatchLength = Math.min(MAX_MATCH_LENGTH, bytesLeft);
+    int longest = 0;
+    int candidate = head[prefix(inputIndex)];
+    while (candidate != NO_POSITION && (inputIndex - candidate) < WINDOW_SIZE) {
+      // A longer match must at least match the byte after the current longest match
+      if (input[candidate + longest] == input[inputIndex + longest]) {
+        int length = 2;
+        while (length < maxMatchLength && input[candidate + length] == input[inputIndex + length]) {
+          length++;
+        }
+        if (length > longest) {
+          for (int i = longest + 1; i <= length; i++) {
+            nearestDistance[i] = inputIndex - candidate;
+          }
+          longest = length;
+          if (longest == maxMatchLength) {
+            break;
+          }
+        }
+      }
+      candidate = previous[candidate];
+    }
+    return longest;
+  }
+
+  /**
+   * Returns the number of bits needed to write a match of the given length and distance. A short
+   * search is used for lengths of 2 to 5 within 255 bytes and a long search is used otherwise.
+   *
+   * @param length The length of the match.
+   * @param distance The distance back to the match.
+   * @return The number of bits or -1 if the match cannot be written.
+   */
+  private static int getCompressionBits(int length, int distance) {
+    if (distance <= 255 && length <= 5) {
+      return SHORT_COMPRESSION_BITS;
+    } else if (length == 2) {
+      // A long search cannot encode a length of 2
+      return -1;
+    } else if (length <= 9) {
+      return LONG_COMPRESSION_BITS;
+    }
+    return EXTENDED_COMPRESSION_BITS;
   }
 
   /**
@@ -105,12 +335,95 @@ public class PRSCompressor {
     return currentCompressionLength > 1;
   }
 
+  /**
+   * Looks backwards from the current buffer position for previous repeated occurrences using the
+   * configured match finder.
+   *
+   * @return If previous repeated occurrences were found.
+   */
+  private boolean checkWindow() {
+    if (matchFinder == MatchFinder.WINDOW_SCAN) {
+      return checkWindowScan();
+    }
+    return checkHashChain();
+  }
+
+  /**
+   * Follows the hash chain of previous positions sharing the two byte prefix at the current buffer
+   * position. The chain is ordered from nearest to farthest, so the nearest of the longest matches
+   * is kept, which is the same match the window scan would find.
+   *
+   * @return If previous repeated occurrences were found.
+   */
+  private boolean checkHashChain() {
+    updateHashChains();
+    currentCompressionLength = 0;
+    int bytesLeft = input.length - inputIndex;
+    if (inputIndex < 1 || bytesLeft < 2) {
+      return false;
+    }
+
+    // 255 bytes is the maximum match length unless there are fewer bytes left than that
+    int maxMatchLength = Math.min(255, bytesLeft);
+    int matchLength = 0;
+    int savedIndex = inputIndex - 1;
+    int candidate = head[prefix(inputIndex)];
+    while (candidate != NO_POSITION && (inputIndex - candidate) < WINDOW_SIZE) {
+      // A longer match must at least match the byte after the current longest match
+      if (input[candidate + matchLength] == input[inputIndex + matchLength]) {
+        int length = 2;
+        while (length < maxMatchLength && input[candidate + length] == input[inputIndex + length]) {
+          length++;
+        }
+        if (length > matchLength) {
+          matchLength = length;
+          savedIndex = candidate;
+          if (matchLength == maxMatchLength) {
+            break;
+          }
+        }
+      }
+      candidate = previous[candidate];
+    }
+
+    currentCompressionLength = matchLength;
+    pos = inputIndex - savedIndex;
+    if ((matchLength == 2) && (pos > 255)) {
+      return false;
+    }
+
+    return matchLength >= 2;
+  }
+
+  /**
+   * Adds every input index before the current buffer position to the hash chains.
+   */
+  private void updateHashChains() {
+    int end = Math.min(inputIndex, input.length - 1);
+    while (hashIndex < end) {
+      int key = prefix(hashIndex);
+      previous[hashIndex] = head[key];
+      head[key] = hashIndex;
+      hashIndex++;
+    }
+  }
+
+  /**
+   * Returns the two byte prefix at the given index of the input bytes.
+   *
+   * @param index The index of the input bytes.
+   * @return The two byte prefix.
+   */
+  private int prefix(int index) {
+    return ((input[index] & 0xFF) << 8) | (input[index + 1] & 0xFF);
+  }
+
   /**
    * Scans backwards from the current buffer position
    * 
    * @return If previous repeated occurrences were found.
    */
-  private boolean checkWindow() {
+  private boolean checkWindowScan() {
     if (inputIndex < 1) {
       return false;
     }
@@ -129,7 +442,7 @@ public class PRSCompressor {
     // Don't exceed scan area of 8192 bytes
     // Do not scan beyond start of input bytes
     // Limit to 256 bytes match length
-    while (((currentIndex - scanIndex) < 8192) && (scanIndex >= 0)
+    while (((currentIndex - scanIndex) < WINDOW_SIZE) && (scanIndex >= 0)
         && (matchLength < maxMatchLength)) {
       while (memcmp(currentIndex, scanIndex, matchLength) && (matchLength < maxMatchLength)) {
         savedIndex = scanIndex;
@@ -1,9 +1,15 @@
 package com.github.nicholasmoser;
 
+import java.nio.ByteBuffer;
+
 /**
  * An uncompressor for Eighting PRS compressed files. Takes in the full byte array of the file and
  * returns the uncompressed byte stream. Thanks to Luigi Auriemma for porting to QuickBMS. Thanks to
  * tpu for originally writing it: http://forum.xentax.com/viewtopic.php?p=30387#p30387
+ * <p>
+ * The static uncompress methods are a faster variant that decode into a caller-supplied buffer so
+ * that a buffer can be reused between files. They decode each flag byte through a local bit buffer
+ * and copy back-references that do not overlap their output with System.arraycopy.
  */
 public class PRSUncompressor {
 
@@ -83,6 +89,134 @@ public class PRSUncompressor {
     return output;
   }
 
+  /**
+   * Uncompresses PRS compressed bytes into an output byte array. Bytes past the end of the output
+   * byte array are discarded.
+   *
+   * @param input  Eighting PRS compressed byte array.
+   * @param output The byte array to uncompress into.
+   * @return The number of bytes written to the output byte array.
+   * @throws IllegalArgumentException If the compressed bytes refer to bytes before the output.
+   */
+  public static int uncompress(byte[] input, byte[] output) {
+    return uncompress(input, 0, input.length, output, 0, output.length);
+  }
+
+  /**
+   * Uncompresses PRS compressed bytes from an array-backed input ByteBuffer into an array-backed
+   * output ByteBuffer. The bytes from the position to the limit of the input ByteBuffer are
+   * uncompressed, and the position of the input ByteBuffer is not changed. The bytes are written
+   * from the position of the output ByteBuffer, which is then moved past the written bytes. Bytes
+   * past the limit of the output ByteBuffer are discarded.
+   *
+   * @param input  Eighting PRS compressed bytes.
+   * @param output The ByteBuffer to uncompress into.
+   * @return The number of bytes written to the output ByteBuffer.
+   * @throws IllegalArgumentException If either ByteBuffer is not array-backed or the compressed
+   *                                  bytes refer to bytes before the output.
+   */
+  public static int uncompress(ByteBuffer input, ByteBuffer output) {
+    if (!input.hasArray() || !output.hasArray()) {
+      throw new IllegalArgumentException("The input and output ByteBuffers must be array-backed.");
+    }
+    int written = uncompress(input.array(), input.arrayOffset() + input.position(),
+        input.remaining(), output.array(), output.arrayOffset() + output.position(),
+        output.remaining());
+    output.position(output.position() + written);
+    return written;
+  }
+
+  /**
+   * Uncompresses PRS compressed bytes into part of an output byte array. Bytes past the given
+   * length are discarded. Decoding stops at the end of the input or at the end of file marker.
+   *
+   * @param input       Eighting PRS compressed byte array.
+   * @param inputOffset The offset of the compressed bytes in the input byte array.
+   * @param inputLength The number of compressed bytes.
+   * @param output      The byte array to uncompress into.
+   * @param offset      The offset in the output byte array to start writing at.
+   * @param length      The maximum number of bytes to write to the output byte array.
+   * @return The number of bytes written to the output byte array.
+   * @throws IllegalArgumentException If the compressed bytes refer to bytes before the offset.
+   */
+  public static int uncompress(byte[] input, int inputOffset, int inputLength, byte[] output,
+      int offset, int length) {
+    int inputIndex = inputOffset;
+    int inputEnd = inputOffset + inputLength;
+    int outputIndex = offset;
+    int outputEnd = offset + length;
+    int flagByte = 0;
+    int bitsLeft = 0;
+    while (inputIndex < inputEnd) {
+      if (bitsLeft == 0) {
+        flagByte = input[inputIndex++] & 0xff;
+        bitsLeft = 8;
+      }
+      if ((flagByte & (1 << --bitsLeft)) != 0) {
+        // Uncompressed value
+        byte value = input[inputIndex++];
+        if (outputIndex < outputEnd) {
+          output[outputIndex++] = value;
+        }
+        continue;
+      }
+      if (bitsLeft == 0) {
+        flagByte = input[inputIndex++] & 0xff;
+        bitsLeft = 8;
+      }
+      int len;
+      int distance;
+      if ((flagByte & (1 << --bitsLeft)) == 0) {
+        // Short search (length between 2 and 5)
+        len = 0;
+        for (int i = 0; i < 2; i++) {
+          if (bitsLeft == 0) {
+            flagByte = input[inputIndex++] & 0xff;
+            bitsLeft = 8;
+          }
+          len = (len << 1) | ((flagByte >>> --bitsLeft) & 1);
+        }
+        len += 2;
+        distance = 0x100 - (input[inputIndex++] & 0xff);
+      } else {
+        // Long search
+        int high = input[inputIndex++] & 0xff;
+        int low = input[inputIndex++] & 0xff;
+        if (high == 0 && low == 0) {
+          // End of file marker
+          break;
+        }
+        int word = (high << 8) | low;
+        distance = 0x2000 - (word >>> 3);
+        len = word & 0x07;
+        if (len == 0) {
+          len = (input[inputIndex++] & 0xff) + 1;
+        } else {
+          len += 2;
+        }
+      }
+      len = Math.min(len, outputEnd - outputIndex);
+      if (len <= 0) {
+        continue;
+      }
+      int pos = outputIndex - distance;
+      if (pos < offset) {
+        throw new IllegalArgumentException(
+            String.format("Back-reference of %d bytes before the start of the output", offset - pos));
+      }
+      if (distance >= len) {
+        System.arraycopy(output, pos, output, outputIndex, len);
+        outputIndex += len;
+      } else {
+        // The copy overlaps its own output, so it repeats the last distance bytes
+        for (int i = 0; i < len; i++) {
+          output[outputIndex++] = output[pos++];
+        }
+      }
+    }
+    return outputIndex - offset;
+  }
+
   /**
    * Retrieves a number of bits from the flag byte. A single 1 means the next byte is uncompressed.
    * A 0 followed by a 0 means that the next bytes are compressed via short search. A 0 followed by
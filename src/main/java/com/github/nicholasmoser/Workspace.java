@@ -2,11 +2,13 @@ package com.github.nicholasmoser;
 
 import com.github.nicholasmoser.fpk.FPKOptions;
 import com.github.nicholasmoser.workspace.WorkspaceFile;
+import com.github.nicholasmoser.workspace.WorkspaceSnapshot;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * A workspace for GNTool. Represented by a directory of decompressed game files.
@@ -66,6 +68,16 @@ public interface Workspace {
    */
   List<WorkspaceFile> getAllFiles() throws IOException;
 
+  /**
+   * Returns a snapshot of the workspace state indexed by file path and FPK file path. The snapshot
+   * is loaded from the workspace state once and is then kept up to date as files are added and
+   * removed.
+   *
+   * @return The snapshot of the workspace state.
+   * @throws IOException If any I/O exception occurs.
+   */
+  WorkspaceSnapshot getSnapshot() throws IOException;
+
   /**
    * Finds the list of files that are missing from the workspace.
    *
@@ -83,6 +95,32 @@ public interface Workspace {
    */
   Set<String> getChangedFiles(List<WorkspaceFile> allFiles) throws IOException;
 
+  /**
+   * Returns the files that have been changed as they are found. The files are checked in parallel,
+   * so the stream is in no particular order.
+   *
+   * @param allFiles All files currently in the workspace state.
+   * @return The stream of changed files.
+   * @throws java.io.UncheckedIOException If any I/O exception occurs consuming the stream.
+   */
+  Stream<String> streamChangedFiles(List<WorkspaceFile> allFiles);
+
+  /**
+   * Starts watching the uncompressed directory for changes. While watching, checking for changed
+   * files only checks the files that have changed since the last check.
+   *
+   * @param listener Called after each burst of changes to the uncompressed directory.
+   * @throws IOException If any I/O exception occurs.
+   */
+  void startWatching(Runnable listener) throws IOException;
+
+  /**
+   * Stops watching the uncompressed directory for changes.
+   *
+   * @throws IOException If any I/O exception occurs.
+   */
+  void stopWatching() throws IOException;
+
   /**
    * Reverts changed files.
    *
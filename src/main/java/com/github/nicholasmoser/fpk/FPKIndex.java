@@ -0,0 +1,281 @@
+package com.github.nicholasmoser.fpk;
+
+import com.github.nicholasmoser.PRSUncompressor;
+import com.github.nicholasmoser.utils.FPKUtils;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The table of contents of an FPK file. The file headers are read once and can then be looked up
+ * by file name, and the bytes of any child can be read directly from its offset without reading
+ * the rest of the FPK file.
+ * <p>
+ * Indexes of FPK files on disk are cached by path, and a cached index is only used if the FPK file
+ * still has the same size and last modified time as when it was read.
+ */
+public class FPKIndex {
+
+  private static final Map<Path, FPKIndex> CACHE = new ConcurrentHashMap<>();
+
+  private final Path fpkPath;
+
+  private final List<FPKFileHeader> headers;
+
+  private final Map<String, FPKFileHeader> fileNameToHeader;
+
+  private final boolean longPaths;
+
+  private final boolean bigEndian;
+
+  private final long size;
+
+  private final FileTime lastModifiedTime;
+
+  /**
+   * Creates a new FPKIndex.
+   *
+   * @param fpkPath          The path to the FPK file, or null if it is not on disk.
+   * @param headers          The file headers of the FPK file.
+   * @param longPaths        If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian        If the FPK is big-endian (instead of little-endian).
+   * @param size             The size of the FPK file.
+   * @param lastModifiedTime The last modified time of the FPK file, or null if it is not on disk.
+   */
+  private FPKIndex(Path fpkPath, List<FPKFileHeader> headers, boolean longPaths,
+      boolean bigEndian, long size, FileTime lastModifiedTime) {
+    this.fpkPath = fpkPath;
+    this.headers = headers;
+    this.longPaths = longPaths;
+    this.bigEndian = bigEndian;
+    this.size = size;
+    this.lastModifiedTime = lastModifiedTime;
+    this.fileNameToHeader = new HashMap<>(headers.size() * 2);
+    for (FPKFileHeader header : headers) {
+      // Keep the first header if a file name is repeated
+      fileNameToHeader.putIfAbsent(header.getFileName(), header);
+    }
+  }
+
+  /**
+   * Returns the index of an FPK file on disk. The index is cached and only read again if the FPK
+   * file has been modified since it was last read.
+   *
+   * @param fpkPath   The path to the FPK file.
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian If the FPK is big-endian (instead of little-endian).
+   * @return The index of the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static FPKIndex get(Path fpkPath, boolean longPaths, boolean bigEndian)
+      throws IOException {
+    Path key = fpkPath.toAbsolutePath().normalize();
+    BasicFileAttributes attributes = Files.readAttributes(key, BasicFileAttributes.class);
+    FPKIndex index = CACHE.get(key);
+    if (index != null && index.longPaths == longPaths && index.bigEndian == bigEndian
+        && index.size == attributes.size()
+        && index.lastModifiedTime.equals(attributes.lastModifiedTime())) {
+      return index;
+    }
+    index = read(key, longPaths, bigEndian, attributes);
+    CACHE.put(key, index);
+    return index;
+  }
+
+  /**
+   * Removes the cached index of an FPK file. This must be called after an FPK file is written in
+   * case the file system does not update the last modified time precisely enough to detect it.
+   *
+   * @param fpkPath The path to the FPK file.
+   */
+  public static void invalidate(Path fpkPath) {
+    CACHE.remove(fpkPath.toAbsolutePath().normalize());
+  }
+
+  /**
+   * Reads the index of an FPK file in memory, such as one in a memory-mapped ISO. The index is not
+   * cached.
+   *
+   * @param fpk       The bytes of the FPK file.
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian If the FPK is big-endian (instead of little-endian).
+   * @return The index of the FPK file.
+   * @throws IOException If the FPK file headers cannot be read.
+   */
+  public static FPKIndex read(ByteBuffer fpk, boolean longPaths, boolean bigEndian)
+      throws IOException {
+    if (fpk.limit() < 16) {
+      throw new IOException("Unable to read FPK header.");
+    }
+    ByteOrder order = bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    int fileCount = fpk.duplicate().order(order).getInt(4);
+    byte[] headers = new byte[getHeadersLength(fileCount, longPaths, fpk.limit())];
+    fpk.get(0, headers);
+    return new FPKIndex(null, readHeaders(headers, longPaths, bigEndian), longPaths, bigEndian,
+        fpk.limit(), null);
+  }
+
+  /**
+   * Reads the index of an FPK file on disk. Only the FPK header and file headers are read.
+   *
+   * @param fpkPath    The path to the FPK file.
+   * @param longPaths  If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian  If the FPK is big-endian (instead of little-endian).
+   * @param attributes The attributes of the FPK file.
+   * @return The index of the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static FPKIndex read(Path fpkPath, boolean longPaths, boolean bigEndian,
+      BasicFileAttributes attributes) throws IOException {
+    try (FileChannel channel = FileChannel.open(fpkPath, StandardOpenOption.READ)) {
+      return new FPKIndex(fpkPath, readHeaders(channel, longPaths, bigEndian), longPaths,
+          bigEndian, attributes.size(), attributes.lastModifiedTime());
+    }
+  }
+
+  /**
+   * Reads the file headers of an FPK file from a file channel. The FPK header is read first to get
+   * the number of files, and then all the file headers are read at once.
+   *
+   * @param channel   The file channel of the FPK file.
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian If the FPK is big-endian (instead of little-endian).
+   * @return The file headers in the order they are in the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static List<FPKFileHeader> readHeaders(FileChannel channel, boolean longPaths,
+      boolean bigEndian) throws IOException {
+    ByteBuffer header = readFully(channel, 0, 16);
+    int fileCount = header.order(bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN)
+        .getInt(4);
+    int length = getHeadersLength(fileCount, longPaths, channel.size());
+    return readHeaders(readFully(channel, 0, length).array(), longPaths, bigEndian);
+  }
+
+  /**
+   * @return The file headers in the order they are in the FPK file.
+   */
+  public List<FPKFileHeader> getHeaders() {
+    return headers;
+  }
+
+  /**
+   * Returns the file header of a child.
+   *
+   * @param fileName The file name of the child, as it is in the FPK file.
+   * @return The file header, or empty if there is no child with the file name.
+   */
+  public Optional<FPKFileHeader> getHeader(String fileName) {
+    return Optional.ofNullable(fileNameToHeader.get(fileName));
+  }
+
+  /**
+   * Reads the bytes of a child as they are stored in the FPK file, which may be compressed.
+   *
+   * @param header The file header of the child.
+   * @return The stored bytes of the child.
+   * @throws IOException If an I/O error occurs.
+   */
+  public byte[] readStoredBytes(FPKFileHeader header) throws IOException {
+    if (fpkPath == null) {
+      throw new IOException("The FPK file is not on disk.");
+    }
+    if ((long) header.getOffset() + header.getCompressedSize() > size) {
+      throw new IOException(header.getFileName() + " extends past the end of the FPK file.");
+    }
+    try (FileChannel channel = FileChannel.open(fpkPath, StandardOpenOption.READ)) {
+      return readFully(channel, header.getOffset(), header.getCompressedSize()).array();
+    }
+  }
+
+  /**
+   * Reads the uncompressed bytes of a child.
+   *
+   * @param fileName The file name of the child, as it is in the FPK file.
+   * @return The uncompressed bytes of the child.
+   * @throws IOException If the child is not in the FPK file or an I/O error occurs.
+   */
+  public byte[] readChild(String fileName) throws IOException {
+    FPKFileHeader header = getHeader(fileName).orElseThrow(
+        () -> new IOException(String.format("%s could not be found in %s", fileName, fpkPath)));
+    byte[] bytes = readStoredBytes(header);
+    if (header.getCompressedSize() == header.getUncompressedSize()) {
+      return bytes;
+    }
+    byte[] uncompressed = new byte[header.getUncompressedSize()];
+    PRSUncompressor.uncompress(bytes, 0, bytes.length, uncompressed, 0, uncompressed.length);
+    return uncompressed;
+  }
+
+  /**
+   * Returns the length of the FPK header and file headers, checking that they fit in the file.
+   *
+   * @param fileCount The number of files in the FPK header.
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param size      The size of the FPK file.
+   * @return The length of the FPK header and file headers.
+   * @throws IOException If the file count is invalid.
+   */
+  private static int getHeadersLength(int fileCount, boolean longPaths, long size)
+      throws IOException {
+    long length = 16 + (long) fileCount * (longPaths ? 48 : 32);
+    if (fileCount < 0 || length > size) {
+      throw new IOException("Invalid FPK file count: " + fileCount);
+    }
+    return (int) length;
+  }
+
+  /**
+   * Reads the file headers from the bytes of the FPK header and file headers.
+   *
+   * @param bytes     The bytes of the FPK header and file headers.
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian If the FPK is big-endian (instead of little-endian).
+   * @return The file headers.
+   * @throws IOException If the file headers cannot be read.
+   */
+  private static List<FPKFileHeader> readHeaders(byte[] bytes, boolean longPaths,
+      boolean bigEndian) throws IOException {
+    try (InputStream is = new ByteArrayInputStream(bytes)) {
+      int fileCount = FPKUtils.readFPKHeader(is, bigEndian);
+      FPKFileHeader[] headers = new FPKFileHeader[fileCount];
+      for (int i = 0; i < fileCount; i++) {
+        headers[i] = FPKUtils.readFPKFileHeader(is, longPaths, bigEndian);
+      }
+      return List.of(headers);
+    }
+  }
+
+  /**
+   * Reads bytes from a position of a file channel.
+   *
+   * @param channel  The file channel.
+   * @param position The position to read from.
+   * @param length   The number of bytes to read.
+   * @return The bytes read, in a heap buffer.
+   * @throws IOException If the end of the file is reached first or an I/O error occurs.
+   */
+  private static ByteBuffer readFully(FileChannel channel, long position, int length)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of FPK file at " + position);
+      }
+    }
+    return buffer.flip();
+  }
+}
@@ -1,11 +1,34 @@
 package com.github.nicholasmoser.fpk;
 
+import com.github.nicholasmoser.PRSCompressor.Parse;
+
 /**
  * Options for reading and writing FPK files for a specific title. Long paths are 32-bytes long.
  * If they are not long paths they are short paths, which are 16-bytes long. Also includes if the
  * FPK files are big or little endian. File names are to help with compressing and decompressing
- * shortened file paths.
+ * shortened file paths. The parse is the PRS compression strategy used when packing FPK files,
+ * where the greedy parse is fast and the optimal parse produces the smallest FPK files.
  */
-public record FPKOptions(boolean longPaths, boolean bigEndian, FileNames fileNames) {
+public record FPKOptions(boolean longPaths, boolean bigEndian, FileNames fileNames, Parse parse) {
+
+  /**
+   * Creates new FPK options that use the greedy PRS compression parse.
+   *
+   * @param longPaths If the FPK inner file paths are 32-bytes (instead of 16-bytes).
+   * @param bigEndian If the FPK is big-endian (instead of little-endian).
+   * @param fileNames The file names to fix shortened file paths.
+   */
+  public FPKOptions(boolean longPaths, boolean bigEndian, FileNames fileNames) {
+    this(longPaths, bigEndian, fileNames, Parse.GREEDY);
+  }
 
+  /**
+   * Returns a copy of these FPK options with a different PRS compression parse.
+   *
+   * @param parse The PRS compression parse.
+   * @return The new FPK options.
+   */
+  public FPKOptions withParse(Parse parse) {
+    return new FPKOptions(longPaths, bigEndian, fileNames, parse);
+  }
 }
@@ -0,0 +1,251 @@
+package com.github.nicholasmoser.fpk;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.github.nicholasmoser.PRSCompressor.Parse;
+import com.github.nicholasmoser.PRSUncompressor;
+import com.github.nicholasmoser.utils.CRC32;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of PRS compressed FPK children. Each entry is a file in the cache directory
+ * named by the CRC32 hash and size of the uncompressed bytes and the PRS parse used to compress
+ * them. The least recently used entries are deleted when the total size of the cache exceeds its
+ * maximum size. The last modified time of each entry is used to remember how recently it was used
+ * between runs. Cached bytes are uncompressed and compared to the input before being returned, so a
+ * hash collision or corrupted entry is treated as a miss.
+ */
+public class PRSCache {
+
+  private static final Logger LOGGER = Logger.getLogger(PRSCache.class.getName());
+
+  public static final String DIRECTORY_NAME = "prs_cache";
+
+  public static final long DEFAULT_MAX_SIZE = 512L * 1024 * 1024;
+
+  private static final String EXTENSION = ".prs";
+
+  private final Path directory;
+
+  private final long maxSize;
+
+  // File names of entries to their size, ordered from least to most recently used.
+  private final Map<String, Long> entries;
+
+  private final AtomicInteger hits;
+
+  private final AtomicInteger misses;
+
+  private long totalSize;
+
+  private boolean loaded;
+
+  /**
+   * Creates a new PRS cache in the given directory. The directory will be created and read when
+   * the cache is first used.
+   *
+   * @param directory The directory to store the cache in.
+   * @param maxSize   The maximum total size in bytes of the cache.
+   */
+  public PRSCache(Path directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.hits = new AtomicInteger();
+    this.misses = new AtomicInteger();
+  }
+
+  /**
+   * Creates a new PRS cache for the given workspace directory with the default maximum size.
+   *
+   * @param workspaceDirectory The workspace directory.
+   * @return The PRS cache.
+   */
+  public static PRSCache forWorkspace(Path workspaceDirectory) {
+    return new PRSCache(workspaceDirectory.resolve(DIRECTORY_NAME), DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * Returns the PRS compressed bytes for the given uncompressed bytes if they are in the cache.
+   *
+   * @param input The uncompressed bytes.
+   * @param parse The PRS parse used to compress the bytes.
+   * @return The PRS compressed bytes, if they are in the cache.
+   * @throws IOException If an I/O error occurs.
+   */
+  public Optional<byte[]> get(byte[] input, Parse parse) throws IOException {
+    String fileName = getFileName(input, parse);
+    synchronized (this) {
+      load();
+      if (entries.get(fileName) == null) {
+        misses.incrementAndGet();
+        return Optional.empty();
+      }
+    }
+    Path entry = directory.resolve(fileName);
+    try {
+      byte[] output = Files.readAllBytes(entry);
+      byte[] uncompressed = new PRSUncompressor(output, input.length).uncompress();
+      if (Arrays.equals(input, uncompressed)) {
+        Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        hits.incrementAndGet();
+        return Optional.of(output);
+      }
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Unable to read PRS cache entry " + entry, e);
+    }
+    // The entry is corrupted or a hash collision, so remove it
+    synchronized (this) {
+      remove(fileName);
+    }
+    misses.incrementAndGet();
+    return Optional.empty();
+  }
+
+  /**
+   * Adds the PRS compressed bytes for the given uncompressed bytes to the cache. The least
+   * recently used entries will be removed if the cache is now over its maximum size.
+   *
+   * @param input  The uncompressed bytes.
+   * @param parse  The PRS parse used to compress the bytes.
+   * @param output The PRS compressed bytes.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void put(byte[] input, Parse parse, byte[] output) throws IOException {
+    if (output.length > maxSize) {
+      return;
+    }
+    String fileName = getFileName(input, parse);
+    Path entry = directory.resolve(fileName);
+    synchronized (this) {
+      load();
+    }
+    // Write to a temporary file first so that an interrupted write is never read as an entry
+    Path temp = Files.createTempFile(directory, fileName, ".tmp");
+    Files.write(temp, output);
+    Files.move(temp, entry, REPLACE_EXISTING, ATOMIC_MOVE);
+    synchronized (this) {
+      Long previousSize = entries.put(fileName, (long) output.length);
+      if (previousSize != null) {
+        totalSize -= previousSize;
+      }
+      totalSize += output.length;
+      evict();
+    }
+  }
+
+  /**
+   * @return The number of times compressed bytes were found in the cache.
+   */
+  public int getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return The number of times compressed bytes were not found in the cache.
+   */
+  public int getMisses() {
+    return misses.get();
+  }
+
+  /**
+   * @return The total size in bytes of the entries in the cache.
+   */
+  public synchronized long getTotalSize() {
+    return totalSize;
+  }
+
+  /**
+   * Reads the existing entries of the cache directory if they have not been read yet, ordered by
+   * their last modified time. Any temporary files left by interrupted writes are deleted.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  private void load() throws IOException {
+    if (loaded) {
+      return;
+    }
+    Files.createDirectories(directory);
+    List<Path> files;
+    try (Stream<Path> paths = Files.list(directory)) {
+      files = paths.filter(Files::isRegularFile).toList();
+    }
+    Map<Path, FileTime> modified = new LinkedHashMap<>();
+    for (Path file : files) {
+      if (file.getFileName().toString().endsWith(EXTENSION)) {
+        modified.put(file, Files.getLastModifiedTime(file));
+      } else {
+        Files.deleteIfExists(file);
+      }
+    }
+    List<Path> sorted = modified.keySet().stream()
+        .sorted(Comparator.comparing(modified::get))
+        .toList();
+    for (Path file : sorted) {
+      long size = Files.size(file);
+      entries.put(file.getFileName().toString(), size);
+      totalSize += size;
+    }
+    loaded = true;
+    evict();
+  }
+
+  /**
+   * Removes the least recently used entries until the cache is no larger than its maximum size.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  private void evict() throws IOException {
+    Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+    while (totalSize > maxSize && iterator.hasNext()) {
+      Map.Entry<String, Long> eldest = iterator.next();
+      iterator.remove();
+      totalSize -= eldest.getValue();
+      Files.deleteIfExists(directory.resolve(eldest.getKey()));
+    }
+  }
+
+  /**
+   * Removes an entry from the cache.
+   *
+   * @param fileName The file name of the entry.
+   */
+  private void remove(String fileName) {
+    Long size = entries.remove(fileName);
+    if (size != null) {
+      totalSize -= size;
+    }
+    try {
+      Files.deleteIfExists(directory.resolve(fileName));
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Unable to delete PRS cache entry " + fileName, e);
+    }
+  }
+
+  /**
+   * Returns the file name of the cache entry for the given uncompressed bytes and parse.
+   *
+   * @param input The uncompressed bytes.
+   * @param parse The PRS parse used to compress the bytes.
+   * @return The file name of the cache entry.
+   */
+  private static String getFileName(byte[] input, Parse parse) {
+    int hash = CRC32.getHash(input);
+    return String.format("%08x_%d_%s%s", hash, input.length, parse.name().toLowerCase(), EXTENSION);
+  }
+}
@@ -7,6 +7,7 @@ import com.github.nicholasmoser.utils.FileUtils;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.UUID;
 import java.util.logging.Logger;
 
@@ -98,4 +99,22 @@ public class GameCubeISO {
     creator.create(pushFilesToEnd);
     LOGGER.info("Finished importing files.");
   }
+
+  /**
+   * Updates the given output ISO in place with the changed files contained in the given directory.
+   * A new ISO will be created if the output ISO cannot be updated.
+   *
+   * @param inputDirectory The directory to import files from.
+   * @param outputISO The output ISO to update.
+   * @param changedFiles The relative paths of the changed files in the input directory.
+   * @param pushFilesToEnd If the files should be pushed to the end of the ISO if a new ISO is created.
+   * @throws IOException If an I/O error occurs
+   */
+  public static void updateFiles(Path inputDirectory, Path outputISO,
+      Collection<String> changedFiles, boolean pushFilesToEnd) throws IOException {
+    LOGGER.info("Updating files...");
+    ISOCreator creator = new ISOCreator(inputDirectory, outputISO);
+    creator.update(changedFiles, pushFilesToEnd);
+    LOGGER.info("Finished updating files.");
+  }
 }
@@ -2,8 +2,6 @@ package com.github.nicholasmoser.gnt4;
 
 import com.github.nicholasmoser.fpk.FileNames;
 import com.github.nicholasmoser.utils.FileUtils;
-import com.google.common.io.MoreFiles;
-import com.google.common.io.RecursiveDeleteOption;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -27,6 +25,8 @@ public class GNT4Extractor implements Extractor {
 
   private final Path compressedPath;
 
+  private final boolean linkFiles;
+
   private boolean extracted;
 
   private boolean unpacked;
@@ -36,9 +36,22 @@ public class GNT4Extractor implements Extractor {
    * @param extractionPath The path to extract the ISO to.
    */
   public GNT4Extractor(Path iso, Path extractionPath) {
+    this(iso, extractionPath, false);
+  }
+
+  /**
+   * @param iso            The GNT4 ISO to extract.
+   * @param extractionPath The path to extract the ISO to.
+   * @param linkFiles      If the non-FPK files of the uncompressed directory should be hard links
+   *                       to the files of the compressed directory instead of copies. This is
+   *                       faster but a file written to in place will also change in the compressed
+   *                       directory, which is where the file is reverted from.
+   */
+  public GNT4Extractor(Path iso, Path extractionPath, boolean linkFiles) {
     this.iso = iso;
     this.extractionPath = extractionPath;
     this.compressedPath = extractionPath.resolve(GNT4Files.COMPRESSED_DIRECTORY);
+    this.linkFiles = linkFiles;
     this.extracted = false;
     this.unpacked = false;
   }
@@ -60,11 +73,13 @@ public class GNT4Extractor implements Extractor {
     if (!unpacked) {
       Path compressed = extractionPath.resolve(GNT4Files.COMPRESSED_DIRECTORY);
       Path uncompressed = extractionPath.resolve(GNT4Files.UNCOMPRESSED_DIRECTORY);
+      // The FPKs are unpacked straight from the compressed directory, so they are not copied
+      Path fpack = compressed.resolve("files/fpack");
       LOGGER.info(String.format("Copying %s to %s", compressed, uncompressed));
-      FileUtils.copyFolder(compressed, uncompressed);
+      FileUtils.copyFolder(compressed, uncompressed, path -> !path.equals(fpack), linkFiles);
       Optional<FileNames> gnt4FileNames = Optional.of(new GNT4FileNames());
       FPKUnpacker unpacker = new FPKUnpacker(uncompressed, gnt4FileNames, false, true);
-      unpacker.unpackDirectory();
+      unpacker.unpackDirectory(compressed, Runtime.getRuntime().availableProcessors());
       unpacked = true;
     }
     return GNT4Workspace.create(extractionPath);
@@ -3,26 +3,37 @@ package com.github.nicholasmoser.gnt4;
 import com.github.nicholasmoser.GNTFileProtos.GNTFiles;
 import com.github.nicholasmoser.Workspace;
 import com.github.nicholasmoser.fpk.FPKOptions;
-import com.github.nicholasmoser.utils.CRC32;
 import com.github.nicholasmoser.utils.FPKUtils;
 import com.github.nicholasmoser.workspace.SQLiteWorkspaceState;
 import com.github.nicholasmoser.workspace.WorkspaceFile;
+import com.github.nicholasmoser.workspace.WorkspaceSnapshot;
 import com.github.nicholasmoser.workspace.WorkspaceState;
+import com.github.nicholasmoser.workspace.WorkspaceWatcher;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A Workspace for GNT4 decompressed files.
  */
 public class GNT4Workspace implements Workspace {
 
+  // How long to wait after the last change to the workspace before notifying the listener.
+  private static final Duration WATCH_DEBOUNCE = Duration.ofMillis(500);
+
   private final Path workspaceDir;
 
   private final Path compressed;
@@ -33,6 +44,14 @@ public class GNT4Workspace implements Workspace {
 
   private final FPKOptions options;
 
+  private WorkspaceWatcher watcher;
+
+  // The snapshot of the workspace state, or null if it must be loaded from the workspace state.
+  private WorkspaceSnapshot snapshot;
+
+  // The changed files as of the last check while watching, or null if every file must be checked.
+  private Set<String> changedFiles;
+
   public GNT4Workspace(Path workspaceDir, WorkspaceState state) {
     this.workspaceDir = workspaceDir;
     this.compressed = workspaceDir.resolve("compressed");
@@ -69,29 +88,54 @@ public class GNT4Workspace implements Workspace {
   }
 
   @Override
-  public void initState() throws IOException {
+  public synchronized void initState() throws IOException {
+    Optional<Set<String>> dirtyPaths = takeDirtyPaths();
     state.init(workspaceDir, new FPKOptions(false, true, new GNT4FileNames()));
+    // Only files changed while the state was being initialized can now be changed
+    changedFiles = dirtyPaths.isPresent() ? new HashSet<>() : null;
+    snapshot = null;
   }
 
   @Override
-  public void updateState() throws IOException {
+  public synchronized void updateState() throws IOException {
+    Optional<Set<String>> dirtyPaths = takeDirtyPaths();
     state.delete();
     state.init(workspaceDir, new FPKOptions(false, true, new GNT4FileNames()));
+    // Only files changed while the state was being updated can now be changed
+    changedFiles = dirtyPaths.isPresent() ? new HashSet<>() : null;
+    snapshot = null;
   }
 
   @Override
-  public void addFile(WorkspaceFile file) throws IOException {
+  public synchronized void addFile(WorkspaceFile file) throws IOException {
     state.addFile(file);
+    changedFiles = null;
+    if (snapshot != null) {
+      snapshot = snapshot.withFile(file);
+    }
   }
 
   @Override
-  public boolean removeFile(String filePath) throws IOException {
-    return state.removeFile(filePath);
+  public synchronized boolean removeFile(String filePath) throws IOException {
+    changedFiles = null;
+    boolean removed = state.removeFile(filePath);
+    if (snapshot != null) {
+      snapshot = snapshot.withoutFile(filePath);
+    }
+    return removed;
   }
 
   @Override
   public List<WorkspaceFile> getAllFiles() throws IOException {
-    return state.getAllFiles();
+    return getSnapshot().getFiles();
+  }
+
+  @Override
+  public synchronized WorkspaceSnapshot getSnapshot() throws IOException {
+    if (snapshot == null) {
+      snapshot = WorkspaceSnapshot.of(state.getAllFiles());
+    }
+    return snapshot;
   }
 
   @Override
@@ -108,30 +152,134 @@ public class GNT4Workspace implements Workspace {
 
   @Override
   public Set<String> getChangedFiles(List<WorkspaceFile> allFiles) throws IOException {
-    Set<String> filesChanged = new HashSet<>();
-    for (WorkspaceFile file : allFiles) {
-      String filePath = file.filePath();
-      Path fullPath = uncompressed.resolve(filePath);
-      if (!Files.exists(fullPath)) {
-        // The file has been changed if it has been removed
-        filesChanged.add(filePath);
-      } else {
-        if (Files.getLastModifiedTime(fullPath).toMillis() > file.modifiedDtTm()) {
-          // File has been modified, check hash to confirm there was an actual change
-          if (CRC32.getHash(fullPath) != file.hash()) {
-            // File has been changed
-            filesChanged.add(filePath);
-          }
-        }
+    try {
+      return streamChangedFiles(allFiles).collect(Collectors.toSet());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  @Override
+  public Stream<String> streamChangedFiles(List<WorkspaceFile> allFiles) {
+    synchronized (this) {
+      if (watcher != null) {
+        return getWatchedChangedFiles(allFiles).stream();
       }
     }
-    return filesChanged;
+    return scanChangedFiles(allFiles);
+  }
+
+  @Override
+  public synchronized void startWatching(Runnable listener) throws IOException {
+    if (watcher == null) {
+      watcher = WorkspaceWatcher.start(uncompressed, WATCH_DEBOUNCE, listener).orElse(null);
+      changedFiles = null;
+    }
+  }
+
+  @Override
+  public synchronized void stopWatching() throws IOException {
+    if (watcher != null) {
+      watcher.close();
+      watcher = null;
+      changedFiles = null;
+    }
+  }
+
+  /**
+   * Returns the changed files while the workspace is being watched. Only the files that are dirty
+   * since the last check are checked again, unless every file must be checked because this is the
+   * first check or the watcher overflowed.
+   *
+   * @param allFiles All files currently in the workspace state.
+   * @return The changed files.
+   */
+  private Set<String> getWatchedChangedFiles(List<WorkspaceFile> allFiles) {
+    Optional<Set<String>> dirtyPaths = takeDirtyPaths();
+    List<WorkspaceFile> filesToCheck = allFiles;
+    if (changedFiles == null || dirtyPaths.isEmpty()) {
+      changedFiles = new HashSet<>();
+    } else {
+      Set<String> dirty = dirtyPaths.get();
+      filesToCheck = allFiles.stream()
+          .filter(file -> WorkspaceWatcher.isDirty(file.filePath(), dirty))
+          .toList();
+      for (WorkspaceFile file : filesToCheck) {
+        changedFiles.remove(file.filePath());
+      }
+    }
+    try {
+      scanChangedFiles(filesToCheck).forEach(changedFiles::add);
+    } catch (UncheckedIOException e) {
+      // Check every file next time since the changed files are incomplete
+      changedFiles = null;
+      throw e;
+    }
+    return Set.copyOf(changedFiles);
+  }
+
+  /**
+   * Takes the dirty paths of the watcher if the workspace is being watched. Any events the watcher
+   * has received but not processed yet are processed first, so that no change received so far is
+   * missed.
+   *
+   * @return The dirty paths, or empty if not being watched or every file must be checked.
+   */
+  private Optional<Set<String>> takeDirtyPaths() {
+    if (watcher == null) {
+      return Optional.empty();
+    }
+    watcher.flush();
+    return watcher.takeDirtyPaths();
+  }
+
+  /**
+   * Returns the files that have been changed as they are found, checking each file in parallel.
+   *
+   * @param allFiles The files to check.
+   * @return The stream of changed files.
+   */
+  private Stream<String> scanChangedFiles(List<WorkspaceFile> allFiles) {
+    return allFiles.parallelStream()
+        .filter(file -> {
+          try {
+            return isChanged(file);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        })
+        .map(WorkspaceFile::filePath);
+  }
+
+  /**
+   * Returns if a workspace file has been changed. The existence and last modified time of the file
+   * are read together, and the file is only hashed if it has been modified since it was last
+   * hashed.
+   *
+   * @param file The workspace file.
+   * @return If the file has been changed.
+   * @throws IOException If an I/O error occurs.
+   */
+  private boolean isChanged(WorkspaceFile file) throws IOException {
+    Path fullPath = uncompressed.resolve(file.filePath());
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(fullPath, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      // The file has been changed if it has been removed
+      return true;
+    }
+    if (attributes.lastModifiedTime().toMillis() > file.modifiedDtTm()) {
+      // File has been modified, check hash to confirm there was an actual change
+      return file.hashAlgorithm().getHash(fullPath) != file.hash();
+    }
+    return false;
   }
 
   @Override
   public void revertFiles(Collection<String> filePaths) throws IOException {
-    for (String filePath : filePaths) {
-      WorkspaceFile file = state.getFile(filePath);
+    for (WorkspaceFile file : state.getFiles(filePaths)) {
+      String filePath = file.filePath();
       String fpkFilePath = file.fpkFilePath();
       if (fpkFilePath != null) {
         // FPK child file
@@ -162,7 +310,7 @@ public class GNT4Workspace implements Workspace {
    * @deprecated Protobuf in GNTool is no longer supported and is set to eventually be removed
    */
   @Deprecated
-  public void insertGNTFiles() throws IOException {
+  public synchronized void insertGNTFiles() throws IOException {
     Path oldState = workspaceDir.resolve(GNT4Files.WORKSPACE_STATE);
     if (!Files.exists(oldState)) {
       throw new IllegalStateException("Old protobuf state workspace.bin does not exist");
@@ -171,5 +319,7 @@ public class GNT4Workspace implements Workspace {
       GNTFiles gntFiles = GNTFiles.parseFrom(is);
       state.insertGNTFiles(workspaceDir, gntFiles);
     }
+    changedFiles = null;
+    snapshot = null;
   }
 }
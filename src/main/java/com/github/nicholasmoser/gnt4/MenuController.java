@@ -4,12 +4,14 @@ import com.github.nicholasmoser.Choosers;
 import com.github.nicholasmoser.FPKPacker;
 import com.github.nicholasmoser.GNTool;
 import com.github.nicholasmoser.Message;
+import com.github.nicholasmoser.PRSCompressor.Parse;
 import com.github.nicholasmoser.Randomizer;
 import com.github.nicholasmoser.Workspace;
 import com.github.nicholasmoser.audio.DspAdpcmEncoder;
 import com.github.nicholasmoser.audio.DtkMake;
 import com.github.nicholasmoser.audio.FFmpeg;
 import com.github.nicholasmoser.audio.MusyXExtract;
+import com.github.nicholasmoser.fpk.FPKOptions;
 import com.github.nicholasmoser.gamecube.GameCubeISO;
 import com.github.nicholasmoser.gecko.GeckoCode;
 import com.github.nicholasmoser.gecko.GeckoCodeGroup;
@@ -51,16 +53,22 @@ import com.github.nicholasmoser.utils.GUIUtils;
 import com.github.nicholasmoser.workspace.WorkspaceFile;
 import java.awt.Desktop;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -105,6 +113,8 @@ public class MenuController {
   private Path dolPath;
   private GNT4Codes codes;
   private List<GeckoCodeGroup> codeGroups;
+  // If an ISO is being built, during which refreshes from the workspace watcher are skipped
+  private volatile boolean building;
   public ListView<String> changedFiles;
   public ListView<String> missingFiles;
   public CheckBox audioFixCode;
@@ -122,7 +132,9 @@ public class MenuController {
   public ComboBox<String> txg2tplTexture;
   public ComboBox<String> mainMenuCharacter;
   public CheckMenuItem parallelBuild;
+  public CheckMenuItem optimalCompression;
   public CheckMenuItem pushToBackOfISO;
+  public CheckMenuItem incrementalBuild;
   public ComboBox<String> selectedSeq;
   public TextField ztkDamageMultiplier;
   public TextField ukonDamageMultiplier;
@@ -685,6 +697,9 @@ public class MenuController {
 
     String filePath = uncompressedDirectory.relativize(input.get()).toString().replace("\\", "/");
     try {
+      if (workspace.getSnapshot().contains(filePath)) {
+        throw new IOException(filePath + " is already in the workspace");
+      }
       workspace.addFile(new WorkspaceFile(filePath, 0, 0, null, false));
     } catch (Exception e) {
       LOGGER.log(Level.SEVERE, "Error Adding File", e);
@@ -724,6 +739,11 @@ public class MenuController {
     String filePath = uncompressedDirectory.relativize(input.get()).toString().replace("\\", "/");
     String fpkFilePath = compressedDirectory.relativize(output.get()).toString().replace("\\", "/");
     try {
+      for (WorkspaceFile file : workspace.getSnapshot().getFiles(filePath)) {
+        if (fpkFilePath.equals(file.fpkFilePath())) {
+          throw new IOException(filePath + " is already in " + fpkFilePath);
+        }
+      }
       workspace.addFile(new WorkspaceFile(filePath, 0, 0, fpkFilePath, compress));
     } catch (Exception e) {
       LOGGER.log(Level.SEVERE, "Error Adding File", e);
@@ -770,15 +790,43 @@ public class MenuController {
    */
   @FXML
   protected void build() {
-    // Force refresh
-    // TODO: Changed files list is updated on FX Application Thread which is slower than this code runs, resulting in not all changed files being included
-    try {
-      syncRefresh();
-    } catch (IOException e) {
-      LOGGER.log(Level.SEVERE, "Error Refreshing Workspace", e);
-      Message.error("Error Refreshing Workspace", e.getMessage());
-      return;
-    }
+    // Force refresh off of the JavaFX Application Thread before asking anything
+    Task<Set<String>> task = new Task<>() {
+      @Override
+      public Set<String> call() throws Exception {
+        try {
+          updateMessage("Checking for changed files...");
+          List<WorkspaceFile> allFiles = workspace.getAllFiles();
+          refreshMissingFiles(allFiles);
+          Set<String> changed = refreshChangedFiles(allFiles);
+          updateProgress(1, 1);
+          return changed;
+        } catch (Exception e) {
+          LOGGER.log(Level.SEVERE, "Failed to refresh workspace.", e);
+          throw e;
+        }
+      }
+    };
+    Stage loadingWindow = GUIUtils.createLoadingWindow("Refreshing Workspace", task);
+
+    task.setOnSucceeded(event -> {
+      loadingWindow.close();
+      buildISO(task.getValue());
+    });
+    task.setOnFailed(event -> {
+      Message.error("Error Refreshing Workspace", "See the log for more information");
+      loadingWindow.close();
+    });
+    new Thread(task).start();
+  }
+
+  /**
+   * Builds the GNT4 ISO for the current workspace once it has been refreshed.
+   *
+   * @param changedFilenames The changed files found by the refresh.
+   */
+  private void buildISO(Set<String> changedFilenames) {
+    Set<String> changed = new HashSet<>(changedFilenames);
 
     // Prevent build if files are missing
     if (!missingFiles.getItems().isEmpty()) {
@@ -786,7 +834,7 @@ public class MenuController {
       message += "Allow GNTool to replace these missing files with 1 KB filler files?";
       boolean yes = Message.warnConfirmation("Missing Files", message);
       if (yes) {
-        createMissingFiles();
+        changed.addAll(createMissingFiles());
       } else {
         return;
       }
@@ -803,18 +851,13 @@ public class MenuController {
     }
 
     // Warn user if no files have changed
-    final boolean repack;
-    if (changedFiles.getItems().isEmpty()) {
+    if (changed.isEmpty()) {
       String message =
           "There are no changed files in your workspace. Do you still wish to build an ISO?";
       boolean choice = Message.warnConfirmation("No Changed Files", message);
-      if (choice) {
-        repack = false;
-      } else {
+      if (!choice) {
         return;
       }
-    } else {
-      repack = true;
     }
 
     // Get output ISO path
@@ -828,14 +871,28 @@ public class MenuController {
       @Override
       public Void call() throws Exception {
         try {
-          if (repack) {
+          // Include any files changed while the user was answering the prompts
+          updateMessage("Checking for changed files...");
+          Set<String> toPack = new HashSet<>(changed);
+          toPack.addAll(refreshChangedFiles(workspace.getAllFiles()));
+          Set<String> packedFiles = Collections.emptySet();
+          if (!toPack.isEmpty()) {
             updateMessage("Repacking FPKs...");
-            FPKPacker fpkPacker = new FPKPacker(workspace);
-            fpkPacker.pack(changedFiles.getItems(), parallelBuild.isSelected());
+            FPKOptions options = workspace.getFPKOptions();
+            if (optimalCompression.isSelected()) {
+              options = options.withParse(Parse.OPTIMAL);
+            }
+            FPKPacker fpkPacker = new FPKPacker(workspace, options);
+            packedFiles = fpkPacker.pack(toPack, parallelBuild.isSelected());
           }
           updateMessage("Building ISO...");
-          GameCubeISO.importFiles(compressedDirectory, isoResponse.get(),
-              pushToBackOfISO.isSelected());
+          if (incrementalBuild.isSelected()) {
+            GameCubeISO.updateFiles(compressedDirectory, isoResponse.get(), packedFiles,
+                pushToBackOfISO.isSelected());
+          } else {
+            GameCubeISO.importFiles(compressedDirectory, isoResponse.get(),
+                pushToBackOfISO.isSelected());
+          }
           updateProgress(1, 1);
           return null;
         } catch (Exception e) {
@@ -847,15 +904,18 @@ public class MenuController {
     Stage loadingWindow = GUIUtils.createLoadingWindow("Building ISO", task);
 
     task.setOnSucceeded(event -> {
+      building = false;
       Message.info("ISO Build Complete", "The new ISO was successfully created.");
       loadingWindow.close();
       asyncPostBuild();
     });
     task.setOnFailed(event -> {
+      building = false;
       Message.error("ISO Build Failure", "See the log for more information");
       loadingWindow.close();
       // Don't save workspace state to make debugging easier
     });
+    building = true;
     new Thread(task).start();
   }
 
@@ -1372,6 +1432,11 @@ public class MenuController {
     }
   }
 
+  @FXML
+  protected void disassembleAllSeqs() {
+    SeqDisassemblerTool.disassembleAll(workspaceDirectory.toFile(), uncompressedDirectory);
+  }
+
   @FXML
   protected void browseSeq() {
     Optional<Path> inputSeq = Choosers.getInputSeq(uncompressedFiles.toFile());
@@ -1513,9 +1578,34 @@ public class MenuController {
     mainMenuCharacter.getItems().setAll(GNT4Characters.MAIN_MENU_CHARS);
     mainMenuCharacter.getSelectionModel().select(GNT4Characters.SAKURA);
     initRecordingComboboxes();
+    workspace.startWatching(this::refreshWatchedChanges);
+    stage.setOnHidden(event -> {
+      try {
+        workspace.stopWatching();
+      } catch (IOException e) {
+        LOGGER.log(Level.SEVERE, "Failed to stop watching workspace.", e);
+      }
+    });
     asyncRefresh();
   }
 
+  /**
+   * Refreshes the changed files tab after the files in the workspace have changed. Only the files
+   * that have changed since the last refresh are checked again. Nothing is refreshed while an ISO
+   * is being built, since the build finds the changed files itself, including any changes made
+   * since the last refresh.
+   */
+  private void refreshWatchedChanges() {
+    if (building) {
+      return;
+    }
+    try {
+      refreshChangedFiles(workspace.getAllFiles());
+    } catch (IOException e) {
+      LOGGER.log(Level.SEVERE, "Failed to refresh changed files.", e);
+    }
+  }
+
   /**
    * Rebuilds the workspace state. This means that refresh will be cleared of changes.
    */
@@ -1609,23 +1699,59 @@ public class MenuController {
    */
   private void refreshMissingFiles(List<WorkspaceFile> allFiles) {
     Set<String> missingFilenames = workspace.getMissingFiles(allFiles);
-    Platform.runLater(() -> {
+    Runnable update = () -> {
       missingFiles.getItems().setAll(missingFilenames);
       Collections.sort(missingFiles.getItems());
-    });
+    };
+    if (Platform.isFxApplicationThread()) {
+      update.run();
+    } else {
+      Platform.runLater(update);
+    }
   }
 
   /**
-   * Refreshes the changed files tab from a set of GNTFiles.
+   * Refreshes the changed files tab from a set of GNTFiles. The files are checked in parallel and
+   * added to the tab in batches as they are found, and the tab is replaced with the sorted changed
+   * files once all files have been checked. The tab is only updated on the JavaFX Application
+   * Thread, so the returned changed files should be used instead of reading the tab.
    *
    * @param allFiles All the workspace files.
+   * @return The changed files.
+   * @throws IOException If an I/O error occurs.
    */
-  private void refreshChangedFiles(List<WorkspaceFile> allFiles) throws IOException {
-    Set<String> changedFilenames = workspace.getChangedFiles(allFiles);
+  private Set<String> refreshChangedFiles(List<WorkspaceFile> allFiles) throws IOException {
+    Set<String> changed = ConcurrentHashMap.newKeySet();
+    Queue<String> found = new ConcurrentLinkedQueue<>();
+    AtomicBoolean scheduled = new AtomicBoolean();
+    Runnable addFound = () -> {
+      scheduled.set(false);
+      List<String> batch = new ArrayList<>();
+      String file;
+      while ((file = found.poll()) != null) {
+        batch.add(file);
+      }
+      changedFiles.getItems().addAll(batch);
+    };
+    Platform.runLater(() -> changedFiles.getItems().clear());
+    try {
+      workspace.streamChangedFiles(allFiles).forEach(file -> {
+        changed.add(file);
+        found.add(file);
+        // Only schedule an update if one is not already waiting to run
+        if (scheduled.compareAndSet(false, true)) {
+          Platform.runLater(addFound);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    List<String> sorted = changed.stream().sorted().toList();
     Platform.runLater(() -> {
-      changedFiles.getItems().setAll(changedFilenames);
-      Collections.sort(changedFiles.getItems());
+      found.clear();
+      changedFiles.getItems().setAll(sorted);
     });
+    return changed;
   }
 
   /**
@@ -1930,8 +2056,11 @@ public class MenuController {
   /**
    * Iterates over the missing files and replaces them with 1 KB empty files. These files will then
    * be removed from the list of missing files and added to the list of changed files.
+   *
+   * @return The files that were created.
    */
-  private void createMissingFiles() {
+  private List<String> createMissingFiles() {
+    List<String> created = new ArrayList<>();
     Iterator<String> files = missingFiles.getItems().iterator();
     byte[] bytes = new byte[1024];
     while (files.hasNext()) {
@@ -1945,7 +2074,9 @@ public class MenuController {
       }
       files.remove();
       changedFiles.getItems().add(file);
+      created.add(file);
     }
+    return created;
   }
 
   private void initRecordingComboboxes() {
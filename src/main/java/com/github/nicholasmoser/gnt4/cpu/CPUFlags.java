@@ -3,6 +3,7 @@ package com.github.nicholasmoser.gnt4.cpu;
 import static java.util.Map.entry;
 
 import com.github.nicholasmoser.gnt4.seq.Seqs;
+import com.github.nicholasmoser.utils.BinaryReader;
 import com.github.nicholasmoser.utils.ByteUtils;
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -111,8 +112,8 @@ public class CPUFlags {
     int recordingCounterCPUFlag = getRecordingCounterCPUFlag(uncompressedDir);
     for (String chr0010 : Seqs.CHRS_0010) {
       Path chr0010File = uncompressedDir.resolve(chr0010);
-      try (RandomAccessFile raf = new RandomAccessFile(chr0010File.toFile(), "r")) {
-        raf.seek(CPU_BRANCHES_OFFSET);
+      try (BinaryReader reader = BinaryReader.open(chr0010File)) {
+        reader.seek(CPU_BRANCHES_OFFSET);
         for (int i = 0; i < CPU_BRANCHES.size(); i++) {
           int expectedBranch;
           if (i == recordingCPUFlag) {
@@ -125,7 +126,7 @@ public class CPUFlags {
           } else {
             expectedBranch = CPU_BRANCHES.get(i);
           }
-          int actualBranch = ByteUtils.readInt32(raf);
+          int actualBranch = reader.readInt32();
           if (expectedBranch != actualBranch) {
             throw new IOException(
                 String.format("Expected branch %d in file %s but was %d", expectedBranch,
@@ -146,10 +147,10 @@ public class CPUFlags {
    */
   public static int getRecordingCPUFlag(Path uncompressedDir) throws IOException {
     Path ank0010 = uncompressedDir.resolve(Seqs.ANK_0010);
-    try (RandomAccessFile raf = new RandomAccessFile(ank0010.toFile(), "r")) {
-      raf.seek(CPU_BRANCHES_OFFSET);
+    try (BinaryReader reader = BinaryReader.open(ank0010)) {
+      reader.seek(CPU_BRANCHES_OFFSET);
       for (int i = 0; i < CPU_BRANCHES.size(); i++) {
-        if (ByteUtils.readInt32(raf) == RECORDING_OFFSET) {
+        if (reader.readInt32() == RECORDING_OFFSET) {
           return i;
         }
       }
@@ -167,10 +168,10 @@ public class CPUFlags {
    */
   public static int getRecordingCounterCPUFlag(Path uncompressedDir) throws IOException {
     Path ank0010 = uncompressedDir.resolve(Seqs.ANK_0010);
-    try (RandomAccessFile raf = new RandomAccessFile(ank0010.toFile(), "r")) {
-      raf.seek(CPU_BRANCHES_OFFSET);
+    try (BinaryReader reader = BinaryReader.open(ank0010)) {
+      reader.seek(CPU_BRANCHES_OFFSET);
       for (int i = 0; i < CPU_BRANCHES.size(); i++) {
-        if (ByteUtils.readInt32(raf) == RECORDING_COUNTER_OFFSET) {
+        if (reader.readInt32() == RECORDING_COUNTER_OFFSET) {
           return i;
         }
       }
@@ -7,8 +7,6 @@ import com.github.nicholasmoser.gnt4.seq.operands.ImmediateOperand;
 import com.github.nicholasmoser.gnt4.seq.operands.Operand;
 import com.github.nicholasmoser.gnt4.seq.operands.SeqOperand;
 import com.github.nicholasmoser.utils.ByteStream;
-import com.github.nicholasmoser.utils.ByteUtils;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
@@ -24,13 +22,15 @@ import java.io.IOException;
 public class SEQ_RegCMD1 {
 
   private final ByteStream bs;
-  private final ByteArrayOutputStream bytes;
+  // The range of bytes read, which are copied only when requested
+  private final int start;
+  private int end;
   private Operand operand;
   private int opcode;
 
   private SEQ_RegCMD1(ByteStream bs) {
     this.bs = bs;
-    this.bytes = new ByteArrayOutputStream();
+    this.start = bs.offset();
   }
 
   /**
@@ -44,6 +44,7 @@ public class SEQ_RegCMD1 {
   public static SEQ_RegCMD1 get(ByteStream bs) throws IOException {
     SEQ_RegCMD1 operand = new SEQ_RegCMD1(bs);
     operand.parse();
+    operand.end = bs.offset();
     return operand;
   }
 
@@ -58,7 +59,7 @@ public class SEQ_RegCMD1 {
    * @return The opcode bytes plus any bytes read by SEQ_RegCMD1.
    */
   public byte[] getBytes() {
-    return bytes.toByteArray();
+    return bs.getBytes(start, end);
   }
 
   /**
@@ -72,16 +73,6 @@ public class SEQ_RegCMD1 {
     return operand;
   }
 
-  /**
-   * Pushes the given word to bytes array. This keeps track of what bytes have been read.
-   *
-   * @param word The word to push.
-   * @throws IOException If an I/O error occurs.
-   */
-  private void pushWord(int word) throws IOException {
-    bytes.write(ByteUtils.fromInt32(word));
-  }
-
   private void parse() throws IOException {
     this.opcode = bs.peekWord();
     // Get last 8 bits (1111_1111)
@@ -92,14 +83,14 @@ public class SEQ_RegCMD1 {
       if ((opcode & 0x80) == 0) {
         // Load affective address
         if (opcode_last_byte < 0x18) {
-          pushWord(bs.readWord());
+          bs.skipWord();
           operand = new GPROperand(opcode_last_byte, true);
         } else if (opcode_last_byte < 0x30) {
-          pushWord(bs.readWord());
+          bs.skipWord();
           operand = getSeqOperand(opcode_last_byte - 0x18, true);
         } else {
           operand = SEQ_RegGP(opcode_last_byte, true);
-          pushWord(bs.readWord());
+          bs.skipWord();
         }
       } else {
         // Load effective address sum with offset
@@ -111,9 +102,8 @@ public class SEQ_RegCMD1 {
         } else {
           operand = SEQ_RegGP(lastSixBits, false);
         }
-        pushWord(bs.readWord());
+        bs.skipWord();
         int word = bs.readWord();
-        pushWord(word);
         int bottomTwoBytes = word & 0xffff;
         int topTwoBytes = word >> 0x10;
         if (bottomTwoBytes < 0x18) {
@@ -133,10 +123,9 @@ public class SEQ_RegCMD1 {
       } else {
         operand = SEQ_RegGP(lastSixBits, false);
       }
-      pushWord(bs.readWord());
+      bs.skipWord();
       int word = bs.readWord();
       operand.withField(word);
-      pushWord(word);
     }
   }
 
@@ -216,10 +205,9 @@ public class SEQ_RegCMD1 {
     int offset;
     int word;
     if (returnPc) {
-      pushWord(bs.readWord());
+      bs.skipWord();
       offset = bs.offset();
       word = bs.readWord();
-      pushWord(word);
     } else {
       bs.mark();
       bs.skipWord();
@@ -235,7 +223,7 @@ public class SEQ_RegCMD1 {
     int offset;
     int word;
     if (returnPc) {
-      pushWord(bs.readWord());
+      bs.skipWord();
       offset = bs.offset();
       word = bs.peekWord();
     } else {
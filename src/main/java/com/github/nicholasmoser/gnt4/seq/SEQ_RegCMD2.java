@@ -7,8 +7,6 @@ import com.github.nicholasmoser.gnt4.seq.operands.ImmediateOperand;
 import com.github.nicholasmoser.gnt4.seq.operands.Operand;
 import com.github.nicholasmoser.gnt4.seq.operands.SeqOperand;
 import com.github.nicholasmoser.utils.ByteStream;
-import com.github.nicholasmoser.utils.ByteUtils;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -27,13 +25,15 @@ import java.util.stream.Collectors;
 public class SEQ_RegCMD2 {
 
   private final ByteStream bs;
-  private final ByteArrayOutputStream bytes;
+  // The range of bytes read, which are copied only when requested
+  private final int start;
+  private int end;
   private final List<Operand> operands;
   private int opcode;
 
   private SEQ_RegCMD2(ByteStream bs) {
     this.bs = bs;
-    this.bytes = new ByteArrayOutputStream();
+    this.start = bs.offset();
     this.operands = new ArrayList<>(2);
   }
 
@@ -48,6 +48,7 @@ public class SEQ_RegCMD2 {
   public static SEQ_RegCMD2 get(ByteStream bs) throws IOException {
     SEQ_RegCMD2 operands = new SEQ_RegCMD2(bs);
     operands.parse();
+    operands.end = bs.offset();
     return operands;
   }
 
@@ -69,7 +70,7 @@ public class SEQ_RegCMD2 {
           second_address_byte = (byte) (opcode & 0xff);
         } else {
           operands.add(SEQ_RegGP(first_address_byte, true));
-          pushWord(bs.readWord());
+          bs.skipWord();
           second_address_byte = (byte) ((bs.peekWord() >> 0x18) & 0xff);
         }
       } else {
@@ -87,11 +88,10 @@ public class SEQ_RegCMD2 {
       } else {
         firstOperand = SEQ_RegGP(lastSixBits, false);
       }
-      pushWord(bs.readWord());
+      bs.skipWord();
       int word = bs.readWord();
       firstOperand.withField(word);
       operands.add(firstOperand);
-      pushWord(word);
       second_address_byte = (byte) ((bs.peekWord() >> 0x18) & 0xff);
     }
 
@@ -102,14 +102,14 @@ public class SEQ_RegCMD2 {
       if ((second_address_byte & 0x80) == 0) {
         // Load effective address
         if (second_address_byte < 0x18) {
-          pushWord(bs.readWord());
+          bs.skipWord();
           operands.add(new GPROperand(second_address_byte, true));
         } else if (second_address_byte < 0x30) {
-          pushWord(bs.readWord());
+          bs.skipWord();
           operands.add(getSeqOperand(second_address_byte - 0x18, true));
         } else {
           operands.add(SEQ_RegGP(second_address_byte, true));
-          pushWord(bs.readWord());
+          bs.skipWord();
         }
       } else {
         // Load effective address sum with offset
@@ -122,9 +122,8 @@ public class SEQ_RegCMD2 {
         } else {
           secondOperand = SEQ_RegGP(lastSixBits2, false);
         }
-        pushWord(bs.readWord());
+        bs.skipWord();
         int word = bs.readWord();
-        pushWord(word);
         int bottomTwoBytes = word & 0xffff;
         int topTwoBytes = word >> 0x10;
         if (bottomTwoBytes < 0x18) {
@@ -146,11 +145,10 @@ public class SEQ_RegCMD2 {
       } else {
         secondOperand = SEQ_RegGP(lastSixBits2, false);
       }
-      pushWord(bs.readWord());
+      bs.skipWord();
       int word2 = bs.readWord();
       secondOperand.withField(word2);
       operands.add(secondOperand);
-      pushWord(word2);
     }
     if (operands.size() != 2) {
       throw new IllegalStateException("Failed to parse operands, only found " + operands.size());
@@ -168,7 +166,7 @@ public class SEQ_RegCMD2 {
    * @return The opcode bytes plus any bytes read by SEQ_RegCMD2.
    */
   public byte[] getBytes() {
-    return bytes.toByteArray();
+    return bs.getBytes(start, end);
   }
 
   /**
@@ -192,16 +190,6 @@ public class SEQ_RegCMD2 {
     return operands.get(1);
   }
 
-  /**
-   * Pushes the given word to bytes array. Keeps track of what bytes have been read.
-   *
-   * @param word The word to push.
-   * @throws IOException If an I/O error occurs.
-   */
-  private void pushWord(int word) throws IOException {
-    bytes.write(ByteUtils.fromInt32(word));
-  }
-
   /**
    * Checks a {@link SeqOperand} to see if it is a known Operand type, and instead returns that
    * type if so. For example, {@link ChrOperand} is one such known type at a specific index.
@@ -278,10 +266,9 @@ public class SEQ_RegCMD2 {
     int offset;
     int word;
     if (returnPc) {
-      pushWord(bs.readWord());
+      bs.skipWord();
       offset = bs.offset();
       word = bs.readWord();
-      pushWord(word);
     } else {
       bs.mark();
       bs.skipWord();
@@ -297,7 +284,7 @@ public class SEQ_RegCMD2 {
     int offset;
     int word;
     if (returnPc) {
-      pushWord(bs.readWord());
+      bs.skipWord();
       offset = bs.offset();
       word = bs.peekWord();
     } else {
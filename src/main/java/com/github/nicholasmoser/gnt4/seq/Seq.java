@@ -683,7 +683,7 @@ public class Seq {
 
   public static final Map<String, Integer> CHR_MOD_FLAGS_GET = CHR_MOD_FLAGS.inverse();
 
-  public static Map<Integer, String> ACTION_DESCRIPTIONS;
+  public static volatile Map<Integer, String> ACTION_DESCRIPTIONS;
 
   public static String getActionDescription(int actionId) {
     if (ACTION_DESCRIPTIONS == null) {
@@ -995,7 +995,7 @@ public class Seq {
     return actionDescriptions;
   }
 
-  public static Map<Integer, String> BUTTON_DESCRIPTIONS;
+  public static volatile Map<Integer, String> BUTTON_DESCRIPTIONS;
 
   public static String getButtonDescriptions(int buttonBitFields) {
     if (BUTTON_DESCRIPTIONS == null) {
@@ -0,0 +1,199 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import com.github.nicholasmoser.gnt4.seq.opcodes.InvalidBytes;
+import com.github.nicholasmoser.gnt4.seq.opcodes.Opcode;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Disassembles every seq file in {@link Seqs#ALL} at once, such as to regenerate a full set of
+ * disassembled seq files after the game files change. Each seq file is parsed once in permissive
+ * mode and written to txt and/or html. The seq files are disassembled in parallel on a
+ * work-stealing pool, since the character seq files are much larger than the others.
+ * <p>
+ * A summary file is written along with them with the number of opcodes and invalid bytes of each
+ * seq file. A seq file that fails to be disassembled is listed in the summary instead of stopping
+ * the others.
+ */
+public class SeqBatchDisassembler {
+
+  private static final Logger LOGGER = Logger.getLogger(SeqBatchDisassembler.class.getName());
+
+  public static final String SUMMARY = "summary.txt";
+
+  /**
+   * The result of disassembling one seq file.
+   *
+   * @param fileName     The name of the seq file from {@link Seqs}
+   * @param opcodes      The number of opcodes.
+   * @param invalidBytes The number of bytes that could not be parsed as opcodes.
+   * @param error        The error message if the seq file failed to be disassembled, otherwise
+   *                     null.
+   */
+  public record Result(String fileName, int opcodes, int invalidBytes, String error) {
+
+    /**
+     * @return If the seq file failed to be disassembled.
+     */
+    public boolean failed() {
+      return error != null;
+    }
+  }
+
+  /**
+   * Returns the seq files in {@link Seqs#ALL} that are in the uncompressed directory.
+   *
+   * @param uncompressedDirectory The uncompressed directory of the workspace.
+   * @return The names of the seq files from {@link Seqs} in the order of {@link Seqs#ALL}.
+   */
+  public static List<String> getFileNames(Path uncompressedDirectory) {
+    List<String> fileNames = new ArrayList<>();
+    for (String fileName : Seqs.ALL) {
+      if (Files.isRegularFile(uncompressedDirectory.resolve(fileName))) {
+        fileNames.add(fileName);
+      } else {
+        LOGGER.info("Skipping missing seq file " + fileName);
+      }
+    }
+    return fileNames;
+  }
+
+  /**
+   * Disassembles the given seq files, such as those from {@link #getFileNames(Path)}. The output
+   * files are written to the output directory with the same relative path as the seq file and a
+   * .txt or .html extension added, e.g. files/chr/ank/0000.seq.txt
+   *
+   * @param uncompressedDirectory The uncompressed directory of the workspace.
+   * @param fileNames             The names of the seq files from {@link Seqs} to disassemble.
+   * @param outputDirectory       The directory to write the output files to.
+   * @param txt                   If txt files should be written.
+   * @param html                  If html files should be written.
+   * @param threads               The number of threads to disassemble seq files with.
+   * @param listener              Called with the result of each seq file as it completes, from
+   *                              the thread that disassembled it.
+   * @return The results in the order of the file names.
+   * @throws IOException If the summary cannot be written or the disassembly is interrupted.
+   */
+  public static List<Result> disassembleAll(Path uncompressedDirectory, List<String> fileNames,
+      Path outputDirectory, boolean txt, boolean html, int threads, Consumer<Result> listener)
+      throws IOException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1: " + threads);
+    }
+    LOGGER.info(String.format("Disassembling %d seq files with %d thread(s)...",
+        fileNames.size(), threads));
+    long start = System.nanoTime();
+    List<Result> results = new ArrayList<>(fileNames.size());
+    ExecutorService executor = Executors.newWorkStealingPool(threads);
+    try {
+      List<Future<Result>> futures = new ArrayList<>(fileNames.size());
+      for (String fileName : fileNames) {
+        futures.add(executor.submit(() -> {
+          Result result = disassemble(uncompressedDirectory, outputDirectory, fileName, txt, html);
+          listener.accept(result);
+          return result;
+        }));
+      }
+      for (Future<Result> future : futures) {
+        results.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while disassembling seq files", e);
+    } finally {
+      executor.shutdownNow();
+    }
+    writeSummary(results, outputDirectory.resolve(SUMMARY));
+    long milliseconds = (System.nanoTime() - start) / 1_000_000;
+    LOGGER.info(String.format("Finished disassembling %d seq files in %d ms.", results.size(),
+        milliseconds));
+    return results;
+  }
+
+  /**
+   * Disassembles one seq file. Any exception is returned as a failed result.
+   *
+   * @param uncompressedDirectory The uncompressed directory of the workspace.
+   * @param outputDirectory       The directory to write the output files to.
+   * @param fileName              The name of the seq file from {@link Seqs}
+   * @param txt                   If a txt file should be written.
+   * @param html                  If an html file should be written.
+   * @return The result.
+   */
+  private static Result disassemble(Path uncompressedDirectory, Path outputDirectory,
+      String fileName, boolean txt, boolean html) {
+    try {
+      Path seqPath = uncompressedDirectory.resolve(fileName);
+      List<Opcode> opcodes = SeqKing.getOpcodes(seqPath, fileName, false, true);
+      Path outputPath = outputDirectory.resolve(fileName);
+      Files.createDirectories(outputPath.getParent());
+      if (txt) {
+        SeqKing.writeTXT(opcodes, outputPath.resolveSibling(outputPath.getFileName() + ".txt"));
+      }
+      if (html) {
+        SeqKingHtml.generate(fileName, opcodes,
+            outputPath.resolveSibling(outputPath.getFileName() + ".html"));
+      }
+      int invalidBytes = 0;
+      for (Opcode opcode : opcodes) {
+        if (opcode instanceof InvalidBytes) {
+          invalidBytes += opcode.getBytes().length;
+        }
+      }
+      return new Result(fileName, opcodes.size(), invalidBytes, null);
+    } catch (Exception e) {
+      LOGGER.log(Level.SEVERE, "Failed to disassemble " + fileName, e);
+      String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+      return new Result(fileName, 0, 0, message);
+    }
+  }
+
+  /**
+   * Writes the summary of the results, one line for each seq file followed by the totals.
+   *
+   * @param results     The results.
+   * @param summaryPath The path to write the summary to.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static void writeSummary(List<Result> results, Path summaryPath) throws IOException {
+    Files.createDirectories(summaryPath.getParent());
+    int invalidBytes = 0;
+    int withInvalidBytes = 0;
+    int failed = 0;
+    try (OutputStream os = Files.newOutputStream(summaryPath)) {
+      for (Result result : results) {
+        String line;
+        if (result.failed()) {
+          failed++;
+          line = String.format("%s: failed: %s%n", result.fileName(), result.error());
+        } else {
+          invalidBytes += result.invalidBytes();
+          if (result.invalidBytes() > 0) {
+            withInvalidBytes++;
+          }
+          line = String.format("%s: %d opcodes, %d invalid bytes%n", result.fileName(),
+              result.opcodes(), result.invalidBytes());
+        }
+        os.write(line.getBytes(StandardCharsets.UTF_8));
+      }
+      String total = String.format(
+          "%nTotal: %d seq files, %d with invalid bytes, %d invalid bytes, %d failed%n",
+          results.size(), withInvalidBytes, invalidBytes, failed);
+      os.write(total.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
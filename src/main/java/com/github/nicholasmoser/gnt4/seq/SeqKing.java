@@ -48,6 +48,17 @@ public class SeqKing {
    */
   public static void generateTXT(Path seqPath, String fileName, Path outputPath, boolean verbose, boolean permissive) throws IOException {
     List<Opcode> opcodes = getOpcodes(seqPath, fileName, verbose, permissive);
+    writeTXT(opcodes, outputPath);
+  }
+
+  /**
+   * Writes the given opcodes to a txt file, one opcode per line.
+   *
+   * @param opcodes    The opcodes parsed from a seq file.
+   * @param outputPath The output txt file path.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static void writeTXT(List<Opcode> opcodes, Path outputPath) throws IOException {
     try(OutputStream os = Files.newOutputStream(outputPath)) {
       for (Opcode opcode : opcodes) {
         os.write(opcode.toString().getBytes(StandardCharsets.UTF_8));
@@ -94,7 +105,8 @@ public class SeqKing {
 
       // Check if this is manually defined binary data. If so, skip it.
       int offset = bs.offset();
-      Integer size = binaryOffsetToSize.get(offset);
+      // Most seq files have no known binary offsets, so avoid boxing the offset for the lookup
+      Integer size = binaryOffsetToSize.isEmpty() ? null : binaryOffsetToSize.get(offset);
       if (size != null) {
         byte[] binaryData = new byte[size];
         if (bs.read(binaryData) != size) {
@@ -150,15 +162,20 @@ public class SeqKing {
       // Otherwise, parse the seq opcode
       Opcode newOpcode;
       int tempOffset = bs.offset();
-      try {
-        newOpcode = SeqHelper.getSeqOpcode(bs, opcodeGroup, opcode);
-      } catch (Exception e) {
-        if (permissive) {
-          // Invalid opcode, mark it as invalid bytes and continue
-          bs.seek(tempOffset);
-          newOpcode = new InvalidBytes(tempOffset, bs.readNBytes(4));
-        } else {
-          throw e;
+      if (permissive && !SeqOpcodeTable.isImplemented(opcodeGroup, opcode)) {
+        // Unimplemented opcode, mark it as invalid bytes without decoding it and continue
+        newOpcode = new InvalidBytes(tempOffset, bs.readNBytes(4));
+      } else {
+        try {
+          newOpcode = SeqOpcodeTable.decode(bs, opcodeGroup, opcode);
+        } catch (Exception e) {
+          if (permissive) {
+            // Invalid opcode, mark it as invalid bytes and continue
+            bs.seek(tempOffset);
+            newOpcode = new InvalidBytes(tempOffset, bs.readNBytes(4));
+          } else {
+            throw e;
+          }
         }
       }
       opcodes.add(newOpcode);
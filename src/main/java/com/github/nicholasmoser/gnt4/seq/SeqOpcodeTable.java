@@ -0,0 +1,284 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup00;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup01;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup02;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup03;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup04;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup05;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup06;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup08;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup09;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup0B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup0C;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup0E;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup0F;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup10;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup11;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup12;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup13;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup14;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup15;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup16;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1A;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1C;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1D;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1E;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup1F;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup20;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup21;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup22;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup24;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup26;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup27;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup28;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup2A;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup2B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup31;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup34;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup36;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup37;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup38;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup39;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3A;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3C;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3D;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3E;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup3F;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup40;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup41;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup42;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup43;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup44;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup46;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup47;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup48;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup49;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup4A;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup4B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup4C;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup4D;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup50;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup55;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup56;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup5B;
+import com.github.nicholasmoser.gnt4.seq.groups.OpcodeGroup61;
+import com.github.nicholasmoser.gnt4.seq.opcodes.Opcode;
+import com.github.nicholasmoser.utils.ByteStream;
+import java.io.IOException;
+
+/**
+ * A dispatch table of the seq opcode groups, indexed by the opcode group byte of an instruction,
+ * and of which opcodes each group implements, indexed by the opcode group and opcode bytes. Finding
+ * the parser of a group is an array lookup instead of the switch statement of {@link
+ * SeqHelper#getSeqOpcode(ByteStream, byte, byte)}, but the opcode is still decoded by the switch
+ * statement of the group. Whether an opcode is implemented is found by decoding it the first time
+ * it is checked and is then kept in the table, so after that an opcode that is not implemented can
+ * be checked for without an exception being thrown.
+ */
+public class SeqOpcodeTable {
+
+  /**
+   * Decodes an opcode of a group from a seq byte stream at the start of the opcode.
+   */
+  @FunctionalInterface
+  public interface Decoder {
+
+    /**
+     * @param bs     The seq byte stream to read from.
+     * @param opcode The opcode byte, the second byte of the opcode.
+     * @return The decoded opcode.
+     * @throws IOException If the opcode is not implemented or an I/O error occurs.
+     */
+    Opcode decode(ByteStream bs, byte opcode) throws IOException;
+  }
+
+  // The number of bytes to decode each opcode from when finding the implemented opcodes
+  private static final int PROBE_LENGTH = 64;
+
+  private static final Decoder[] GROUPS = new Decoder[0x100];
+
+  // If each opcode is implemented, one of UNKNOWN, IMPLEMENTED or NOT_IMPLEMENTED
+  private static final byte[] STATES = new byte[0x10000];
+
+  private static final byte UNKNOWN = 0;
+
+  private static final byte IMPLEMENTED = 1;
+
+  private static final byte NOT_IMPLEMENTED = 2;
+
+  static {
+    register(0x00, OpcodeGroup00::parse);
+    register(0x01, OpcodeGroup01::parse);
+    register(0x02, OpcodeGroup02::parse);
+    register(0x03, OpcodeGroup03::parse);
+    register(0x04, OpcodeGroup04::parse);
+    register(0x05, OpcodeGroup05::parse);
+    register(0x06, OpcodeGroup06::parse);
+    register(0x08, OpcodeGroup08::parse);
+    register(0x09, OpcodeGroup09::parse);
+    register(0x0B, OpcodeGroup0B::parse);
+    register(0x0C, OpcodeGroup0C::parse);
+    register(0x0E, OpcodeGroup0E::parse);
+    register(0x0F, OpcodeGroup0F::parse);
+    register(0x10, OpcodeGroup10::parse);
+    register(0x11, OpcodeGroup11::parse);
+    register(0x12, OpcodeGroup12::parse);
+    register(0x13, OpcodeGroup13::parse);
+    register(0x14, OpcodeGroup14::parse);
+    register(0x15, OpcodeGroup15::parse);
+    register(0x16, OpcodeGroup16::parse);
+    register(0x1A, OpcodeGroup1A::parse);
+    register(0x1B, OpcodeGroup1B::parse);
+    register(0x1C, OpcodeGroup1C::parse);
+    register(0x1D, OpcodeGroup1D::parse);
+    register(0x1E, OpcodeGroup1E::parse);
+    register(0x1F, OpcodeGroup1F::parse);
+    register(0x20, OpcodeGroup20::parse);
+    register(0x21, OpcodeGroup21::parse);
+    register(0x22, OpcodeGroup22::parse);
+    register(0x24, OpcodeGroup24::parse);
+    register(0x26, OpcodeGroup26::parse);
+    register(0x27, OpcodeGroup27::parse);
+    register(0x28, OpcodeGroup28::parse);
+    register(0x2A, OpcodeGroup2A::parse);
+    register(0x2B, OpcodeGroup2B::parse);
+    register(0x31, OpcodeGroup31::parse);
+    register(0x34, OpcodeGroup34::parse);
+    register(0x36, OpcodeGroup36::parse);
+    register(0x37, OpcodeGroup37::parse);
+    register(0x38, OpcodeGroup38::parse);
+    register(0x39, OpcodeGroup39::parse);
+    register(0x3A, OpcodeGroup3A::parse);
+    register(0x3B, OpcodeGroup3B::parse);
+    register(0x3C, OpcodeGroup3C::parse);
+    register(0x3D, OpcodeGroup3D::parse);
+    register(0x3E, OpcodeGroup3E::parse);
+    register(0x3F, OpcodeGroup3F::parse);
+    register(0x40, OpcodeGroup40::parse);
+    register(0x41, OpcodeGroup41::parse);
+    register(0x42, OpcodeGroup42::parse);
+    register(0x43, OpcodeGroup43::parse);
+    register(0x44, OpcodeGroup44::parse);
+    register(0x46, OpcodeGroup46::parse);
+    register(0x47, OpcodeGroup47::parse);
+    register(0x48, OpcodeGroup48::parse);
+    register(0x49, OpcodeGroup49::parse);
+    register(0x4A, OpcodeGroup4A::parse);
+    register(0x4B, OpcodeGroup4B::parse);
+    register(0x4C, OpcodeGroup4C::parse);
+    register(0x4D, OpcodeGroup4D::parse);
+    register(0x50, OpcodeGroup50::parse);
+    register(0x55, OpcodeGroup55::parse);
+    register(0x56, OpcodeGroup56::parse);
+    register(0x5B, OpcodeGroup5B::parse);
+    register(0x61, OpcodeGroup61::parse);
+    register(0xCC, (bs, opcode) -> SeqHelper.getNullBytes(bs)); // Modding specific no-op
+  }
+
+  /**
+   * @param opcodeGroup The opcode group, the first byte of the opcode.
+   * @param opcode      The opcode, the second byte of the opcode.
+   * @return If the opcode is implemented.
+   */
+  public static boolean isImplemented(byte opcodeGroup, byte opcode) {
+    return isImplemented(((opcodeGroup & 0xFF) << 8) | (opcode & 0xFF));
+  }
+
+  /**
+   * Decodes the opcode at the current offset of a seq byte stream.
+   *
+   * @param bs          The seq byte stream to read from.
+   * @param opcodeGroup The opcode group, the first byte of the opcode.
+   * @param opcode      The opcode, the second byte of the opcode.
+   * @return The decoded opcode.
+   * @throws IOException           If the opcode group is implemented but the opcode is not, or an
+   *                               I/O error occurs.
+   * @throws IllegalStateException If the opcode group is not implemented.
+   */
+  public static Opcode decode(ByteStream bs, byte opcodeGroup, byte opcode) throws IOException {
+    Decoder decoder = GROUPS[opcodeGroup & 0xFF];
+    if (decoder == null) {
+      // Throws the same exception as the switch statement for an unimplemented opcode group
+      throw new IllegalStateException(
+          String.format("Unknown opcode group: %02X at offset 0x%X", opcodeGroup, bs.offset()));
+    }
+    return decoder.decode(bs, opcode);
+  }
+
+  /**
+   * Returns the length of the opcode at the current offset of a seq byte stream without moving
+   * the offset. The opcode is decoded and then the offset is moved back.
+   *
+   * @param bs The seq byte stream to read from.
+   * @return The length of the opcode in bytes, or 0 if the opcode is not implemented.
+   * @throws IOException If the opcode cannot be decoded or an I/O error occurs.
+   */
+  public static int getLength(ByteStream bs) throws IOException {
+    int offset = bs.offset();
+    int index = bs.peekWord() >>> 16;
+    if (!isImplemented(index)) {
+      return 0;
+    }
+    try {
+      GROUPS[index >>> 8].decode(bs, (byte) index);
+      return bs.offset() - offset;
+    } finally {
+      bs.seek(offset);
+    }
+  }
+
+  /**
+   * Registers the decoder of an opcode group.
+   *
+   * @param opcodeGroup The opcode group.
+   * @param decoder     The decoder of the opcodes in the group.
+   */
+  private static void register(int opcodeGroup, Decoder decoder) {
+    GROUPS[opcodeGroup] = decoder;
+  }
+
+  /**
+   * Returns if an opcode is implemented, decoding it if it has not been checked before. Threads
+   * checking the same opcode at once may both decode it, but they always find the same state.
+   *
+   * @param index The opcode group and opcode bytes of the opcode.
+   * @return If the opcode is implemented.
+   */
+  private static boolean isImplemented(int index) {
+    byte state = STATES[index];
+    if (state == UNKNOWN) {
+      int opcodeGroup = index >>> 8;
+      boolean implemented = GROUPS[opcodeGroup] != null && probe(opcodeGroup, index & 0xFF);
+      state = implemented ? IMPLEMENTED : NOT_IMPLEMENTED;
+      STATES[index] = state;
+    }
+    return state == IMPLEMENTED;
+  }
+
+  /**
+   * Returns if an opcode is implemented by decoding it followed by zeroes. The group of the
+   * opcode throws an IOException starting with "Unimplemented: " if it does not implement the
+   * opcode. Any other failure is from the zeroes not being valid operands for the opcode.
+   *
+   * @param opcodeGroup The opcode group.
+   * @param opcode      The opcode.
+   * @return If the opcode is implemented.
+   */
+  private static boolean probe(int opcodeGroup, int opcode) {
+    byte[] bytes = new byte[PROBE_LENGTH];
+    bytes[0] = (byte) opcodeGroup;
+    bytes[1] = (byte) opcode;
+    try {
+      GROUPS[opcodeGroup].decode(new ByteStream(bytes), (byte) opcode);
+      return true;
+    } catch (IOException e) {
+      String message = e.getMessage();
+      return message == null || !message.startsWith("Unimplemented: ");
+    } catch (Exception e) {
+      return true;
+    }
+  }
+}
@@ -9,7 +9,6 @@ import com.github.nicholasmoser.gnt4.seq.opcodes.SectionTitle;
 import com.github.nicholasmoser.gnt4.seq.opcodes.SeqEditOpcode;
 import com.github.nicholasmoser.utils.ByteStream;
 import com.github.nicholasmoser.utils.ByteUtils;
-import com.google.common.base.Charsets;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -20,6 +19,12 @@ import java.util.List;
 
 public class SeqSection {
 
+  // The ASCII text "chr_" as a big-endian word
+  private static final int SEQ_SECTION_TITLE_START = 0x6368725F;
+
+  // The ASCII text "seq_" as a big-endian word
+  private static final int SEQ_EXTENSION_START = 0x7365715F;
+
   // The below three byte arrays are for various types of chr reset functions that are used
   private final static byte[] CHR_RESET_1 = new byte[] { 0x24, 0x1A, 0x00, 0x00, 0x00, 0x00, 0x00,
       0x01, 0x04, 0x02, 0x66, 0x00, 0x00, 0x00, 0x02, 0x3C, 0x3F, 0x00, 0x00, 0x00, 0x00, 0x00,
@@ -39,9 +44,7 @@ public class SeqSection {
    * @throws IOException If an I/O error occurs.
    */
   public static boolean isSeqSectionTitle(ByteStream bs) throws IOException {
-    byte[] word = bs.peekWordBytes();
-    String startOfTitle = new String(word, Charsets.US_ASCII);
-    return "chr_".equals(startOfTitle);
+    return bs.peekWord() == SEQ_SECTION_TITLE_START;
   }
 
   /**
@@ -52,9 +55,7 @@ public class SeqSection {
    * @throws IOException If an I/O error occurs.
    */
   public static boolean isSeqExtension(ByteStream bs) throws IOException {
-    byte[] word = bs.peekWordBytes();
-    String startOfTitle = new String(word, Charsets.US_ASCII);
-    return "seq_".equals(startOfTitle);
+    return bs.peekWord() == SEQ_EXTENSION_START;
   }
 
   /**
@@ -14,7 +14,7 @@ import java.util.logging.Logger;
 public class Comments {
 
   private static final Logger LOGGER = Logger.getLogger(Comments.class.getName());
-  private static Map<String, Multimap<Integer, String>> COMMENTS;
+  private static volatile Map<String, Multimap<Integer, String>> COMMENTS;
 
   /**
    * Get a mapping of all comments for the given SEQ file. The mapping is of the SEQ file offset to
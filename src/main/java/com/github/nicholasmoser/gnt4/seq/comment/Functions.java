@@ -14,7 +14,7 @@ import java.util.logging.Logger;
 public class Functions {
 
   private static final Logger LOGGER = Logger.getLogger(Functions.class.getName());
-  private static Map<String, Map<Integer, Function>> FUNCTIONS;
+  private static volatile Map<String, Map<Integer, Function>> FUNCTIONS;
 
   /**
    * Get a mapping of all functions for the given SEQ file. The mapping is of the SEQ file offset to
@@ -7,8 +7,8 @@ import java.util.Map;
 import java.util.Optional;
 
 public class Chr {
-  private static BiMap<Integer, String> OFFSET_TO_FIELD;
-  private static Map<String, Integer> FIELD_TO_OFFSET;
+  private static volatile BiMap<Integer, String> OFFSET_TO_FIELD;
+  private static volatile Map<String, Integer> FIELD_TO_OFFSET;
 
   public static Optional<String> getField(int offset) {
     if (OFFSET_TO_FIELD == null) {
@@ -3,14 +3,16 @@ package com.github.nicholasmoser.iso;
 import com.github.nicholasmoser.utils.ByteUtils;
 import com.google.common.io.CountingOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 
 public class FileSystemTable {
@@ -76,26 +78,36 @@ public class FileSystemTable {
     if (!Files.isRegularFile(fstBin)) {
       throw new IOException(fstBin + " is not a file.");
     }
-    try (RandomAccessFile raf = new RandomAccessFile(fstBin.toFile(), "r")) {
-      return read(raf);
-    }
+    return read(ByteBuffer.wrap(Files.readAllBytes(fstBin)));
   }
 
   /**
-   * Reads the ISO items from the fst.bin. This method assumes that the RandomAccessFile is
-   * currently pointing to the start of the fst.bin data. This method will not close the
-   * RandomAccessFile when done or reset the position. The position when done reading will be
-   * somewhere between the start and end of the fst.bin data.
+   * Reads the ISO items from the fst.bin data. The entries are read from the start of the buffer
+   * and the names are read from the string table after them by offset, so the buffer must contain
+   * the whole fst.bin. The position of the buffer is not changed.
    *
-   * @param raf The RandomAccessFile to read the fst.bin data from.
+   * @param fstBin The buffer of the fst.bin data.
    * @return The list of ISO items.
-   * @throws IOException If an I/O error occurs.
+   * @throws IOException If the fst.bin data is not valid.
    */
-  public static List<ISOItem> read(RandomAccessFile raf) throws IOException {
-    List<ISOItem> items = new ArrayList<>(ISO.GNT4_ISO_ITEMS_SIZE);
-    LinkedList<ISODirectory> directoryStack = new LinkedList<>();
-    Map<Integer, String> offsetToDirectory = new HashMap<>();
-    int fstBinPosition = (int) raf.getFilePointer();
+  public static List<ISOItem> read(ByteBuffer fstBin) throws IOException {
+    ByteBuffer buffer = fstBin.slice().order(ByteOrder.BIG_ENDIAN);
+    if (buffer.limit() < 12) {
+      throw new IOException("fst.bin is too small: " + buffer.limit());
+    }
+    if (buffer.getInt(0) != 0x01000000 || buffer.getInt(4) != 0) {
+      throw new IOException("Multiple FST image not supported.");
+    }
+    int numberOfEntries = buffer.getInt(8);
+    if (numberOfEntries < 1 || numberOfEntries > buffer.limit() / 12) {
+      throw new IOException("Invalid number of fst.bin entries: " + numberOfEntries);
+    }
+    int stringTableOffset = numberOfEntries * 12;
+    List<ISOItem> items = new ArrayList<>(Math.max(numberOfEntries, ISO.GNT4_ISO_ITEMS_SIZE));
+    // The game path of each directory by entry number, used to look up the parent of a directory
+    String[] directoryGamePaths = new String[numberOfEntries];
+    // Directories are nested, so the directory on top always has the lowest exit index
+    Deque<ISODirectory> directoryStack = new ArrayDeque<>();
 
     // Root directory
     ISODirectory root = new ISODirectory.Builder()
@@ -105,47 +117,30 @@ public class FileSystemTable {
         .setIsRoot(true)
         .build();
     items.add(root);
-    offsetToDirectory.put(0, ""); // Root
-    if (ByteUtils.readUint32LE(raf) != 1) {
-      throw new IOException("Multiple FST image not supported.");
-    }
-    if (ByteUtils.readUint32LE(raf) != 0) {
-      throw new IOException("Multiple FST image not supported.");
-    }
-    int numberOfEntries = ByteUtils.readInt32(raf);
-    int stringTableOffset = fstBinPosition + (numberOfEntries * 12);
+    directoryGamePaths[0] = ""; // Root
 
     // Read rest of files until the string table is reached
     for (int entryNumber = 1; entryNumber < numberOfEntries; entryNumber++) {
       // Check if this item is a directory and retrieve the name of it. The first byte of this
       // value is if it is a directory, the next three bytes are the item name position in the
       // item name table.
-      int value = ByteUtils.readInt32(raf);
-      boolean isDirectory = false;
-      if (value >> 24 == 1) {
-        isDirectory = true;
-      }
-      int stringTablePosition = value & 0x00FFFFFF;
-
-      long savedPosition = raf.getFilePointer();
-      raf.seek(stringTableOffset + stringTablePosition);
-      String name = ByteUtils.readString(raf);
-      raf.seek(savedPosition);
+      int entryOffset = entryNumber * 12;
+      int value = buffer.getInt(entryOffset);
+      boolean isDirectory = value >> 24 == 1;
+      String name = readName(buffer, stringTableOffset + (value & 0x00FFFFFF));
 
       // Remove directories from stack that now have all their items
-      ListIterator<ISODirectory> itr = directoryStack.listIterator();
-      while (itr.hasNext()) {
-        ISODirectory directory = itr.next();
-        if (entryNumber >= directory.getFstExitIndex()) {
-          itr.remove();
-        }
+      while (!directoryStack.isEmpty()
+          && entryNumber >= directoryStack.peek().getFstExitIndex()) {
+        directoryStack.pop();
       }
 
       if (isDirectory) {
         // Read and add a directory
-        int parentOffset = ByteUtils.readInt32(raf);
-        int nextOffset = ByteUtils.readInt32(raf);
-        String parent = offsetToDirectory.get(parentOffset);
+        int parentOffset = buffer.getInt(entryOffset + 4);
+        int nextOffset = buffer.getInt(entryOffset + 8);
+        String parent = parentOffset >= 0 && parentOffset < entryNumber
+            ? directoryGamePaths[parentOffset] : null;
         if (parent == null) {
           throw new IOException(name + " parent is null");
         }
@@ -154,14 +149,14 @@ public class FileSystemTable {
             .setFstExitIndex(nextOffset)
             .setName(name).setGamePath(gamePath).setParent(parent).build();
         items.add(dir);
-        directoryStack.addFirst(dir);
-        offsetToDirectory.put(entryNumber, dir.getGamePath());
+        directoryStack.push(dir);
+        directoryGamePaths[entryNumber] = gamePath;
       } else {
         // Read and add a file
-        int fileOffset = ByteUtils.readInt32(raf);
-        int fileLength = ByteUtils.readInt32(raf);
+        int fileOffset = buffer.getInt(entryOffset + 4);
+        int fileLength = buffer.getInt(entryOffset + 8);
         String currentDirectory =
-            directoryStack.isEmpty() ? "" : directoryStack.getFirst().getGamePath();
+            directoryStack.isEmpty() ? "" : directoryStack.peek().getGamePath();
         String gamePath = getFileGamePath(currentDirectory, name);
         ISOFile file = new ISOFile.Builder()
             .setPos(fileOffset)
@@ -173,6 +168,27 @@ public class FileSystemTable {
     return items;
   }
 
+  /**
+   * Reads a null-terminated ASCII name from the string table of the fst.bin.
+   *
+   * @param buffer The buffer of the fst.bin data.
+   * @param offset The offset of the name in the buffer.
+   * @return The name.
+   * @throws IOException If the name is not null-terminated before the end of the buffer.
+   */
+  private static String readName(ByteBuffer buffer, int offset) throws IOException {
+    int end = offset;
+    while (end < buffer.limit() && buffer.get(end) != 0) {
+      end++;
+    }
+    if (end >= buffer.limit()) {
+      throw new IOException("fst.bin name at offset " + offset + " is not null-terminated.");
+    }
+    byte[] name = new byte[end - offset];
+    buffer.get(offset, name);
+    return new String(name, StandardCharsets.US_ASCII);
+  }
+
   /**
    * Return the game path of a directory. This will be the game path of the parent plus the
    * directory name plus a slash. An empty optional parent represents root, which has a game path
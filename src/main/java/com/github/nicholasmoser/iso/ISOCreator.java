@@ -1,32 +1,71 @@
 package com.github.nicholasmoser.iso;
 
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 import com.github.nicholasmoser.utils.ByteUtils;
 import com.google.common.base.VerifyException;
 import com.google.common.io.CountingOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * Creates ISOs from a list of files and directories.
  */
 public class ISOCreator {
 
+  private static final Logger LOGGER = Logger.getLogger(ISOCreator.class.getName());
+
+  private static final byte[] ZEROES = new byte[0x8000];
+
   private final Path inputPath;
   private final Path isoPath;
   private final Path filesPath;
+  private final boolean useFileChannel;
 
   /**
    * Create an ISOCreator using the path to the input files and the path to the output ISO file.
+   * The ISO will be written with a FileChannel.
    *
    * @param inputPath The path to the input files
    * @param isoPath   The path to the output ISO file.
    */
   public ISOCreator(Path inputPath, Path isoPath) {
+    this(inputPath, isoPath, true);
+  }
+
+  /**
+   * Create an ISOCreator using the path to the input files and the path to the output ISO file.
+   * Writing with a FileChannel transfers file data directly from each input file to the ISO and
+   * skips over padding instead of writing zeroes. Writing with an OutputStream reads each input
+   * file fully into memory and writes out all padding.
+   *
+   * @param inputPath      The path to the input files
+   * @param isoPath        The path to the output ISO file.
+   * @param useFileChannel If the ISO should be written with a FileChannel instead of an
+   *                       OutputStream.
+   */
+  public ISOCreator(Path inputPath, Path isoPath, boolean useFileChannel) {
     this.inputPath = inputPath;
     this.isoPath = isoPath;
+    this.useFileChannel = useFileChannel;
     filesPath = inputPath.resolve("files");
   }
 
@@ -73,16 +112,246 @@ public class ISOCreator {
     bootBinRewrite(bootBinPath, dolOffset, fstOffset, fstSize);
 
     // Write out the ISO
-    try (CountingOutputStream os = new CountingOutputStream(Files.newOutputStream(isoPath))) {
-      writeAndPad(os, bootBinPath, ISO.BOOT_BIN_LEN);
-      writeAndPad(os, bi2BinPath, ISO.BI_2_LEN);
-      writeAndPad(os, apploaderImgPath, dolOffset - apploaderOffset);
-      writeAndPad(os, mainDolPath, fstOffset - dolOffset);
-      writeAndPad(os, fstBinPath, fstSize);
-      writeFiles(os, isoHeader.getFiles());
+    if (useFileChannel) {
+      try (FileChannel iso = FileChannel.open(isoPath, CREATE, TRUNCATE_EXISTING, WRITE)) {
+        transferAndPad(iso, bootBinPath, ISO.BOOT_BIN_LEN);
+        transferAndPad(iso, bi2BinPath, ISO.BI_2_LEN);
+        transferAndPad(iso, apploaderImgPath, dolOffset - apploaderOffset);
+        transferAndPad(iso, mainDolPath, fstOffset - dolOffset);
+        transferAndPad(iso, fstBinPath, fstSize);
+        transferFiles(iso, isoHeader.getFiles());
+        fillToPosition(iso);
+      }
+    } else {
+      try (CountingOutputStream os = new CountingOutputStream(Files.newOutputStream(isoPath))) {
+        writeAndPad(os, bootBinPath, ISO.BOOT_BIN_LEN);
+        writeAndPad(os, bi2BinPath, ISO.BI_2_LEN);
+        writeAndPad(os, apploaderImgPath, dolOffset - apploaderOffset);
+        writeAndPad(os, mainDolPath, fstOffset - dolOffset);
+        writeAndPad(os, fstBinPath, fstSize);
+        writeFiles(os, isoHeader.getFiles());
+      }
     }
   }
 
+  /**
+   * Updates the existing ISO in place with the files that have changed since it was created. Each
+   * changed file is written over its previous position if it still fits before the next file,
+   * otherwise it is relocated after the last file of the ISO, or in front of the first file if the
+   * files were pushed to the end of the ISO. The fst.bin and boot.bin are then rewritten and all
+   * other bytes of the ISO are left untouched. Any file that is newer than the ISO or whose size
+   * differs from the ISO is also treated as changed. A new ISO will be created instead if the ISO
+   * does not exist, files were added or removed, or the changed files cannot fit in the ISO.
+   *
+   * @param changedFiles   The relative paths of the changed files, such as files/fpack/0000.fpk.
+   * @param pushFilesToEnd If the files should be pushed to the end of the ISO if a new ISO is
+   *                       created.
+   * @throws IOException If an I/O error occurs.
+   */
+  public void update(Collection<String> changedFiles, boolean pushFilesToEnd) throws IOException {
+    if (!Files.isRegularFile(isoPath)) {
+      LOGGER.info(isoPath + " does not exist, creating a new ISO.");
+      create(pushFilesToEnd);
+      return;
+    }
+    ISOHeader previous = new ISOParser(isoPath).getISOHeader();
+    ISOHeader current = new DirectoryParser(inputPath, pushFilesToEnd).getISOHeader();
+    if (!getGamePaths(previous).equals(getGamePaths(current))) {
+      LOGGER.info("Files have been added or removed, creating a new ISO.");
+      create(pushFilesToEnd);
+      return;
+    }
+    FileTime isoModified = Files.getLastModifiedTime(isoPath);
+    Set<String> changed = new HashSet<>(changedFiles);
+
+    // Check that the changed sys files still fit
+    ISOFile mainDol = previous.getMainDol();
+    ISOFile fstBin = previous.getFstBin();
+    Path apploaderImgPath = resolve("sys/apploader.img");
+    Path bi2BinPath = resolve("sys/bi2.bin");
+    Path bootBinPath = resolve("sys/boot.bin");
+    Path fstBinPath = resolve("sys/fst.bin");
+    Path mainDolPath = resolve("sys/main.dol");
+    int apploaderSpace = mainDol.getPos() - ISO.APPLOADER_POS;
+    int mainDolSpace = fstBin.getPos() - mainDol.getPos();
+    boolean bi2BinChanged = isChanged("sys/bi2.bin", bi2BinPath, changed, isoModified);
+    boolean apploaderChanged = isChanged("sys/apploader.img", apploaderImgPath, changed,
+        isoModified);
+    boolean mainDolChanged = isChanged("sys/main.dol", mainDolPath, changed, isoModified);
+    if (Files.size(apploaderImgPath) > apploaderSpace || Files.size(mainDolPath) > mainDolSpace) {
+      LOGGER.info("The apploader.img or main.dol no longer fit, creating a new ISO.");
+      create(pushFilesToEnd);
+      return;
+    }
+
+    // The space available to each file is up to the position of the next file
+    List<ISOItem> items = new ArrayList<>(previous.getFiles());
+    List<ISOFile> sorted = items.stream()
+        .filter(item -> !item.isDirectory())
+        .map(ISOFile.class::cast)
+        .sorted(Comparator.comparingInt(ISOFile::getPos))
+        .toList();
+    Map<String, Integer> nextPositions = new HashMap<>();
+    for (int i = 0; i < sorted.size(); i++) {
+      int next = i + 1 < sorted.size() ? sorted.get(i + 1).getPos() : ISO.DISC_SIZE;
+      nextPositions.put(sorted.get(i).getGamePath(), next);
+    }
+    int dataStart = ByteUtils.nextAlignedPos(fstBin.getPos() + fstBin.getLen(), 32768);
+    int firstPosition = sorted.isEmpty() ? ISO.DISC_SIZE : sorted.get(0).getPos();
+
+    // Find the changed files and whether they can be written over their previous position
+    Map<Integer, ISOFile> patched = new HashMap<>();
+    Map<Integer, ISOFile> relocated = new HashMap<>();
+    long end = dataStart;
+    for (int i = 0; i < items.size(); i++) {
+      ISOItem item = items.get(i);
+      if (item.isDirectory()) {
+        continue;
+      }
+      ISOFile file = (ISOFile) item;
+      Path filePath = filesPath.resolve(file.getGamePath());
+      long size = Files.size(filePath);
+      String relativePath = "files/" + file.getGamePath();
+      if (size == file.getLen() && !isChanged(relativePath, filePath, changed, isoModified)) {
+        end = Math.max(end, (long) file.getPos() + file.getLen());
+      } else if (file.getPos() + size <= nextPositions.get(file.getGamePath())) {
+        patched.put(i, file);
+        end = Math.max(end, file.getPos() + size);
+      } else {
+        relocated.put(i, file);
+        end = Math.max(end, (long) file.getPos() + file.getLen());
+      }
+    }
+    for (int i = 0; i < items.size(); i++) {
+      ISOFile file = patched.get(i);
+      if (file != null) {
+        int size = (int) Files.size(filesPath.resolve(file.getGamePath()));
+        items.set(i, withPosition(file, file.getPos(), size));
+      }
+    }
+
+    // Relocate files that no longer fit after the last file, or before the first file
+    long gapPosition = dataStart;
+    for (int i = 0; i < items.size(); i++) {
+      ISOFile file = relocated.get(i);
+      if (file == null) {
+        continue;
+      }
+      int size = (int) Files.size(filesPath.resolve(file.getGamePath()));
+      int alignment = file.getName().endsWith(".trk") ? 0x8000 : 4;
+      long position = ByteUtils.nextAlignedPos((int) end, alignment);
+      if (position + size <= ISO.DISC_SIZE) {
+        end = position + size;
+      } else {
+        position = ByteUtils.nextAlignedPos((int) gapPosition, alignment);
+        if (position + size > firstPosition) {
+          LOGGER.info(file.getGamePath() + " cannot be relocated, creating a new ISO.");
+          create(pushFilesToEnd);
+          return;
+        }
+        gapPosition = position + size;
+      }
+      items.set(i, withPosition(file, (int) position, size));
+    }
+
+    // Rewrite the fst.bin and boot.bin
+    ISOHeader isoHeader = new ISOHeader.Builder()
+        .setSys(previous.getSys())
+        .setBootBin(previous.getBootBin())
+        .setBi2Bin(previous.getBi2Bin())
+        .setApploaderImg(previous.getApploaderImg())
+        .setMainDol(mainDol)
+        .setFstBin(fstBin)
+        .setFiles(items)
+        .createISOHeader();
+    FileSystemTable.rewrite(inputPath, isoHeader);
+    int fstSize = (int) Files.size(fstBinPath);
+    if (fstSize != fstBin.getLen()) {
+      LOGGER.info("The fst.bin has changed size, creating a new ISO.");
+      create(pushFilesToEnd);
+      return;
+    }
+    bootBinRewrite(bootBinPath, mainDol.getPos(), fstBin.getPos(), fstSize);
+
+    // Write only the changed bytes to the ISO
+    try (FileChannel iso = FileChannel.open(isoPath, WRITE)) {
+      iso.position(ISO.BOOT_BIN_POS);
+      transfer(iso, bootBinPath);
+      if (bi2BinChanged) {
+        iso.position(ISO.BI_2_POS);
+        transfer(iso, bi2BinPath);
+      }
+      if (apploaderChanged) {
+        transferAndZero(iso, apploaderImgPath, ISO.APPLOADER_POS, apploaderSpace);
+      }
+      if (mainDolChanged) {
+        transferAndZero(iso, mainDolPath, mainDol.getPos(), mainDolSpace);
+      }
+      iso.position(fstBin.getPos());
+      transfer(iso, fstBinPath);
+      for (ISOFile file : patched.values()) {
+        Path filePath = filesPath.resolve(file.getGamePath());
+        transferAndZero(iso, filePath, file.getPos(), file.getLen());
+      }
+      for (Map.Entry<Integer, ISOFile> entry : relocated.entrySet()) {
+        ISOFile file = entry.getValue();
+        ISOFile newFile = (ISOFile) items.get(entry.getKey());
+        zero(iso, file.getPos(), file.getLen());
+        iso.position(newFile.getPos());
+        transfer(iso, filesPath.resolve(file.getGamePath()));
+      }
+    }
+    LOGGER.info(String.format("Updated %d file(s) in place and relocated %d file(s).",
+        patched.size(), relocated.size()));
+  }
+
+  /**
+   * Returns the game paths of all files and directories of an ISOHeader.
+   *
+   * @param isoHeader The ISOHeader.
+   * @return The game paths.
+   */
+  private static Set<String> getGamePaths(ISOHeader isoHeader) {
+    return isoHeader.getFiles()
+        .stream()
+        .map(ISOItem::getGamePath)
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns if a file is in the set of changed files or has been modified after the ISO.
+   *
+   * @param relativePath The relative path of the file.
+   * @param filePath     The path to the file.
+   * @param changed      The relative paths of the changed files.
+   * @param isoModified  The last modified time of the ISO.
+   * @return If the file has changed.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static boolean isChanged(String relativePath, Path filePath, Set<String> changed,
+      FileTime isoModified) throws IOException {
+    return changed.contains(relativePath)
+        || Files.getLastModifiedTime(filePath).compareTo(isoModified) > 0;
+  }
+
+  /**
+   * Returns a copy of an ISOFile with a new position and length.
+   *
+   * @param file The ISOFile to copy.
+   * @param pos  The new position.
+   * @param len  The new length.
+   * @return The new ISOFile.
+   */
+  private static ISOFile withPosition(ISOFile file, int pos, int len) {
+    return new ISOFile.Builder()
+        .setParent(file.getParent())
+        .setPos(pos)
+        .setLen(len)
+        .setName(file.getName())
+        .setGamePath(file.getGamePath())
+        .build();
+  }
+
   /**
    * Rewrites the main.dol offset, fst.bin offset, fst.bin size, and the max fst.bin size to the
    * boot.bin. The value at 0x42C is the max fst.bin size. This value is only used for multi-disk
@@ -153,6 +422,128 @@ public class ISOCreator {
     }
   }
 
+  /**
+   * Transfers the files from a list of ISOItems to a FileChannel. Padding before each file is
+   * skipped by moving the position of the FileChannel, which leaves zeroes in the skipped bytes.
+   *
+   * @param iso      The FileChannel to write to.
+   * @param isoItems The list of ISOItems to retrieve the files from.
+   * @throws IOException If an I/O error occurs or the fst offset is before the current offset.
+   */
+  private void transferFiles(FileChannel iso, List<ISOItem> isoItems) throws IOException {
+    for (ISOItem currentItem : isoItems) {
+      if (!currentItem.isDirectory()) {
+        ISOFile file = (ISOFile) currentItem;
+        int dataPos = file.getPos();
+        long currentPos = iso.position();
+        if (currentPos > dataPos) {
+          String name = file.getName();
+          String message = String
+              .format("Cannot write %s to ISO, fst offset of %d before %d", name, dataPos,
+                  currentPos);
+          throw new IOException(message);
+        } else if (currentPos < dataPos) {
+          // Skip over the padding to reach data position
+          iso.position(dataPos);
+        }
+        Path gamePath = filesPath.resolve(currentItem.getGamePath());
+        transfer(iso, gamePath);
+      }
+    }
+  }
+
+  /**
+   * Transfers a file to a FileChannel. If less than total bytes are transferred, the position of
+   * the FileChannel will be moved forward until total is reached.
+   *
+   * @param iso      The FileChannel to write to.
+   * @param filePath The path to the file to transfer.
+   * @param total    The total number of bytes to move forward including padding.
+   * @throws IOException If an I/O error occurs.
+   */
+  private void transferAndPad(FileChannel iso, Path filePath, int total) throws IOException {
+    long start = iso.position();
+    long size = transfer(iso, filePath);
+    if (size < total) {
+      iso.position(start + total);
+    }
+  }
+
+  /**
+   * Transfers all bytes of a file to the current position of a FileChannel and moves the position
+   * of the FileChannel to the end of those bytes.
+   *
+   * @param iso      The FileChannel to write to.
+   * @param filePath The path to the file to transfer.
+   * @return The number of bytes transferred.
+   * @throws IOException If an I/O error occurs.
+   */
+  private long transfer(FileChannel iso, Path filePath) throws IOException {
+    try (FileChannel input = FileChannel.open(filePath, READ)) {
+      long size = input.size();
+      long transferred = 0;
+      while (transferred < size) {
+        long count = input.transferTo(transferred, size - transferred, iso);
+        if (count <= 0) {
+          throw new IOException("Failed to transfer all bytes of " + filePath);
+        }
+        transferred += count;
+      }
+      return size;
+    }
+  }
+
+  /**
+   * Transfers a file to a position of a FileChannel. If less than total bytes are transferred, the
+   * rest of the total bytes will be overwritten with zeroes.
+   *
+   * @param iso      The FileChannel to write to.
+   * @param filePath The path to the file to transfer.
+   * @param position The position to transfer the file to.
+   * @param total    The total number of bytes to write including zeroes.
+   * @throws IOException If an I/O error occurs.
+   */
+  private void transferAndZero(FileChannel iso, Path filePath, long position, long total)
+      throws IOException {
+    iso.position(position);
+    long size = transfer(iso, filePath);
+    if (size < total) {
+      zero(iso, position + size, total - size);
+    }
+  }
+
+  /**
+   * Overwrites bytes of a FileChannel with zeroes.
+   *
+   * @param iso      The FileChannel to write to.
+   * @param position The position to start writing zeroes at.
+   * @param length   The number of zeroes to write.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static void zero(FileChannel iso, long position, long length) throws IOException {
+    ByteBuffer zeroes = ByteBuffer.wrap(ZEROES);
+    while (length > 0) {
+      zeroes.clear().limit((int) Math.min(length, ZEROES.length));
+      int written = iso.write(zeroes, position);
+      position += written;
+      length -= written;
+    }
+  }
+
+  /**
+   * Writes a zero at the end of the skipped padding if the last bytes of the FileChannel were
+   * skipped over, so that the size of the ISO includes the padding.
+   *
+   * @param iso The FileChannel to write to.
+   * @throws IOException If an I/O error occurs.
+   */
+  private void fillToPosition(FileChannel iso) throws IOException {
+    long position = iso.position();
+    if (iso.size() < position) {
+      iso.write(ByteBuffer.allocate(1), position - 1);
+    }
+  }
+
   /**
    * Converts a given path string to a {@code Path} and resolves it against this {@code Path}. A
    * VerifyException will be thrown if the file does not exist.
@@ -0,0 +1,234 @@
+package com.github.nicholasmoser.iso;
+
+import com.github.nicholasmoser.PRSUncompressor;
+import com.github.nicholasmoser.fpk.FPKFileHeader;
+import com.github.nicholasmoser.fpk.FPKIndex;
+import com.github.nicholasmoser.fpk.FPKOptions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compares the files of two ISOs without extracting them. Files are paired by their relative path
+ * and compared directly from the memory-mapped ISOs. When FPK options are provided, each changed
+ * FPK file is also compared child by child to find which of its children changed.
+ */
+public class ISODiff {
+
+  private static final Logger LOGGER = Logger.getLogger(ISODiff.class.getName());
+
+  private final ISOFileSystem first;
+
+  private final ISOFileSystem second;
+
+  private final Optional<FPKOptions> fpkOptions;
+
+  private final boolean sameISO;
+
+  /**
+   * Creates a new ISODiff for two ISOs.
+   *
+   * @param first      The first ISO to compare.
+   * @param second     The second ISO to compare.
+   * @param fpkOptions The optional FPK options used to compare the children of changed FPK files.
+   * @throws IOException If an I/O error occurs.
+   */
+  public ISODiff(ISOFileSystem first, ISOFileSystem second, Optional<FPKOptions> fpkOptions)
+      throws IOException {
+    this.first = first;
+    this.second = second;
+    this.fpkOptions = fpkOptions;
+    this.sameISO = Files.isSameFile(first.getISOPath(), second.getISOPath());
+  }
+
+  /**
+   * The difference between two sets of files.
+   *
+   * @param onlyInFirst  The files only in the first set of files.
+   * @param onlyInSecond The files only in the second set of files.
+   * @param changed      The files in both sets of files that are different.
+   * @param children     The differences of the children of changed FPK files. An FPK file that
+   *                     could not be read has no difference of its children.
+   */
+  public record Difference(List<String> onlyInFirst, List<String> onlyInSecond,
+                           List<String> changed, Map<String, Difference> children) {
+
+  }
+
+  /**
+   * Compares the files of the two ISOs.
+   *
+   * @return The difference between the two ISOs.
+   * @throws IOException If an I/O error occurs.
+   */
+  public Difference compare() throws IOException {
+    Set<String> firstPaths = first.getFilePaths();
+    Set<String> secondPaths = second.getFilePaths();
+    List<String> onlyInFirst = firstPaths.stream()
+        .filter(path -> !secondPaths.contains(path))
+        .toList();
+    List<String> onlyInSecond = secondPaths.stream()
+        .filter(path -> !firstPaths.contains(path))
+        .toList();
+    List<String> changed = firstPaths.parallelStream()
+        .filter(secondPaths::contains)
+        .filter(path -> isChanged(first.getFile(path).get(), second.getFile(path).get()))
+        .toList();
+    Map<String, Difference> children = new LinkedHashMap<>();
+    if (fpkOptions.isPresent()) {
+      changed.parallelStream()
+          .filter(path -> path.toLowerCase().endsWith(".fpk"))
+          .map(path -> Map.entry(path, compareFPK(path)))
+          .filter(entry -> entry.getValue().isPresent())
+          .toList()
+          .forEach(entry -> children.put(entry.getKey(), entry.getValue().get()));
+    }
+    return new Difference(onlyInFirst, onlyInSecond, changed, children);
+  }
+
+  /**
+   * Returns if a file has changed between the two ISOs. Files at the same position in the same ISO
+   * are never read.
+   *
+   * @param firstFile  The file in the first ISO.
+   * @param secondFile The file in the second ISO.
+   * @return If the file has changed.
+   */
+  private boolean isChanged(ISOFile firstFile, ISOFile secondFile) {
+    if (firstFile.getLen() != secondFile.getLen()) {
+      return true;
+    } else if (sameISO && firstFile.getPos() == secondFile.getPos()) {
+      return false;
+    }
+    return !first.getBytes(firstFile).equals(second.getBytes(secondFile));
+  }
+
+  /**
+   * Compares the children of an FPK file in the two ISOs. An FPK file that cannot be read, such as
+   * one with a corrupt header, is logged and has no difference of its children, so that it is
+   * still listed as changed without stopping the rest of the comparison.
+   *
+   * @param path The relative path of the FPK file.
+   * @return The difference between the children of the FPK file, if it could be read.
+   */
+  private Optional<Difference> compareFPK(String path) {
+    try {
+      ByteBuffer firstFPK = first.getBytes(path);
+      ByteBuffer secondFPK = second.getBytes(path);
+      Map<String, FPKFileHeader> firstChildren = readChildren(firstFPK);
+      Map<String, FPKFileHeader> secondChildren = readChildren(secondFPK);
+      List<String> onlyInFirst = new ArrayList<>();
+      List<String> onlyInSecond = new ArrayList<>();
+      List<String> changed = new ArrayList<>();
+      for (Map.Entry<String, FPKFileHeader> entry : firstChildren.entrySet()) {
+        FPKFileHeader secondHeader = secondChildren.get(entry.getKey());
+        if (secondHeader == null) {
+          onlyInFirst.add(entry.getKey());
+        } else if (isChildChanged(firstFPK, entry.getValue(), secondFPK, secondHeader)) {
+          changed.add(entry.getKey());
+        }
+      }
+      for (String child : secondChildren.keySet()) {
+        if (!firstChildren.containsKey(child)) {
+          onlyInSecond.add(child);
+        }
+      }
+      return Optional.of(new Difference(onlyInFirst, onlyInSecond, changed, Map.of()));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Unable to compare the children of " + path, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Reads the file headers of an FPK file, keyed by the fixed file name of each child.
+   *
+   * @param fpk The bytes of the FPK file.
+   * @return The file names to the file headers.
+   * @throws IOException If the FPK file headers cannot be read.
+   */
+  private Map<String, FPKFileHeader> readChildren(ByteBuffer fpk) throws IOException {
+    FPKOptions options = fpkOptions.get();
+    FPKIndex index = FPKIndex.read(fpk, options.longPaths(), options.bigEndian());
+    Map<String, FPKFileHeader> children = new LinkedHashMap<>();
+    for (FPKFileHeader header : index.getHeaders()) {
+      String fileName = header.getFileName();
+      if (options.fileNames() != null) {
+        fileName = options.fileNames().fix(fileName);
+      }
+      children.put(fileName, header);
+    }
+    return children;
+  }
+
+  /**
+   * Returns if an FPK child has changed. The compressed bytes are compared first, and the
+   * uncompressed bytes are only compared if the compressed bytes differ, since the same bytes can
+   * be compressed differently.
+   *
+   * @param firstFPK     The bytes of the first FPK file.
+   * @param firstHeader  The file header of the child in the first FPK file.
+   * @param secondFPK    The bytes of the second FPK file.
+   * @param secondHeader The file header of the child in the second FPK file.
+   * @return If the FPK child has changed.
+   * @throws IOException If the FPK child cannot be read.
+   */
+  private static boolean isChildChanged(ByteBuffer firstFPK, FPKFileHeader firstHeader,
+      ByteBuffer secondFPK, FPKFileHeader secondHeader) throws IOException {
+    if (firstHeader.getUncompressedSize() != secondHeader.getUncompressedSize()) {
+      return true;
+    }
+    ByteBuffer firstBytes = getChildBytes(firstFPK, firstHeader);
+    ByteBuffer secondBytes = getChildBytes(secondFPK, secondHeader);
+    if (firstBytes.equals(secondBytes)) {
+      return false;
+    }
+    return !Arrays.equals(uncompress(firstBytes, firstHeader), uncompress(secondBytes,
+        secondHeader));
+  }
+
+  /**
+   * Returns the compressed bytes of an FPK child.
+   *
+   * @param fpk    The bytes of the FPK file.
+   * @param header The file header of the child.
+   * @return The compressed bytes of the child.
+   * @throws IOException If the child extends past the end of the FPK file.
+   */
+  private static ByteBuffer getChildBytes(ByteBuffer fpk, FPKFileHeader header)
+      throws IOException {
+    long end = (long) header.getOffset() + header.getCompressedSize();
+    if (end > fpk.limit()) {
+      throw new IOException(header.getFileName() + " extends past the end of the FPK file.");
+    }
+    return fpk.slice(header.getOffset(), header.getCompressedSize());
+  }
+
+  /**
+   * Returns the uncompressed bytes of an FPK child.
+   *
+   * @param bytes  The compressed bytes of the child.
+   * @param header The file header of the child.
+   * @return The uncompressed bytes of the child.
+   */
+  private static byte[] uncompress(ByteBuffer bytes, FPKFileHeader header) {
+    byte[] compressed = new byte[bytes.remaining()];
+    bytes.get(0, compressed);
+    // Files with the same compressed and uncompressed size are not compressed
+    if (header.getCompressedSize() == header.getUncompressedSize()) {
+      return compressed;
+    }
+    byte[] uncompressed = new byte[header.getUncompressedSize()];
+    PRSUncompressor.uncompress(compressed, uncompressed);
+    return uncompressed;
+  }
+}
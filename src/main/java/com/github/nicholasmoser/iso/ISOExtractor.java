@@ -1,29 +1,58 @@
 package com.github.nicholasmoser.iso;
 
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * Class to extract files and directories from an ISO.
  */
 public class ISOExtractor {
 
+  // The number of bytes of contiguous files to extract in each batch when extracting in parallel
+  private static final long BATCH_SIZE = 16 * 1024 * 1024;
+
   private final Path isoPath;
   private final Path outputPath;
   private final Path filesPath;
+  private final boolean parallel;
 
   /**
    * Create an ISOExtractor with a path to an ISO to extract and a directory to save files and
-   * directories to.
+   * directories to. The files will be extracted in parallel.
    *
    * @param isoPath    The path to the ISO file.
    * @param outputPath The path to save files from the ISO.
    */
   public ISOExtractor(Path isoPath, Path outputPath) {
+    this(isoPath, outputPath, true);
+  }
+
+  /**
+   * Create an ISOExtractor with a path to an ISO to extract and a directory to save files and
+   * directories to. Extracting in parallel sorts the files by their position in the ISO and splits
+   * them into batches of contiguous files, which are each transferred from a shared FileChannel
+   * with positional reads.
+   *
+   * @param isoPath    The path to the ISO file.
+   * @param outputPath The path to save files from the ISO.
+   * @param parallel   If the files should be extracted in parallel.
+   */
+  public ISOExtractor(Path isoPath, Path outputPath, boolean parallel) {
     this.isoPath = isoPath;
     this.outputPath = outputPath;
+    this.parallel = parallel;
     filesPath = outputPath.resolve("files");
   }
 
@@ -46,6 +75,10 @@ public class ISOExtractor {
    */
   public void extract(ISOHeader isoHeader) throws IOException {
     Files.createDirectories(outputPath.resolve("sys"));
+    if (parallel) {
+      extractParallel(isoHeader);
+      return;
+    }
     try (RandomAccessFile raf = new RandomAccessFile(isoPath.toFile(), "r")) {
       extractItem(isoHeader.getBootBin(), raf);
       extractItem(isoHeader.getBi2Bin(), raf);
@@ -73,11 +106,97 @@ public class ISOExtractor {
       ISOFile file = (ISOFile) item;
       raf.seek(file.getPos());
       byte[] bytes = new byte[file.getLen()];
-      raf.read(bytes);
+      raf.readFully(bytes);
       Files.write(fullPath, bytes);
     }
   }
 
+  /**
+   * Extract an ISO in parallel using an ISOHeader. The directories are created first, then the
+   * files are sorted by position and extracted in batches of contiguous files.
+   *
+   * @param isoHeader The ISOHeader for the ISO.
+   * @throws IOException If an I/O error occurs.
+   */
+  private void extractParallel(ISOHeader isoHeader) throws IOException {
+    List<ISOFile> files = new ArrayList<>();
+    files.add(isoHeader.getBootBin());
+    files.add(isoHeader.getBi2Bin());
+    files.add(isoHeader.getApploaderImg());
+    files.add(isoHeader.getMainDol());
+    files.add(isoHeader.getFstBin());
+    for (ISOItem item : isoHeader.getFiles()) {
+      if (item.isDirectory()) {
+        Files.createDirectories(getFullPath(item.getGamePath()));
+      } else {
+        files.add((ISOFile) item);
+      }
+    }
+    files.sort(Comparator.comparingInt(ISOFile::getPos));
+    try (FileChannel iso = FileChannel.open(isoPath, READ)) {
+      getBatches(files).parallelStream().forEach(batch -> {
+        try {
+          for (ISOFile file : batch) {
+            extractFile(file, iso);
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Splits files sorted by position into batches of contiguous files of about BATCH_SIZE bytes.
+   *
+   * @param files The files sorted by position.
+   * @return The batches of files.
+   */
+  private static List<List<ISOFile>> getBatches(List<ISOFile> files) {
+    List<List<ISOFile>> batches = new ArrayList<>();
+    List<ISOFile> batch = new ArrayList<>();
+    long batchSize = 0;
+    for (ISOFile file : files) {
+      batch.add(file);
+      batchSize += file.getLen();
+      if (batchSize >= BATCH_SIZE) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        batchSize = 0;
+      }
+    }
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  /**
+   * Extract the given ISOFile from the ISO FileChannel. The bytes are transferred with positional
+   * reads, so the FileChannel can be shared between threads.
+   *
+   * @param file The ISOFile to extract.
+   * @param iso  The FileChannel to read from.
+   * @throws IOException If an I/O error occurs or the file extends past the end of the ISO.
+   */
+  private void extractFile(ISOFile file, FileChannel iso) throws IOException {
+    Path fullPath = getFullPath(file.getGamePath());
+    try (FileChannel output = FileChannel.open(fullPath, CREATE, TRUNCATE_EXISTING, WRITE)) {
+      long position = file.getPos();
+      long remaining = file.getLen();
+      while (remaining > 0) {
+        long count = iso.transferTo(position, remaining, output);
+        if (count <= 0) {
+          throw new IOException("Unexpected end of ISO reading " + file.getGamePath());
+        }
+        position += count;
+        remaining -= count;
+      }
+    }
+  }
+
   /**
    * Returns the path on your file system to save a file. All ISO system files should be saved under
    * compressed/sys. All other files will be saved under compressed/files.
@@ -0,0 +1,180 @@
+package com.github.nicholasmoser.iso;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A read-only view of the files of an ISO. The ISO is memory-mapped and each file is exposed as a
+ * slice of the mapped ISO, so files can be read without extracting the ISO. Files are referred to
+ * by the relative path they would be extracted to, such as sys/main.dol or files/fpack/0000.fpk.
+ */
+public class ISOFileSystem implements Closeable {
+
+  private final Path isoPath;
+
+  private final FileChannel channel;
+
+  private final ByteBuffer image;
+
+  private final ISOHeader isoHeader;
+
+  private final Map<String, ISOFile> files;
+
+  /**
+   * Create a new ISOFileSystem. Use {@link #open(Path)} to create one.
+   *
+   * @param isoPath   The path to the ISO.
+   * @param channel   The FileChannel of the ISO.
+   * @param image     The memory-mapped ISO.
+   * @param isoHeader The ISOHeader of the ISO.
+   * @param files     The relative paths of the files to their ISOFile.
+   */
+  private ISOFileSystem(Path isoPath, FileChannel channel, ByteBuffer image, ISOHeader isoHeader,
+      Map<String, ISOFile> files) {
+    this.isoPath = isoPath;
+    this.channel = channel;
+    this.image = image;
+    this.isoHeader = isoHeader;
+    this.files = files;
+  }
+
+  /**
+   * Opens and memory-maps an ISO.
+   *
+   * @param isoPath The path to the ISO.
+   * @return The ISOFileSystem for the ISO.
+   * @throws IOException If an I/O error occurs or a file extends past the end of the ISO.
+   */
+  public static ISOFileSystem open(Path isoPath) throws IOException {
+    ISOHeader isoHeader = new ISOParser(isoPath).getISOHeader();
+    FileChannel channel = FileChannel.open(isoPath);
+    try {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException(String.format("%s is too large to map: %d bytes", isoPath, size));
+      }
+      ByteBuffer image = channel.map(MapMode.READ_ONLY, 0, size);
+      Map<String, ISOFile> files = new LinkedHashMap<>();
+      addFile(files, "", isoHeader.getBootBin(), size);
+      addFile(files, "", isoHeader.getBi2Bin(), size);
+      addFile(files, "", isoHeader.getApploaderImg(), size);
+      addFile(files, "", isoHeader.getMainDol(), size);
+      addFile(files, "", isoHeader.getFstBin(), size);
+      for (ISOItem item : isoHeader.getFiles()) {
+        if (!item.isDirectory()) {
+          addFile(files, "files/", (ISOFile) item, size);
+        }
+      }
+      return new ISOFileSystem(isoPath, channel, image, isoHeader, files);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return The path to the ISO.
+   */
+  public Path getISOPath() {
+    return isoPath;
+  }
+
+  /**
+   * @return The ISOHeader of the ISO.
+   */
+  public ISOHeader getISOHeader() {
+    return isoHeader;
+  }
+
+  /**
+   * @return The 6-byte game ID at the start of the boot.bin, such as G4NJDA.
+   */
+  public String getGameId() {
+    byte[] gameId = new byte[6];
+    image.get(isoHeader.getBootBin().getPos(), gameId);
+    return new String(gameId, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * @return The relative paths of all files in the ISO, in the order of the fst.bin.
+   */
+  public Set<String> getFilePaths() {
+    return Collections.unmodifiableSet(files.keySet());
+  }
+
+  /**
+   * Returns the ISOFile for a relative path, such as files/fpack/0000.fpk.
+   *
+   * @param path The relative path of the file.
+   * @return The ISOFile, if it exists.
+   */
+  public Optional<ISOFile> getFile(String path) {
+    return Optional.ofNullable(files.get(path));
+  }
+
+  /**
+   * Returns the bytes of the file at a relative path, such as files/fpack/0000.fpk. The returned
+   * ByteBuffer is a read-only slice of the mapped ISO.
+   *
+   * @param path The relative path of the file.
+   * @return The bytes of the file.
+   * @throws NoSuchFileException If the file does not exist in the ISO.
+   */
+  public ByteBuffer getBytes(String path) throws NoSuchFileException {
+    ISOFile file = files.get(path);
+    if (file == null) {
+      throw new NoSuchFileException(path, isoPath.toString(), "No such file in the ISO");
+    }
+    return getBytes(file);
+  }
+
+  /**
+   * Returns the bytes of an ISOFile of this ISO. The returned ByteBuffer is a read-only slice of
+   * the mapped ISO.
+   *
+   * @param file The ISOFile.
+   * @return The bytes of the file.
+   */
+  public ByteBuffer getBytes(ISOFile file) {
+    return image.slice(file.getPos(), file.getLen());
+  }
+
+  /**
+   * Closes the FileChannel of the ISO. The mapped ISO remains valid until it is garbage
+   * collected.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Adds an ISOFile to the map of relative paths to ISOFiles.
+   *
+   * @param files  The map of relative paths to ISOFiles.
+   * @param prefix The prefix of the relative path before the game path.
+   * @param file   The ISOFile to add.
+   * @param size   The size of the ISO.
+   * @throws IOException If the ISOFile extends past the end of the ISO.
+   */
+  private static void addFile(Map<String, ISOFile> files, String prefix, ISOFile file, long size)
+      throws IOException {
+    if (file.getPos() < 0 || file.getLen() < 0 || (long) file.getPos() + file.getLen() > size) {
+      throw new IOException(file.getGamePath() + " extends past the end of the ISO.");
+    }
+    files.put(prefix + file.getGamePath(), file);
+  }
+}
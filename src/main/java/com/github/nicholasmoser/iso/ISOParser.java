@@ -1,8 +1,8 @@
 package com.github.nicholasmoser.iso;
 
-import com.github.nicholasmoser.utils.ByteUtils;
+import com.github.nicholasmoser.utils.BinaryReader;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -34,34 +34,34 @@ public class ISOParser {
       throw new IOException(isoPath + " does not exist.");
     }
     ISOHeader.Builder headerBuilder = new ISOHeader.Builder();
-    try (RandomAccessFile raf = new RandomAccessFile(isoPath.toFile(), "r")) {
-      checkGameCubeMagicNumber(raf);
-      int fstBinOffset = buildSysFiles(raf, headerBuilder);
-      buildFiles(raf, headerBuilder, fstBinOffset);
+    try (BinaryReader reader = BinaryReader.open(isoPath)) {
+      checkGameCubeMagicNumber(reader);
+      ISOFile fstBin = buildSysFiles(reader, headerBuilder);
+      buildFiles(reader, headerBuilder, fstBin);
     }
     return headerBuilder.createISOHeader();
   }
 
   /**
-   * Builds the sys files. The files will be read from the provided RandomAccessFile and built into
-   * the ISOHeader builder. The fst.bin position in the file will be returned.
+   * Builds the sys files. The files will be read from the provided BinaryReader and built into the
+   * ISOHeader builder. The fst.bin file will be returned.
    *
-   * @param raf           The RandomAccessFile for the ISO to read from.
+   * @param reader        The BinaryReader for the ISO to read from.
    * @param headerBuilder The builder for the ISOHeader.
-   * @return The fst.bin position in the file.
+   * @return The fst.bin file.
    * @throws IOException If an I/O error occurs.
    */
-  private int buildSysFiles(RandomAccessFile raf, ISOHeader.Builder headerBuilder)
+  private ISOFile buildSysFiles(BinaryReader reader, ISOHeader.Builder headerBuilder)
       throws IOException {
-    raf.seek(1024);
-    int apploaderLength = ByteUtils.readInt32(raf);
-    raf.skipBytes(28);
-    int mainDolPosition = ByteUtils.readInt32(raf);
-    int fileSystemTablePosition = ByteUtils.readInt32(raf);
-    int fileSystemTableLength = ByteUtils.readInt32(raf);
+    reader.seek(1024);
+    int apploaderLength = reader.readInt32();
+    reader.skip(28);
+    int mainDolPosition = reader.readInt32();
+    int fileSystemTablePosition = reader.readInt32();
+    int fileSystemTableLength = reader.readInt32();
     int mainDolLength = fileSystemTablePosition - mainDolPosition;
-    raf.skipBytes(8);
-    int dataStart = ByteUtils.readInt32(raf);
+    reader.skip(8);
+    int dataStart = reader.readInt32();
 
     ISODirectory sys = new ISODirectory.Builder()
         .setParent("").setName("sys").setGamePath("sys/").build();
@@ -107,24 +107,28 @@ public class ISOParser {
     headerBuilder.setMainDol(mainDol);
     headerBuilder.setFstBin(fstBin);
 
-    return fileSystemTablePosition;
+    return fstBin;
   }
 
   /**
    * Builds  the files and directories under the files directory. The files will be read from the
-   * provided RandomAccessFile and built into the ISOHeader builder. The file more specifically will
-   * be read from the fst.bin in the ISO.
+   * provided BinaryReader and built into the ISOHeader builder. The file more specifically will be
+   * read from the fst.bin in the ISO, which is read in full with a single read.
    *
-   * @param raf           The RandomAccessFile for the ISO to read from.
+   * @param reader        The BinaryReader for the ISO to read from.
    * @param headerBuilder The ISOHeader builder.
-   * @param fstBinOffset  The location of the fst.bin data in the ISO.
+   * @param fstBin        The fst.bin file in the ISO.
    * @throws IOException If an I/O error occurs.
    */
-  private void buildFiles(RandomAccessFile raf, ISOHeader.Builder headerBuilder,
-      int fstBinOffset)
+  private void buildFiles(BinaryReader reader, ISOHeader.Builder headerBuilder, ISOFile fstBin)
       throws IOException {
-    raf.seek(fstBinOffset);
-    List<ISOItem> files = FileSystemTable.read(raf);
+    if (fstBin.getLen() < 0 || (long) fstBin.getPos() + fstBin.getLen() > reader.size()) {
+      throw new IOException("fst.bin extends past the end of the ISO: " + fstBin);
+    }
+    byte[] bytes = new byte[fstBin.getLen()];
+    reader.seek(fstBin.getPos());
+    reader.readFully(bytes);
+    List<ISOItem> files = FileSystemTable.read(ByteBuffer.wrap(bytes));
     headerBuilder.setFiles(files);
   }
 
@@ -132,12 +136,12 @@ public class ISOParser {
    * Checks the GameCube ISO magic number at offset 28. It should be 0xC2339F3D. An IOException will
    * be thrown if this magic number is not present.
    *
-   * @param raf The RandomAccessFile to read from.
-   * @throws IOException If the RandomAccessFile is not a GameCube ISO.
+   * @param reader The BinaryReader to read from.
+   * @throws IOException If the BinaryReader is not a GameCube ISO.
    */
-  public void checkGameCubeMagicNumber(RandomAccessFile raf) throws IOException {
-    raf.seek(28);
-    if (ByteUtils.readInt32(raf) != 0xC2339F3D) {
+  public void checkGameCubeMagicNumber(BinaryReader reader) throws IOException {
+    reader.seek(28);
+    if (reader.readInt32() != 0xC2339F3D) {
       throw new IOException("Not a GameCube ISO.");
     }
   }
@@ -1,9 +1,9 @@
 package com.github.nicholasmoser.mot;
 
+import com.github.nicholasmoser.utils.BinaryReader;
 import com.github.nicholasmoser.utils.ByteUtils;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -115,66 +115,66 @@ public class BoneAnimation {
    * Parse the bone animation from the file at the current offset. The offset of the parent
    * animation is also required to correctly read the data.
    *
-   * @param raf             The file to read from.
+   * @param reader          The reader to read from.
    * @param animationOffset The offset of the parent animation.
    * @return The bone animation.
    * @throws IOException If an I/O error occurs
    */
-  public static BoneAnimation parseFrom(RandomAccessFile raf, int animationOffset)
+  public static BoneAnimation parseFrom(BinaryReader reader, int animationOffset)
       throws IOException {
     // Read the bone animation header
-    int offset = (int) (raf.getFilePointer() - animationOffset);
-    short flags1 = ByteUtils.readInt16(raf);
-    short trackFlag = ByteUtils.readInt16(raf);
-    short boneId = ByteUtils.readInt16(raf);
-    short numOfKeyFrames = ByteUtils.readInt16(raf);
-    float totalTime = ByteUtils.readFloat(raf);
-    skipWordPadding(raf);
-    int timeValuesOffset = ByteUtils.readInt32(raf);
-    int coordinatesOffset = ByteUtils.readInt32(raf);
-    ByteUtils.byteAlign(raf, 16);
+    int offset = (int) (reader.position() - animationOffset);
+    short flags1 = reader.readInt16();
+    short trackFlag = reader.readInt16();
+    short boneId = reader.readInt16();
+    short numOfKeyFrames = reader.readInt16();
+    float totalTime = reader.readFloat();
+    skipWordPadding(reader);
+    int timeValuesOffset = reader.readInt32();
+    int coordinatesOffset = reader.readInt32();
+    reader.align(16);
 
     // Save the spot of the next bone animation header
-    long nextKeyFrameHeaderOffset = raf.getFilePointer();
+    long nextKeyFrameHeaderOffset = reader.position();
 
-    raf.seek(animationOffset + timeValuesOffset);
+    reader.seek(animationOffset + timeValuesOffset);
     List<Float> timeValues = new ArrayList<>();
     for (int i = 0; i < numOfKeyFrames; i++) {
-      timeValues.add(ByteUtils.readFloat(raf));
+      timeValues.add(reader.readFloat());
     }
-    String junk1 = readJunkData(raf);
+    String junk1 = readJunkData(reader);
 
     // Handle coordinates, if they exist
     List<Coordinate> coordinates = new ArrayList<>();
     String junk2 = null;
     if ((flags1 & 0x0200) != 0) {
-      if (raf.getFilePointer() != animationOffset + coordinatesOffset) {
+      if (reader.position() != animationOffset + coordinatesOffset) {
         throw new IOException("Second animation values do not follow first.");
       }
       if ((flags1 & 0x0002) != 0) {
         for (int i = 0; i < numOfKeyFrames; i++) {
-          short x = ByteUtils.readInt16(raf);
-          short y = ByteUtils.readInt16(raf);
-          short z = ByteUtils.readInt16(raf);
-          short w = ByteUtils.readInt16(raf);
+          short x = reader.readInt16();
+          short y = reader.readInt16();
+          short z = reader.readInt16();
+          short w = reader.readInt16();
           coordinates.add(new Coordinate(x, y, z, w));
         }
       } else if ((flags1 & 0x0004) != 0) {
         for (int i = 0; i < numOfKeyFrames; i++) {
-          float x = ByteUtils.readFloat(raf);
-          float y = ByteUtils.readFloat(raf);
-          float z = ByteUtils.readFloat(raf);
-          float w = ByteUtils.readFloat(raf);
+          float x = reader.readFloat();
+          float y = reader.readFloat();
+          float z = reader.readFloat();
+          float w = reader.readFloat();
           coordinates.add(new Coordinate(x, y, z, w));
         }
       } else {
         throw new IOException(String.format("Unexpected flags: 0x%X", flags1));
       }
-      junk2 = readJunkData(raf);
+      junk2 = readJunkData(reader);
     }
 
     // Move the offset back to the next bone animation
-    raf.seek(nextKeyFrameHeaderOffset);
+    reader.seek(nextKeyFrameHeaderOffset);
 
     return new Builder()
         .offset(offset)
@@ -268,18 +268,15 @@ public class BoneAnimation {
   /**
    * Reads junk data until 16 byte alignment in the file.
    *
-   * @param raf The file to read from.
+   * @param reader The reader to read from.
    * @return The junk, if any. May be null.
    * @throws IOException If an I/O error occurs
    */
-  private static String readJunkData(RandomAccessFile raf) throws IOException {
-    long offset = raf.getFilePointer();
+  private static String readJunkData(BinaryReader reader) throws IOException {
+    long offset = reader.position();
     if (offset % 16 != 0) {
-      int size = (int) (16 - (offset % 16));
-      byte[] bytes = new byte[size];
-      if (raf.read(bytes) != size) {
-        throw new IOException(String.format("Failed to read %d bytes at offset %d", size, offset));
-      }
+      byte[] bytes = new byte[(int) (16 - (offset % 16))];
+      reader.readFully(bytes);
       return new String(bytes, JUNK_ENCODING);
     }
     return null;
@@ -288,13 +285,13 @@ public class BoneAnimation {
   /**
    * Skips a word of padding. This will throw an {@link IOException} if it is not 0.
    *
-   * @param raf The file to read from.
+   * @param reader The reader to read from.
    * @throws IOException If an I/O error occurs or the padding is not 0
    */
-  private static void skipWordPadding(RandomAccessFile raf) throws IOException {
-    int padding2 = ByteUtils.readInt32(raf);
+  private static void skipWordPadding(BinaryReader reader) throws IOException {
+    int padding2 = reader.readInt32();
     if (padding2 != 0) {
-      long offset = raf.getFilePointer();
+      long offset = reader.position();
       throw new IOException("Padding must be 0 at offset " + (offset - 4));
     }
   }
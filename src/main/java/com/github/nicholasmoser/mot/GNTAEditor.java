@@ -3,9 +3,9 @@ package com.github.nicholasmoser.mot;
 import com.github.nicholasmoser.Message;
 import com.github.nicholasmoser.gnt4.seq.ext.SeqEditor;
 import com.github.nicholasmoser.tools.MOTRepackerTool;
+import com.github.nicholasmoser.utils.BinaryReader;
 import java.awt.Desktop;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.net.URI;
 import java.nio.file.Path;
 import java.util.List;
@@ -341,9 +341,9 @@ public class GNTAEditor {
   }
 
   private GNTAnimation parseGnta(Path gntaPath) throws IOException {
-    try (RandomAccessFile raf = new RandomAccessFile(gntaPath.toFile(), "r")) {
+    try (BinaryReader reader = BinaryReader.open(gntaPath)) {
       String id = gntaPath.getFileName().toString().replace(".gnta", "");
-      return GNTAnimation.parseFrom(raf, Integer.decode(id));
+      return GNTAnimation.parseFrom(reader, Integer.decode(id));
     } catch (NumberFormatException e) {
       String msg = "GNTA filename invalid: " + gntaPath.getFileName();
       throw new IllegalArgumentException(
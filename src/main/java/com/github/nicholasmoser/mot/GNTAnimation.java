@@ -1,10 +1,10 @@
 package com.github.nicholasmoser.mot;
 
+import com.github.nicholasmoser.utils.BinaryReader;
 import com.github.nicholasmoser.utils.ByteUtils;
 import com.google.common.primitives.Bytes;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -54,27 +54,27 @@ public class GNTAnimation {
   /**
    * Parse the animation from the file at the current offset with the given animation id.
    *
-   * @param raf The file to read from.
-   * @param id The animation id.
+   * @param reader The reader to read from.
+   * @param id     The animation id.
    * @return The animation object.
    * @throws IOException If an I/O error occurs
    */
-  public static GNTAnimation parseFrom(RandomAccessFile raf, int id) throws IOException {
-    int animationOffset = (int) raf.getFilePointer();
+  public static GNTAnimation parseFrom(BinaryReader reader, int id) throws IOException {
+    int animationOffset = (int) reader.position();
 
     // Parse the animation header
-    raf.skipBytes(2);
-    int numOfBoneAnimations = ByteUtils.readInt16(raf);
-    int headerSize = ByteUtils.readInt32(raf);
+    reader.skip(2);
+    int numOfBoneAnimations = reader.readInt16();
+    int headerSize = reader.readInt32();
     if (headerSize != 0x10) {
       throw new IllegalStateException("Header size not 16 bytes, is actually: " + headerSize);
     }
-    float playSpeed = ByteUtils.readFloat(raf);
-    float endTime = ByteUtils.readFloat(raf);
+    float playSpeed = reader.readFloat();
+    float endTime = reader.readFloat();
 
     List<BoneAnimation> boneAnimations = new ArrayList<>();
     for (int i = 0; i < numOfBoneAnimations; i++) {
-      boneAnimations.add(BoneAnimation.parseFrom(raf, animationOffset));
+      boneAnimations.add(BoneAnimation.parseFrom(reader, animationOffset));
     }
     return new Builder()
         .id(id)
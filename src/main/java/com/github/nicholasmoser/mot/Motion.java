@@ -1,5 +1,6 @@
 package com.github.nicholasmoser.mot;
 
+import com.github.nicholasmoser.utils.BinaryReader;
 import com.github.nicholasmoser.utils.ByteUtils;
 import com.google.common.collect.Maps;
 import java.io.IOException;
@@ -68,12 +69,12 @@ public class Motion {
     if (!Files.isRegularFile(inputFile)) {
       throw new IllegalArgumentException("inputFile not a file: " + inputFile);
     }
-    try (RandomAccessFile raf = new RandomAccessFile(inputFile.toFile(), "r")) {
+    try (BinaryReader reader = BinaryReader.open(inputFile)) {
       // Parse and validate the header
-      int padding = ByteUtils.readInt32(raf);
-      int numOfAnimationIds = ByteUtils.readInt32(raf); // may not reflect actual size
-      int headerSize = ByteUtils.readInt32(raf);
-      int fileSize = ByteUtils.readInt32(raf);
+      int padding = reader.readInt32();
+      int numOfAnimationIds = reader.readInt32(); // may not reflect actual size
+      int headerSize = reader.readInt32();
+      int fileSize = reader.readInt32();
       if (padding != 0x00) {
         throw new IllegalStateException(String.format("Padding not all zeros: 0x%x", padding));
       } else if (headerSize != 0x10) {
@@ -86,7 +87,7 @@ public class Motion {
       // Parse the animation offsets and ids
       Map<Integer, Integer> offsetToId = new HashMap<>();
       for (int i = 0; i < numOfAnimationIds; i++) {
-        int offset = ByteUtils.readInt32(raf);
+        int offset = reader.readInt32();
         if (offset != 0) {
           if (offsetToId.containsKey(offset)) {
             throw new IllegalStateException("Duplicate offset: " + offset);
@@ -99,8 +100,8 @@ public class Motion {
       for (Entry<Integer, Integer> entry : offsetToId.entrySet()) {
         int offset = entry.getKey();
         int id = entry.getValue();
-        raf.seek(offset);
-        animations.add(GNTAnimation.parseFrom(raf, id));
+        reader.seek(offset);
+        animations.add(GNTAnimation.parseFrom(reader, id));
       }
       return new Motion(numOfAnimationIds, animations);
     }
@@ -133,8 +134,8 @@ public class Motion {
       if (id > totalAnimationIds) {
         totalAnimationIds = id;
       }
-      try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
-        GNTAnimation animation = GNTAnimation.parseFrom(raf, id);
+      try (BinaryReader reader = BinaryReader.open(file)) {
+        GNTAnimation animation = GNTAnimation.parseFrom(reader, id);
         animations.add(animation);
       }
     }
@@ -2,20 +2,20 @@ package com.github.nicholasmoser.tools;
 
 import com.github.nicholasmoser.Choosers;
 import com.github.nicholasmoser.GNTool;
+import com.github.nicholasmoser.Game;
 import com.github.nicholasmoser.Message;
-import com.github.nicholasmoser.gamecube.GameCubeISO;
+import com.github.nicholasmoser.fpk.FPKOptions;
+import com.github.nicholasmoser.gnt4.GNT4FileNames;
+import com.github.nicholasmoser.iso.ISODiff;
+import com.github.nicholasmoser.iso.ISODiff.Difference;
+import com.github.nicholasmoser.iso.ISOFileSystem;
 import com.github.nicholasmoser.utils.GUIUtils;
-import com.google.common.io.MoreFiles;
-import com.google.common.io.RecursiveDeleteOption;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -43,8 +43,7 @@ public class ISOCompareTool {
   }
 
   /**
-   * Extract the two ISOs to the temp directory asynchronously. Then compare them file by file.
-   * Includes a loading screen.
+   * Open the two ISOs asynchronously. Then compare them file by file. Includes a loading screen.
    *
    * @param iso1 The first ISO to compare.
    * @param iso2 The second ISO to compare.
@@ -54,8 +53,6 @@ public class ISOCompareTool {
     Task<String> task = new Task<>() {
       @Override
       public String call() throws Exception {
-        Path temp1 = null;
-        Path temp2 = null;
         String name1 = iso1.getFileName().toString();
         String name2 = iso2.getFileName().toString();
         if (name1.equals(name2)) {
@@ -63,30 +60,17 @@ public class ISOCompareTool {
           name1 = iso1.toString();
           name2 = iso2.toString();
         }
-        try {
-          updateMessage("Extracting the first ISO...");
-          temp1 = Files.createTempDirectory("ISO1");
-          GameCubeISO.exportFiles(iso1, temp1);
-          LOGGER.info("Extracted the first ISO to " + temp1);
-          updateMessage("Extracting the second ISO...");
-          temp2 = Files.createTempDirectory("ISO2");
-          GameCubeISO.exportFiles(iso2, temp2);
-          LOGGER.info("Extracted the second ISO to " + temp2);
+        updateMessage("Opening the ISOs...");
+        try (ISOFileSystem fileSystem1 = ISOFileSystem.open(iso1);
+            ISOFileSystem fileSystem2 = ISOFileSystem.open(iso2)) {
           updateMessage("Comparing the ISOs...");
-          String comparisonMessage = getDifference(temp1, temp2, name1, name2);
+          String comparisonMessage = getDifference(fileSystem1, fileSystem2, name1, name2);
           updateMessage("Complete");
           updateProgress(1, 1);
           return comparisonMessage;
         } catch (Exception e) {
           LOGGER.log(Level.SEVERE, "Error Comparing ISOs", e);
           throw e;
-        } finally {
-          if (temp1 != null && Files.exists(temp1)) {
-            MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-          }
-          if (temp2 != null && Files.exists(temp2)) {
-            MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-          }
         }
       }
     };
@@ -127,98 +111,89 @@ public class ISOCompareTool {
   }
 
   /**
-   * Gets the difference between two directories as a String. The String will be newline separated
-   * and categorized by "Files only in (name1)", "Files only in (name2)", and "Changed Files". The
-   * name1 and name2 in the categories is provided by the name1 and name2 parameters. It uses these
-   * parameters instead of the directory name since the directory may be using the temp directory
-   * which has a unique name (one that may not be desirable for display).
+   * Gets the difference between two ISOs as a String. The String will be newline separated and
+   * categorized by "Files only in (name1)", "Files only in (name2)", and "Changed Files". The files
+   * are compared directly from the memory-mapped ISOs, so the ISOs do not need to be extracted.
+   * When both ISOs are GNT4, the changed children of each changed FPK file are listed under it,
+   * indented by two spaces.
    *
-   * @param dir1  The first directory to compare.
-   * @param dir2  The second directory to compare.
-   * @param name1 The name of the first directory.
-   * @param name2 The name of the second directory.
+   * @param iso1  The first ISO to compare.
+   * @param iso2  The second ISO to compare.
+   * @param name1 The name of the first ISO.
+   * @param name2 The name of the second ISO.
    * @return The difference message.
    * @throws IOException If an I/O error occurs
    */
-  public static String getDifference(Path dir1, Path dir2, String name1, String name2)
-      throws IOException {
-    String message = findMissingFiles(dir1, dir2, name1);
-    message += findMissingFiles(dir2, dir1, name2);
-    message += findChangedFiles(dir1, dir2);
-    return message;
+  public static String getDifference(ISOFileSystem iso1, ISOFileSystem iso2, String name1,
+      String name2) throws IOException {
+    Difference difference = new ISODiff(iso1, iso2, getFPKOptions(iso1, iso2)).compare();
+    StringBuilder message = new StringBuilder();
+    appendFiles(message, "Files only in " + name1, difference.onlyInFirst());
+    appendFiles(message, "Files only in " + name2, difference.onlyInSecond());
+    appendFiles(message, "Changed Files", List.of());
+    for (String path : difference.changed()) {
+      message.append(path);
+      message.append('\n');
+      Difference children = difference.children().get(path);
+      if (children != null) {
+        appendChildren(message, children.changed(), "");
+        appendChildren(message, children.onlyInFirst(), " (only in " + name1 + ")");
+        appendChildren(message, children.onlyInSecond(), " (only in " + name2 + ")");
+      }
+    }
+    return message.toString();
   }
 
   /**
-   * Return the files in dir1 that are not in dir2. Each file will be newline separated with a
-   * "Files only in (baseName)" header. The baseName in the header is determined by the baseName
-   * parameter passed into this method. It uses this parameter instead of the directory name since
-   * the directory may be using the temp directory, which has a unique name (one that may not be
-   * desirable for display).
+   * Returns the FPK options used to compare the children of changed FPK files. The FPK files are
+   * only compared child by child when both ISOs are GNT4, since the FPK options and file names of
+   * other games are not known.
    *
-   * @param baseDir       The directory to use the files from.
-   * @param comparisonDir The directory to see if the files exist in.
-   * @param baseName      The name of the baseDir base directory.
-   * @return The find missing files message.
-   * @throws IOException If an I/O error occurs
+   * @param iso1 The first ISO to compare.
+   * @param iso2 The second ISO to compare.
+   * @return The FPK options if both ISOs are GNT4, otherwise empty.
    */
-  private static String findMissingFiles(Path baseDir, Path comparisonDir, String baseName)
-      throws IOException {
-    StringBuilder message = new StringBuilder("\nFiles only in ");
-    message.append(baseName);
-    int separatorLen = 14 + baseName.length();
+  private static Optional<FPKOptions> getFPKOptions(ISOFileSystem iso1, ISOFileSystem iso2) {
+    String gameId = Game.GNT4.getGameId();
+    if (gameId.equals(iso1.getGameId()) && gameId.equals(iso2.getGameId())) {
+      return Optional.of(new FPKOptions(false, true, new GNT4FileNames()));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Appends a header and a newline separated list of files to a message.
+   *
+   * @param message The message to append to.
+   * @param header  The header of the files.
+   * @param files   The files.
+   */
+  private static void appendFiles(StringBuilder message, String header, List<String> files) {
     message.append('\n');
-    message.append("-".repeat(separatorLen));
+    message.append(header);
     message.append('\n');
-    Files.walkFileTree(baseDir, new SimpleFileVisitor<>() {
-      @Override
-      public FileVisitResult visitFile(Path file,
-          BasicFileAttributes attrs)
-          throws IOException {
-        FileVisitResult result = super.visitFile(file, attrs);
-        Path relativize = baseDir.relativize(file);
-        Path fileInOther = comparisonDir.resolve(relativize);
-        if (!Files.isRegularFile(fileInOther)) {
-          message.append(relativize);
-          message.append('\n');
-        }
-        return result;
-      }
-    });
-    return message.toString();
+    message.append("-".repeat(header.length()));
+    message.append('\n');
+    for (String file : files) {
+      message.append(file);
+      message.append('\n');
+    }
   }
 
   /**
-   * Return the files that have been modified between dir1 and dir2. It will not include any files
-   * that only exist in one of the two directories. If even a single byte is different it will be
-   * considered changed.
+   * Appends the children of an FPK file to a message, each indented by two spaces.
    *
-   * @param dir1 The first directory to compare.
-   * @param dir2 The second directory to compare.
-   * @return The find changed files message.
-   * @throws IOException If an I/O error occurs
+   * @param message  The message to append to.
+   * @param children The children of the FPK file.
+   * @param suffix   The suffix to append to each child.
    */
-  private static String findChangedFiles(Path dir1, Path dir2) throws IOException {
-    StringBuilder message = new StringBuilder("\nChanged Files\n");
-    message.append("-------------\n");
-    Files.walkFileTree(dir1, new SimpleFileVisitor<>() {
-      @Override
-      public FileVisitResult visitFile(Path file,
-          BasicFileAttributes attrs)
-          throws IOException {
-        FileVisitResult result = super.visitFile(file, attrs);
-        Path relativize = dir1.relativize(file);
-        Path fileInOther = dir2.resolve(relativize);
-        if (Files.isRegularFile(fileInOther)) {
-          byte[] theseBytes = Files.readAllBytes(file);
-          byte[] otherBytes = Files.readAllBytes(fileInOther);
-          if (!Arrays.equals(otherBytes, theseBytes)) {
-            message.append(relativize);
-            message.append('\n');
-          }
-        }
-        return result;
-      }
-    });
-    return message.toString();
+  private static void appendChildren(StringBuilder message, List<String> children,
+      String suffix) {
+    for (String child : children) {
+      message.append("  ");
+      message.append(child);
+      message.append(suffix);
+      message.append('\n');
+    }
   }
 }
@@ -4,14 +4,19 @@ import com.github.nicholasmoser.Choosers;
 import com.github.nicholasmoser.GNTool;
 import com.github.nicholasmoser.Message;
 import com.github.nicholasmoser.gamecube.GameCubeISO;
+import com.github.nicholasmoser.iso.ISOFileSystem;
 import com.github.nicholasmoser.utils.GUIUtils;
 import com.github.nicholasmoser.zip.PatchZip;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Enumeration;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import javafx.concurrent.Task;
 import javafx.stage.Stage;
 
@@ -55,6 +60,8 @@ public class ISOPatcher {
       @Override
       public Void call() throws Exception {
         try {
+          updateMessage("Checking patch...");
+          checkPatch(input, patchZip);
           updateMessage("Extracting ISO...");
           Path exportDir = GameCubeISO.exportFiles(input);
           try {
@@ -89,4 +96,25 @@ public class ISOPatcher {
     new Thread(task).start();
   }
 
+  /**
+   * Checks that each file entry of a patch zip exists in an ISO. The ISO is read directly from the
+   * memory-mapped ISO so that an invalid patch fails before the ISO is extracted.
+   *
+   * @param iso      The ISO to patch.
+   * @param patchZip The patch zip.
+   * @throws IOException If an I/O error occurs or a zip entry does not exist in the ISO.
+   */
+  private static void checkPatch(Path iso, Path patchZip) throws IOException {
+    try (ISOFileSystem fileSystem = ISOFileSystem.open(iso);
+        ZipFile zipFile = new ZipFile(patchZip.toFile())) {
+      Enumeration<? extends ZipEntry> entries = zipFile.entries();
+      while (entries.hasMoreElements()) {
+        ZipEntry zipEntry = entries.nextElement();
+        if (!zipEntry.isDirectory() && fileSystem.getFile(zipEntry.getName()).isEmpty()) {
+          throw new IOException(String.format(
+              "Zip entry %s cannot be patched against %s", zipEntry.getName(), iso));
+        }
+      }
+    }
+  }
 }
@@ -3,13 +3,17 @@ package com.github.nicholasmoser.tools;
 import com.github.nicholasmoser.Choosers;
 import com.github.nicholasmoser.GNTool;
 import com.github.nicholasmoser.Message;
+import com.github.nicholasmoser.gnt4.seq.SeqBatchDisassembler;
+import com.github.nicholasmoser.gnt4.seq.SeqBatchDisassembler.Result;
 import com.github.nicholasmoser.gnt4.seq.SeqKing;
 import com.github.nicholasmoser.gnt4.seq.Seqs;
 import com.github.nicholasmoser.utils.GUIUtils;
 import java.awt.Desktop;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.concurrent.Task;
@@ -133,6 +137,64 @@ public class SeqDisassemblerTool {
     runAsync(seqPath, fileName.get(), outputPath.get(), false);
   }
 
+  /**
+   * Disassembles every seq file in the workspace to both txt and html in a selected output
+   * directory, along with a summary of the invalid bytes in each seq file.
+   *
+   * @param initialDirectory      The initial directory to start at when selecting the output
+   *                              directory.
+   * @param uncompressedDirectory The uncompressed directory of the workspace.
+   */
+  public static void disassembleAll(File initialDirectory, Path uncompressedDirectory) {
+    Optional<Path> outputDirectory = Choosers.getOutputDirectory(initialDirectory);
+    if (outputDirectory.isEmpty()) {
+      return;
+    }
+    currentDirectory = outputDirectory.get().toFile();
+    Task<List<Result>> task = new Task<>() {
+      @Override
+      public List<Result> call() {
+        try {
+          List<String> fileNames = SeqBatchDisassembler.getFileNames(uncompressedDirectory);
+          int total = fileNames.size();
+          AtomicInteger completed = new AtomicInteger();
+          updateMessage("Disassembling seq files");
+          updateProgress(0, total);
+          int threads = Runtime.getRuntime().availableProcessors();
+          List<Result> results = SeqBatchDisassembler.disassembleAll(uncompressedDirectory,
+              fileNames, outputDirectory.get(), true, true, threads, result -> {
+                updateMessage(String.format("Disassembled %s", result.fileName()));
+                updateProgress(completed.incrementAndGet(), total);
+              });
+          updateMessage("Complete");
+          updateProgress(1, 1);
+          return results;
+        } catch (Exception e) {
+          updateMessage("Failed");
+          updateProgress(1, 1);
+          LOGGER.log(Level.SEVERE, "Error", e);
+          throw new RuntimeException(e);
+        }
+      }
+    };
+    Stage loadingWindow = GUIUtils.createLoadingWindow("Disassembling Seqs", task);
+    task.setOnSucceeded(event -> {
+      loadingWindow.close();
+      List<Result> results = task.getValue();
+      long withInvalidBytes = results.stream().filter(result -> result.invalidBytes() > 0).count();
+      long failed = results.stream().filter(Result::failed).count();
+      String message = String.format(
+          "Disassembled %d seq files, %d with invalid bytes and %d failed. See %s for details.",
+          results.size(), withInvalidBytes, failed, SeqBatchDisassembler.SUMMARY);
+      Message.info("Seqs Disassembled", message);
+    });
+    task.setOnFailed(event -> {
+      Message.error("Failed to Disassemble Seqs", "See log for more information.");
+      loadingWindow.close();
+    });
+    new Thread(task).start();
+  }
+
   /**
    * Asynchronously runs the seq disassembler. This will include a loading window that shows the
    * status of the operation.
@@ -0,0 +1,290 @@
+package com.github.nicholasmoser.utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads big-endian values from a file or from bytes in memory. The position can be moved freely
+ * with {@link #seek(long)}, and reading a value does not allocate any objects.
+ * <p>
+ * Files are read through a FileChannel into a fixed-size buffer that is refilled from the current
+ * position when a value is not already in it, so seeking within the buffer does not read the file
+ * again. The file is not memory-mapped since a mapped file is locked on Windows until the mapping
+ * is garbage collected.
+ */
+public class BinaryReader implements Closeable {
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final FileChannel channel;
+
+  private final ByteBuffer buffer;
+
+  private final long size;
+
+  // The position of the start of the buffer
+  private long bufferStart;
+
+  private byte[] stringBytes;
+
+  /**
+   * Creates a new BinaryReader. Use {@link #open(Path)} or {@link #of(byte[])} to create one.
+   *
+   * @param channel The file channel to read from, or null if the bytes are all in the buffer.
+   * @param buffer  The big-endian buffer.
+   * @param size    The size of the file or bytes.
+   */
+  private BinaryReader(FileChannel channel, ByteBuffer buffer, long size) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.size = size;
+    this.stringBytes = new byte[32];
+  }
+
+  /**
+   * Opens a file to read from. The reader must be closed when done.
+   *
+   * @param path The path to the file.
+   * @return The BinaryReader at position 0.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static BinaryReader open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+      return new BinaryReader(channel, buffer, channel.size());
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Creates a reader of bytes in memory. The bytes are not copied.
+   *
+   * @param bytes The bytes to read from.
+   * @return The BinaryReader at position 0.
+   */
+  public static BinaryReader of(byte[] bytes) {
+    return of(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Creates a reader of the remaining bytes of a buffer. The bytes are not copied, and position 0
+   * of the reader is the current position of the buffer.
+   *
+   * @param bytes The buffer to read from.
+   * @return The BinaryReader at position 0.
+   */
+  public static BinaryReader of(ByteBuffer bytes) {
+    ByteBuffer buffer = bytes.slice().order(ByteOrder.BIG_ENDIAN);
+    return new BinaryReader(null, buffer, buffer.limit());
+  }
+
+  /**
+   * @return The current position.
+   */
+  public long position() {
+    return bufferStart + buffer.position();
+  }
+
+  /**
+   * @return The size of the file or bytes.
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Moves to a position. The position may be the size, but not past it.
+   *
+   * @param position The position to move to.
+   * @throws IOException If the position is negative or past the end.
+   */
+  public void seek(long position) throws IOException {
+    if (position < 0 || position > size) {
+      throw new EOFException(String.format("Position %d is outside of size %d", position, size));
+    }
+    long offset = position - bufferStart;
+    if (offset >= 0 && offset <= buffer.limit()) {
+      buffer.position((int) offset);
+    } else {
+      bufferStart = position;
+      buffer.clear().limit(0);
+    }
+  }
+
+  /**
+   * Moves forward a number of bytes.
+   *
+   * @param bytes The number of bytes to skip.
+   * @throws IOException If this moves past the end.
+   */
+  public void skip(int bytes) throws IOException {
+    seek(position() + bytes);
+  }
+
+  /**
+   * Moves forward to the next position that is a multiple of the alignment, if not already at one.
+   *
+   * @param alignment The alignment.
+   * @throws IOException If this moves past the end.
+   */
+  public void align(int alignment) throws IOException {
+    long position = position();
+    if (position % alignment != 0) {
+      seek(position + (alignment - (position % alignment)));
+    }
+  }
+
+  /**
+   * @return The next byte.
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public byte readByte() throws IOException {
+    require(1);
+    return buffer.get();
+  }
+
+  /**
+   * @return The next big-endian int16.
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public short readInt16() throws IOException {
+    require(2);
+    return buffer.getShort();
+  }
+
+  /**
+   * @return The next big-endian uint16 (as an int).
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public int readUint16() throws IOException {
+    return readInt16() & 0xFFFF;
+  }
+
+  /**
+   * @return The next big-endian int32.
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public int readInt32() throws IOException {
+    require(4);
+    return buffer.getInt();
+  }
+
+  /**
+   * @return The next big-endian uint32 (as a long).
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public long readUint32() throws IOException {
+    return readInt32() & 0xFFFFFFFFL;
+  }
+
+  /**
+   * @return The next big-endian float.
+   * @throws IOException If the end is reached or an I/O error occurs.
+   */
+  public float readFloat() throws IOException {
+    require(4);
+    return buffer.getFloat();
+  }
+
+  /**
+   * Reads bytes until the array is full. Large reads from a file go directly into the array
+   * instead of through the buffer.
+   *
+   * @param bytes The array to read into.
+   * @throws IOException If the end is reached first or an I/O error occurs.
+   */
+  public void readFully(byte[] bytes) throws IOException {
+    long position = position();
+    if (position + bytes.length > size) {
+      throw new EOFException(
+          String.format("Failed to read %d bytes at offset %d", bytes.length, position));
+    }
+    int copied = Math.min(buffer.remaining(), bytes.length);
+    buffer.get(bytes, 0, copied);
+    if (copied == bytes.length) {
+      return;
+    }
+    if (bytes.length - copied < buffer.capacity()) {
+      require(bytes.length - copied);
+      buffer.get(bytes, copied, bytes.length - copied);
+      return;
+    }
+    long start = position + copied;
+    ByteBuffer target = ByteBuffer.wrap(bytes, copied, bytes.length - copied);
+    while (target.hasRemaining()) {
+      if (channel.read(target, start + target.position() - copied) < 0) {
+        throw new EOFException(
+            String.format("Failed to read %d bytes at offset %d", bytes.length, position));
+      }
+    }
+    bufferStart = position + bytes.length;
+    buffer.clear().limit(0);
+  }
+
+  /**
+   * Reads a null-terminated ASCII String. The null terminator is read but not returned.
+   *
+   * @return The String.
+   * @throws IOException If the end is reached first or an I/O error occurs.
+   */
+  public String readString() throws IOException {
+    int length = 0;
+    for (byte current = readByte(); current != 0; current = readByte()) {
+      if (length == stringBytes.length) {
+        stringBytes = Arrays.copyOf(stringBytes, length * 2);
+      }
+      stringBytes[length++] = current;
+    }
+    return new String(stringBytes, 0, length, StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Closes the file, if reading from one.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+
+  /**
+   * Makes sure that a number of bytes from the current position are in the buffer, refilling it
+   * from the file starting at the current position if they are not.
+   *
+   * @param bytes The number of bytes, no more than the size of the buffer.
+   * @throws IOException If the end is reached first or an I/O error occurs.
+   */
+  private void require(int bytes) throws IOException {
+    if (buffer.remaining() >= bytes) {
+      return;
+    }
+    long position = position();
+    if (channel == null || position + bytes > size) {
+      throw new EOFException(String.format("Failed to read %d bytes at offset %d", bytes, position));
+    }
+    bufferStart = position;
+    buffer.clear();
+    while (buffer.position() < bytes) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        buffer.flip();
+        throw new EOFException(
+            String.format("Failed to read %d bytes at offset %d", bytes, position));
+      }
+    }
+    buffer.flip();
+  }
+}
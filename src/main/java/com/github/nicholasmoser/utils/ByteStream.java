@@ -3,20 +3,24 @@ package com.github.nicholasmoser.utils;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
  * A ByteArrayInputStream enhanced with a few extra features. These include:
  * <ul>
  *     <li>The ability to return the current position via {@link #offset()}</li>
  *     <li>The ability to read a word via {@link #readWord()}</li>
- *     <li>The ability to mark, read a word, and reset via {@link #peekWord()}</li>
+ *     <li>The ability to read a word without moving the position via {@link #peekWord()}</li>
  * </ul>
  * <p>
- * Note: The words read will be read as big-endian signed ints.
+ * Note: The words read will be read as big-endian signed ints. Words and shorts are read directly
+ * from a big-endian {@link ByteBuffer} view of the byte array, so reading or peeking them does not
+ * allocate any objects or change the mark.
  */
 public class ByteStream extends ByteArrayInputStream {
 
+  private final ByteBuffer buffer;
+
   /**
    * Creates a <code>ByteStream</code> so that it  uses <code>buf</code> as its buffer array. The
    * buffer array is not copied. The initial value of <code>pos</code> is <code>0</code> and the
@@ -27,6 +31,7 @@ public class ByteStream extends ByteArrayInputStream {
    */
   public ByteStream(byte[] buf) {
     super(buf);
+    this.buffer = ByteBuffer.wrap(buf);
   }
 
   /**
@@ -37,55 +42,44 @@ public class ByteStream extends ByteArrayInputStream {
   }
 
   /**
-   * Read the next big-endian 4-byte word and return it. Then move the position of the stream back
-   * prior to having read the word. Do not call this method if you have already called mark.
+   * Read the next big-endian 4-byte word and return it without moving the position of the stream.
+   * If there are fewer than 4 bytes left, the remaining bytes are consumed like a failed read.
    *
    * @return The big-endian 4-byte word.
    * @throws IOException If an I/O error occurs.
    */
   public int peekWord() throws IOException {
-    mark(4);
-    byte[] bytes = new byte[4];
-    if (read(bytes) != 4) {
+    if (count - pos < 4) {
+      pos = count;
       throw new IOException("Failed to peek word at offset " + pos);
     }
-    reset();
-    return ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN).getInt();
+    return buffer.getInt(pos);
   }
 
   /**
-   * Read the next 4 bytes and return them. Then move the position of the stream back
-   * prior to having read the bytes. Do not call this method if you have already called mark.
+   * Read the next 4 bytes and return them without moving the position of the stream.
    *
    * @return The 4 bytes.
    * @throws IOException If an I/O error occurs.
    */
   public byte[] peekWordBytes() throws IOException {
-    mark(4);
-    byte[] bytes = new byte[4];
-    if (read(bytes) != 4) {
-      throw new IOException("Failed to peek word at offset " + pos);
-    }
-    reset();
-    return bytes;
+    return peekBytes(4);
   }
 
   /**
-   * Read the next requested number of bytes and return them. Then move the position of the stream
-   * back prior to having read the bytes. Do not call this method if you have already called mark.
+   * Read the next requested number of bytes and return them without moving the position of the
+   * stream. If there are fewer bytes left, the remaining bytes are consumed like a failed read.
    *
    * @param num The number of bytes to peek.
    * @return The bytes.
    * @throws IOException If an I/O error occurs.
    */
   public byte[] peekBytes(int num) throws IOException {
-    mark(num);
-    byte[] bytes = new byte[num];
-    if (read(bytes) != num) {
+    if (count - pos < num) {
+      pos = count;
       throw new IOException("Failed to peek bytes at offset " + pos);
     }
-    reset();
-    return bytes;
+    return Arrays.copyOfRange(buf, pos, pos + num);
   }
 
   /**
@@ -95,11 +89,13 @@ public class ByteStream extends ByteArrayInputStream {
    * @throws IOException If an I/O error occurs.
    */
   public short readShort() throws IOException {
-    byte[] bytes = new byte[2];
-    if (read(bytes) != 2) {
+    if (count - pos < 2) {
+      pos = count;
       throw new IOException("Failed to read word at offset " + pos);
     }
-    return ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN).getShort();
+    short value = buffer.getShort(pos);
+    pos += 2;
+    return value;
   }
 
   /**
@@ -109,11 +105,30 @@ public class ByteStream extends ByteArrayInputStream {
    * @throws IOException If an I/O error occurs.
    */
   public int readWord() throws IOException {
-    byte[] bytes = new byte[4];
-    if (read(bytes) != 4) {
+    if (count - pos < 4) {
+      pos = count;
       throw new IOException("Failed to read word at offset " + pos);
     }
-    return ByteBuffer.wrap(bytes).order(ByteOrder.BIG_ENDIAN).getInt();
+    int value = buffer.getInt(pos);
+    pos += 4;
+    return value;
+  }
+
+  /**
+   * Returns a copy of a range of the bytes, regardless of the position of the stream. This is used
+   * to capture the bytes of an opcode once it has been read, by copying from the offset of the
+   * opcode to the current offset.
+   *
+   * @param from The offset of the first byte, inclusive.
+   * @param to   The offset of the last byte, exclusive.
+   * @return The bytes.
+   */
+  public byte[] getBytes(int from, int to) {
+    if (from < 0 || to > count || from > to) {
+      throw new IndexOutOfBoundsException(
+          String.format("Range [%d, %d) out of bounds for count %d", from, to, count));
+    }
+    return Arrays.copyOfRange(buf, from, to);
   }
 
   /**
@@ -1,16 +1,24 @@
 package com.github.nicholasmoser.utils;
 
-import com.google.common.io.Files;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
-import com.google.common.hash.HashCode;
-import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Checksum;
 
 /**
  * Common functions for CRC32 hashing.
  */
 public class CRC32 {
+
+  // The size of the buffer used to read each chunk of a file
+  private static final int BUFFER_SIZE = 1024 * 1024;
+
+  // Direct buffers let the checksum read the file contents without copying them to the heap
+  private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(
+      () -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
   /**
    * Returns the CRC32 hash for a file from the given Path.
    * 
@@ -19,9 +27,9 @@ public class CRC32 {
    * @throws IOException If there is an I/O exception when reading the file.
    */
   public static int getHash(Path filePath) throws IOException {
-    HashFunction crc32 = Hashing.crc32();
-    HashCode hashValue = Files.asByteSource(filePath.toFile()).hash(crc32);
-    return hashValue.asInt();
+    java.util.zip.CRC32 crc32 = new java.util.zip.CRC32();
+    update(crc32, filePath);
+    return (int) crc32.getValue();
   }
 
   /**
@@ -31,8 +39,29 @@ public class CRC32 {
    * @return The CRC32 value as an integer.
    */
   public static int getHash(byte[] bytes) {
-    HashFunction crc32 = Hashing.crc32();
-    HashCode hashValue = crc32.hashBytes(bytes);
-    return hashValue.asInt();
+    java.util.zip.CRC32 crc32 = new java.util.zip.CRC32();
+    crc32.update(bytes);
+    return (int) crc32.getValue();
+  }
+
+  /**
+   * Updates a checksum with the contents of a file. The file is read in chunks into a direct
+   * buffer rather than memory-mapped, since a mapped file cannot be modified on Windows until the
+   * mapping is garbage collected.
+   *
+   * @param checksum The checksum to update.
+   * @param filePath The Path to the file.
+   * @throws IOException If there is an I/O exception when reading the file.
+   */
+  static void update(Checksum checksum, Path filePath) throws IOException {
+    ByteBuffer buffer = BUFFER.get();
+    try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+      buffer.clear();
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        checksum.update(buffer);
+        buffer.clear();
+      }
+    }
   }
 }
@@ -0,0 +1,36 @@
+package com.github.nicholasmoser.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Common functions for CRC32C hashing. CRC32C uses hardware instructions on most CPUs and is
+ * significantly faster than {@link CRC32} for large files, but the two produce different hashes.
+ */
+public class CRC32C {
+
+  /**
+   * Returns the CRC32C hash for a file from the given Path.
+   *
+   * @param filePath The Path to the file.
+   * @return The CRC32C value as an integer.
+   * @throws IOException If there is an I/O exception when reading the file.
+   */
+  public static int getHash(Path filePath) throws IOException {
+    java.util.zip.CRC32C crc32c = new java.util.zip.CRC32C();
+    CRC32.update(crc32c, filePath);
+    return (int) crc32c.getValue();
+  }
+
+  /**
+   * Returns the CRC32C hash for a given array of bytes.
+   *
+   * @param bytes The bytes to hash.
+   * @return The CRC32C value as an integer.
+   */
+  public static int getHash(byte[] bytes) {
+    java.util.zip.CRC32C crc32c = new java.util.zip.CRC32C();
+    crc32c.update(bytes);
+    return (int) crc32c.getValue();
+  }
+}
@@ -1,14 +1,13 @@
 package com.github.nicholasmoser.utils;
 
 import com.github.nicholasmoser.fpk.FPKFileHeader;
-import com.github.nicholasmoser.PRSUncompressor;
+import com.github.nicholasmoser.fpk.FPKIndex;
 import com.google.common.primitives.Bytes;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.Path;
 
 public class FPKUtils {
@@ -100,7 +99,8 @@ public class FPKUtils {
   }
 
   /**
-   * Returns the bytes for a child from the given fpk file.
+   * Returns the bytes for a child from the given fpk file. The file headers of the fpk file are
+   * read once and cached by {@link FPKIndex}, and only the bytes of the child are read.
    *
    * @param fpkPath   The fpk file path to extract the child from.
    * @param child     The child compressed path to retrieve the bytes for.
@@ -111,30 +111,7 @@ public class FPKUtils {
    */
   public static byte[] getChildBytes(Path fpkPath, String child, boolean longPaths,
       boolean bigEndian) throws IOException {
-    try (InputStream is = Files.newInputStream(fpkPath)) {
-      int fileCount = readFPKHeader(is, bigEndian);
-      int bytesRead = 16;
-      for (int i = 0; i < fileCount; i++) {
-        FPKFileHeader header = readFPKFileHeader(is, longPaths, bigEndian);
-        bytesRead += longPaths ? 48 : 32;
-        if (child.equals(header.getFileName())) {
-          int bytesToSkip = header.getOffset() - bytesRead;
-          if (is.skip(bytesToSkip) != bytesToSkip) {
-            throw new IOException(String.format("Failed to skip to binary data of %s", child));
-          }
-          int compressedSize = header.getCompressedSize();
-          int uncompressedSize = header.getUncompressedSize();
-          byte[] compressedBytes = is.readNBytes(compressedSize);
-          if (compressedSize == uncompressedSize) {
-            return compressedBytes;
-          } else {
-            PRSUncompressor uncompressor = new PRSUncompressor(compressedBytes, uncompressedSize);
-            return uncompressor.uncompress();
-          }
-        }
-      }
-    }
-    throw new IOException(String.format("%s could not be found in %s", child, fpkPath));
+    return FPKIndex.get(fpkPath, longPaths, bigEndian).readChild(child);
   }
 
   /**
@@ -5,12 +5,14 @@ import static java.nio.file.Files.createDirectories;
 
 import java.io.IOException;
 import java.nio.file.CopyOption;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.function.Predicate;
 
 public class FileUtils {
 
@@ -42,6 +44,58 @@ public class FileUtils {
     });
   }
 
+  /**
+   * Copies a folder, skipping any source paths that do not match a filter. Files can optionally be
+   * hard linked instead of copied, which is much faster and uses no extra disk space, but a file
+   * written to in place will then change in both folders. If a hard link cannot be created, such as
+   * when the folders are on different file stores, the remaining files are copied instead.
+   *
+   * @param source    The source folder.
+   * @param target    The target folder.
+   * @param filter    The filter of source paths to copy. Directories that do not match are skipped
+   *                  with all of their contents.
+   * @param hardLinks If files should be hard linked instead of copied.
+   * @throws IOException If an I/O error occurs
+   */
+  public static void copyFolder(Path source, Path target, Predicate<Path> filter,
+      boolean hardLinks) throws IOException {
+    Files.walkFileTree(source, new SimpleFileVisitor<>() {
+
+      private boolean link = hardLinks;
+
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+          throws IOException {
+        if (!filter.test(dir)) {
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+        createDirectories(target.resolve(source.relativize(dir)));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+          throws IOException {
+        if (!filter.test(file)) {
+          return FileVisitResult.CONTINUE;
+        }
+        Path targetFile = target.resolve(source.relativize(file));
+        if (link) {
+          try {
+            Files.createLink(targetFile, file);
+            return FileVisitResult.CONTINUE;
+          } catch (FileAlreadyExistsException e) {
+            throw e;
+          } catch (UnsupportedOperationException | IOException e) {
+            link = false;
+          }
+        }
+        copy(file, targetFile);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+  }
+
   /**
    * @return The temp directory.
    * @throws IOException IF the temp directory does not exist
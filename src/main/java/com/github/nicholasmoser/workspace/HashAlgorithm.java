@@ -0,0 +1,35 @@
+package com.github.nicholasmoser.workspace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * The algorithm used to hash a {@link WorkspaceFile}. Workspaces created before CRC32C was added
+ * use CRC32, so each file records the algorithm its hash was created with.
+ */
+public enum HashAlgorithm {
+  CRC32(com.github.nicholasmoser.utils.CRC32::getHash),
+  CRC32C(com.github.nicholasmoser.utils.CRC32C::getHash);
+
+  private final FileHasher hasher;
+
+  HashAlgorithm(FileHasher hasher) {
+    this.hasher = hasher;
+  }
+
+  /**
+   * Returns the hash for a file from the given Path using this algorithm.
+   *
+   * @param filePath The Path to the file.
+   * @return The hash value as an integer.
+   * @throws IOException If there is an I/O exception when reading the file.
+   */
+  public int getHash(Path filePath) throws IOException {
+    return hasher.getHash(filePath);
+  }
+
+  private interface FileHasher {
+
+    int getHash(Path filePath) throws IOException;
+  }
+}
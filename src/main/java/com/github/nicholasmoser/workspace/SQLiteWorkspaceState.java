@@ -4,12 +4,10 @@ import com.github.nicholasmoser.GNTFileProtos.GNTChildFile;
 import com.github.nicholasmoser.GNTFileProtos.GNTFile;
 import com.github.nicholasmoser.GNTFileProtos.GNTFiles;
 import com.github.nicholasmoser.fpk.FPKFileHeader;
+import com.github.nicholasmoser.fpk.FPKIndex;
 import com.github.nicholasmoser.fpk.FPKOptions;
 import com.github.nicholasmoser.gnt4.GNT4Files;
-import com.github.nicholasmoser.utils.CRC32;
-import com.github.nicholasmoser.utils.FPKUtils;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
@@ -18,7 +16,9 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -45,22 +45,46 @@ public class SQLiteWorkspaceState implements WorkspaceState {
       	modified_dt_tm INTEGER,
         fpk_file_path TEXT,
         compressed INTEGER,
+        hash_algorithm TEXT NOT NULL DEFAULT 'CRC32',
         PRIMARY KEY (file_path, fpk_file_path)
       );
       """;
-  public static final String INSERT_FILE = "INSERT INTO file(file_path,hash,modified_dt_tm,fpk_file_path,compressed) VALUES(?,?,?,?,?)";
+  public static final String CREATE_FPK_FILE_PATH_INDEX = "CREATE INDEX IF NOT EXISTS file_fpk_file_path ON file(fpk_file_path)";
+  /**
+   * The version of the database schema, stored in the user_version of the database. Version 0 is
+   * the original schema, version 1 adds the hash_algorithm column and version 2 adds the
+   * fpk_file_path index.
+   */
+  public static final int SCHEMA_VERSION = 2;
+  public static final String GET_SCHEMA_VERSION = "PRAGMA user_version";
+  public static final String SET_SCHEMA_VERSION = "PRAGMA user_version = " + SCHEMA_VERSION;
+  /**
+   * Write-ahead logging lets a transaction commit by appending to the log, and a synchronous mode
+   * of NORMAL only syncs the log when it is checkpointed rather than on every commit.
+   */
+  public static final String SET_JOURNAL_MODE = "PRAGMA journal_mode = WAL";
+  public static final String SET_SYNCHRONOUS = "PRAGMA synchronous = NORMAL";
+  public static final String ADD_HASH_ALGORITHM_COLUMN = "ALTER TABLE file ADD COLUMN hash_algorithm TEXT NOT NULL DEFAULT 'CRC32'";
+  public static final String INSERT_FILE = "INSERT INTO file(file_path,hash,modified_dt_tm,fpk_file_path,compressed,hash_algorithm) VALUES(?,?,?,?,?,?)";
+  public static final String INSERT_CRC32_FILE = "INSERT INTO file(file_path,hash,modified_dt_tm,fpk_file_path,compressed) VALUES(?,?,?,?,?)";
   public static final String DELETE_FILE = "DELETE FROM file where file_path = ?";
   public static final String DELETE_ALL_FILES = "DELETE FROM file";
   public static final String SELECT_DISTINCT_FPK_FILE_PATHS = "SELECT DISTINCT fpk_file_path FROM file";
-  public static final String SELECT_FILE = "SELECT file_path,hash,modified_dt_tm,fpk_file_path,compressed FROM FILE WHERE file_path = ?";
-  public static final String SELECT_ALL_FILES = "SELECT file_path,hash,modified_dt_tm,fpk_file_path,compressed FROM FILE";
+  public static final String SELECT_FILE = "SELECT file_path,hash,modified_dt_tm,fpk_file_path,compressed,hash_algorithm FROM FILE WHERE file_path = ?";
+  public static final String SELECT_ALL_FILES = "SELECT file_path,hash,modified_dt_tm,fpk_file_path,compressed,hash_algorithm FROM FILE";
   public static final String SELECT_ALL_FILE_PATHS = "SELECT file_path FROM FILE";
   public static final String SELECT_MODIFIED_DT_TM = "SELECT file_path,modified_dt_tm FROM FILE";
+  /**
+   * The hash algorithm used for files added by {@link #init(Path, FPKOptions)}.
+   */
+  public static final HashAlgorithm HASH_ALGORITHM = HashAlgorithm.CRC32C;
   private static final Logger LOGGER = Logger.getLogger(SQLiteWorkspaceState.class.getName());
   private final Connection conn;
+  private final Map<String, PreparedStatement> statements;
 
   private SQLiteWorkspaceState(Connection conn) {
     this.conn = conn;
+    this.statements = new HashMap<>();
   }
 
   /**
@@ -75,8 +99,11 @@ public class SQLiteWorkspaceState implements WorkspaceState {
     String url = "jdbc:sqlite:" + filePath;
     try {
       Connection conn = DriverManager.getConnection(url);
-      try (PreparedStatement stmt = conn.prepareStatement(CREATE_FILE_TABLE)) {
-        stmt.execute();
+      configure(conn);
+      try (Statement stmt = conn.createStatement()) {
+        stmt.execute(CREATE_FILE_TABLE);
+        stmt.execute(CREATE_FPK_FILE_PATH_INDEX);
+        stmt.execute(SET_SCHEMA_VERSION);
       }
       return new SQLiteWorkspaceState(conn);
     } catch (SQLException e) {
@@ -96,14 +123,65 @@ public class SQLiteWorkspaceState implements WorkspaceState {
     String url = "jdbc:sqlite:" + filePath;
     try {
       Connection conn = DriverManager.getConnection(url);
+      configure(conn);
+      migrate(conn);
       return new SQLiteWorkspaceState(conn);
     } catch (SQLException e) {
       throw new IOException(e);
     }
   }
 
+  /**
+   * Configures a connection to use write-ahead logging, so that each transaction does not need to
+   * sync the database file.
+   *
+   * @param conn The connection to the database.
+   * @throws SQLException If any SQL issues occur
+   */
+  private static void configure(Connection conn) throws SQLException {
+    try (Statement stmt = conn.createStatement()) {
+      stmt.execute(SET_JOURNAL_MODE);
+      stmt.execute(SET_SYNCHRONOUS);
+    }
+  }
+
+  /**
+   * Migrates the database schema to the current {@link #SCHEMA_VERSION}. Files from before the
+   * hash_algorithm column was added were hashed with CRC32, which is the default of the column.
+   *
+   * @param conn The connection to the database.
+   * @throws SQLException If any SQL issues occur
+   */
+  private static void migrate(Connection conn) throws SQLException {
+    int version;
+    try (PreparedStatement stmt = conn.prepareStatement(GET_SCHEMA_VERSION);
+        ResultSet rs = stmt.executeQuery()) {
+      version = rs.getInt(1);
+    }
+    if (version >= SCHEMA_VERSION) {
+      return;
+    }
+    LOGGER.info("Migrating SQLite database from version " + version + " to " + SCHEMA_VERSION);
+    conn.setAutoCommit(false);
+    try (Statement stmt = conn.createStatement()) {
+      if (version < 1) {
+        stmt.execute(ADD_HASH_ALGORITHM_COLUMN);
+      }
+      if (version < 2) {
+        stmt.execute(CREATE_FPK_FILE_PATH_INDEX);
+      }
+      stmt.execute(SET_SCHEMA_VERSION);
+      conn.commit();
+    } catch (SQLException e) {
+      conn.rollback();
+      throw e;
+    } finally {
+      conn.setAutoCommit(true);
+    }
+  }
+
   @Override
-  public void init(Path workspaceDir, FPKOptions options) throws IOException {
+  public synchronized void init(Path workspaceDir, FPKOptions options) throws IOException {
     // TODO: Add FPKOption for GNT Rev3 which has combined compressed and uncompressed dirs
     Path compressedDir = workspaceDir.resolve("compressed");
     Path uncompressedDir = workspaceDir.resolve("uncompressed");
@@ -125,25 +203,27 @@ public class SQLiteWorkspaceState implements WorkspaceState {
               throw new IOException(path + " does not exist");
             }
             FileTime time = Files.getLastModifiedTime(path);
-            int hash = CRC32.getHash(path);
+            int hash = HASH_ALGORITHM.getHash(path);
             boolean compressed = fileHeader.getCompressedSize() != fileHeader.getUncompressedSize();
             stmt.setString(1, name);
             stmt.setInt(2, hash);
             stmt.setLong(3, time.toMillis());
             stmt.setString(4, relativePath);
             stmt.setBoolean(5, compressed);
+            stmt.setString(6, HASH_ALGORITHM.name());
             stmt.addBatch();
           }
         } else {
           // Add each non-FPK file to the database
           Path path = uncompressedDir.resolve(relativePath);
           FileTime time = Files.getLastModifiedTime(path);
-          int hash = CRC32.getHash(path);
+          int hash = HASH_ALGORITHM.getHash(path);
           stmt.setString(1, relativePath);
           stmt.setInt(2, hash);
           stmt.setLong(3, time.toMillis());
           stmt.setString(4, null);
           stmt.setBoolean(5, false);
+          stmt.setString(6, HASH_ALGORITHM.name());
           stmt.addBatch();
         }
       }
@@ -162,14 +242,11 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public void addFile(WorkspaceFile file) throws IOException {
+  public synchronized void addFile(WorkspaceFile file) throws IOException {
     LOGGER.info("Inserting file " + file.filePath() + " into workspace state");
-    try (PreparedStatement stmt = conn.prepareStatement(INSERT_FILE)) {
-      stmt.setString(1, file.filePath());
-      stmt.setInt(2, file.hash());
-      stmt.setLong(3, file.modifiedDtTm());
-      stmt.setString(4, file.fpkFilePath());
-      stmt.setBoolean(5, file.compressed());
+    try {
+      PreparedStatement stmt = prepare(INSERT_FILE);
+      setFile(stmt, file);
       stmt.execute();
     } catch (SQLException e) {
       throw new IOException(e);
@@ -177,9 +254,23 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public boolean removeFile(String filePath) throws IOException {
+  public synchronized void addFiles(Collection<WorkspaceFile> files) throws IOException {
+    LOGGER.info("Inserting " + files.size() + " files into workspace state");
+    transaction(() -> {
+      PreparedStatement stmt = prepare(INSERT_FILE);
+      for (WorkspaceFile file : files) {
+        setFile(stmt, file);
+        stmt.addBatch();
+      }
+      stmt.executeBatch();
+    });
+  }
+
+  @Override
+  public synchronized boolean removeFile(String filePath) throws IOException {
     LOGGER.info("Removing file " + filePath + " from workspace state");
-    try (PreparedStatement stmt = conn.prepareStatement(DELETE_FILE)) {
+    try {
+      PreparedStatement stmt = prepare(DELETE_FILE);
       stmt.setString(1, filePath);
       int rows = stmt.executeUpdate();
       LOGGER.info("Removed " + rows + " files");
@@ -190,23 +281,38 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public void delete() throws IOException {
+  public synchronized int removeFiles(Collection<String> filePaths) throws IOException {
+    LOGGER.info("Removing " + filePaths.size() + " files from workspace state");
+    int[] rows = new int[1];
+    transaction(() -> {
+      PreparedStatement stmt = prepare(DELETE_FILE);
+      for (String filePath : filePaths) {
+        stmt.setString(1, filePath);
+        rows[0] += stmt.executeUpdate();
+      }
+    });
+    LOGGER.info("Removed " + rows[0] + " files");
+    return rows[0];
+  }
+
+  @Override
+  public synchronized void delete() throws IOException {
     LOGGER.info("Deleting all files from workspace state");
-    try (PreparedStatement stmt = conn.prepareStatement(DELETE_ALL_FILES)) {
-      stmt.execute();
+    try {
+      prepare(DELETE_ALL_FILES).execute();
     } catch (SQLException e) {
       throw new IOException(e);
     }
   }
 
   @Override
-  public WorkspaceFile getFile(String filePath) throws IOException {
+  public synchronized WorkspaceFile getFile(String filePath) throws IOException {
     LOGGER.info("Getting file " + filePath + " from workspace state");
-    try (PreparedStatement stmt = conn.prepareStatement(SELECT_FILE)) {
+    try {
+      PreparedStatement stmt = prepare(SELECT_FILE);
       stmt.setString(1, filePath);
       try (ResultSet rs = stmt.executeQuery()) {
-        return new WorkspaceFile(rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getString(4),
-            rs.getBoolean(5));
+        return getFile(rs);
       }
     } catch (SQLException e) {
       throw new IOException(e);
@@ -214,14 +320,32 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public List<WorkspaceFile> getAllFiles() throws IOException {
+  public synchronized List<WorkspaceFile> getFiles(Collection<String> filePaths)
+      throws IOException {
+    LOGGER.info("Getting " + filePaths.size() + " files from workspace state");
+    List<WorkspaceFile> files = new ArrayList<>(filePaths.size());
+    transaction(() -> {
+      PreparedStatement stmt = prepare(SELECT_FILE);
+      for (String filePath : filePaths) {
+        stmt.setString(1, filePath);
+        try (ResultSet rs = stmt.executeQuery()) {
+          if (!rs.next()) {
+            throw new SQLException(filePath + " is not in the workspace state");
+          }
+          files.add(getFile(rs));
+        }
+      }
+    });
+    return files;
+  }
+
+  @Override
+  public synchronized List<WorkspaceFile> getAllFiles() throws IOException {
     LOGGER.info("Getting all files from workspace state");
     List<WorkspaceFile> files = new ArrayList<>();
-    try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_FILES);
-        ResultSet rs = stmt.executeQuery()) {
+    try (ResultSet rs = prepare(SELECT_ALL_FILES).executeQuery()) {
       while (rs.next()) {
-        files.add(new WorkspaceFile(rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getString(4),
-            rs.getBoolean(5)));
+        files.add(getFile(rs));
       }
     } catch (SQLException e) {
       throw new IOException(e);
@@ -230,11 +354,10 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public Set<String> getFilePaths() throws IOException {
+  public synchronized Set<String> getFilePaths() throws IOException {
     LOGGER.info("Getting all file paths from workspace state");
     Set<String> filePaths = new HashSet<>();
-    try (PreparedStatement stmt = conn.prepareStatement(SELECT_ALL_FILE_PATHS);
-        ResultSet rs = stmt.executeQuery()) {
+    try (ResultSet rs = prepare(SELECT_ALL_FILE_PATHS).executeQuery()) {
       while (rs.next()) {
         filePaths.add(rs.getString(1));
       }
@@ -245,11 +368,10 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public List<String> getFPKFilePaths() throws IOException {
+  public synchronized List<String> getFPKFilePaths() throws IOException {
     LOGGER.info("Getting all FPK file paths from workspace state");
     List<String> fpkFilePaths = new ArrayList<>();
-    try (PreparedStatement stmt = conn.prepareStatement(SELECT_DISTINCT_FPK_FILE_PATHS);
-        ResultSet rs = stmt.executeQuery()) {
+    try (ResultSet rs = prepare(SELECT_DISTINCT_FPK_FILE_PATHS).executeQuery()) {
       while (rs.next()) {
         fpkFilePaths.add(rs.getString(1));
       }
@@ -260,11 +382,10 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public Map<String, Long> getFilePathToModifiedDtTm() throws IOException {
+  public synchronized Map<String, Long> getFilePathToModifiedDtTm() throws IOException {
     LOGGER.info("Getting file modified date/times from workspace state");
     Map<String, Long> mapping = new HashMap<>();
-    try (PreparedStatement stmt = conn.prepareStatement(SELECT_MODIFIED_DT_TM);
-        ResultSet rs = stmt.executeQuery()) {
+    try (ResultSet rs = prepare(SELECT_MODIFIED_DT_TM).executeQuery()) {
       while (rs.next()) {
         String filePath = rs.getString(1);
         long modifiedDtTm = rs.getLong(2);
@@ -277,15 +398,97 @@ public class SQLiteWorkspaceState implements WorkspaceState {
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     LOGGER.info("Closing workspace state");
     try {
+      for (PreparedStatement stmt : statements.values()) {
+        stmt.close();
+      }
+      statements.clear();
       conn.close();
     } catch (SQLException e) {
       LOGGER.log(Level.INFO, "Failed to close SQLite connection", e);
     }
   }
 
+  /**
+   * Returns a prepared statement for the given SQL, preparing it only the first time it is used.
+   * The statement is closed when the workspace state is closed.
+   *
+   * @param sql The SQL of the statement.
+   * @return The prepared statement.
+   * @throws SQLException If any SQL issues occur
+   */
+  private PreparedStatement prepare(String sql) throws SQLException {
+    PreparedStatement stmt = statements.get(sql);
+    if (stmt == null) {
+      stmt = conn.prepareStatement(sql);
+      statements.put(sql, stmt);
+    }
+    return stmt;
+  }
+
+  /**
+   * Runs SQL in a single transaction, so that the database is only synced once. The transaction
+   * is rolled back if any SQL fails.
+   *
+   * @param transaction The SQL to run.
+   * @throws IOException If any SQL issues occur
+   */
+  private void transaction(Transaction transaction) throws IOException {
+    try {
+      conn.setAutoCommit(false);
+      try {
+        transaction.run();
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (SQLException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Sets the parameters of an {@link #INSERT_FILE} statement to a workspace file.
+   *
+   * @param stmt The statement.
+   * @param file The workspace file.
+   * @throws SQLException If any SQL issues occur
+   */
+  private static void setFile(PreparedStatement stmt, WorkspaceFile file) throws SQLException {
+    stmt.setString(1, file.filePath());
+    stmt.setInt(2, file.hash());
+    stmt.setLong(3, file.modifiedDtTm());
+    stmt.setString(4, file.fpkFilePath());
+    stmt.setBoolean(5, file.compressed());
+    stmt.setString(6, file.hashAlgorithm().name());
+  }
+
+  /**
+   * Reads a workspace file from the current row of a result set of the columns of
+   * {@link #SELECT_ALL_FILES}.
+   *
+   * @param rs The result set.
+   * @return The workspace file.
+   * @throws SQLException If any SQL issues occur
+   */
+  private static WorkspaceFile getFile(ResultSet rs) throws SQLException {
+    return new WorkspaceFile(rs.getString(1), rs.getInt(2), rs.getLong(3), rs.getString(4),
+        rs.getBoolean(5), HashAlgorithm.valueOf(rs.getString(6)));
+  }
+
+  /**
+   * SQL run in a single transaction.
+   */
+  private interface Transaction {
+
+    void run() throws SQLException;
+  }
+
   /**
    * Reads the FPK file headers from an FPK file given the FPK options.
    *
@@ -296,14 +499,7 @@ public class SQLiteWorkspaceState implements WorkspaceState {
    */
   private static List<FPKFileHeader> getFileHeaders(Path fpkPath, FPKOptions options)
       throws IOException {
-    try (InputStream is = Files.newInputStream(fpkPath)) {
-      int fileCount = FPKUtils.readFPKHeader(is, options.bigEndian());
-      List<FPKFileHeader> fpkHeaders = new ArrayList<>(fileCount);
-      for (int i = 0; i < fileCount; i++) {
-        fpkHeaders.add(FPKUtils.readFPKFileHeader(is, options.longPaths(), options.bigEndian()));
-      }
-      return fpkHeaders;
-    }
+    return FPKIndex.get(fpkPath, options.longPaths(), options.bigEndian()).getHeaders();
   }
 
   /**
@@ -329,12 +525,14 @@ public class SQLiteWorkspaceState implements WorkspaceState {
    */
   @Deprecated
   @Override
-  public void insertGNTFiles(Path workspaceDir, GNTFiles gntFiles) throws IOException {
+  public synchronized void insertGNTFiles(Path workspaceDir, GNTFiles gntFiles)
+      throws IOException {
     LOGGER.info("Inserting GNT files");
     Path uncompressedDir = workspaceDir.resolve("uncompressed");
     GNTFiles vanilla = GNT4Files.getVanillaFiles();
     // Create a new batch insertion and disable auto commit so that we only commit once
-    try (PreparedStatement stmt = conn.prepareStatement(INSERT_FILE)) {
+    // The protobuf hashes are CRC32, the default hash algorithm of the file table
+    try (PreparedStatement stmt = conn.prepareStatement(INSERT_CRC32_FILE)) {
       conn.setAutoCommit(false);
       for (GNTFile file : gntFiles.getGntFileList()) {
         String filePath = file.getFilePath();
@@ -2,10 +2,24 @@ package com.github.nicholasmoser.workspace;
 
 /**
  * A single file in the workspace. The hash and modified date/time are used to track if the file
- * has been modified. There is also an optional fpk file path and if it is compressed for files
- * contained inside FRK archive files.
+ * has been modified, and the hash algorithm is the algorithm the hash was created with. There is
+ * also an optional fpk file path and if it is compressed for files contained inside FRK archive
+ * files.
  */
 public record WorkspaceFile(String filePath, int hash, long modifiedDtTm, String fpkFilePath,
-                            boolean compressed) {
+                            boolean compressed, HashAlgorithm hashAlgorithm) {
 
+  /**
+   * Creates a new WorkspaceFile with a CRC32 hash.
+   *
+   * @param filePath     The file path.
+   * @param hash         The CRC32 hash of the file.
+   * @param modifiedDtTm The modified date/time of the file.
+   * @param fpkFilePath  The fpk file path, or null if not in an FPK.
+   * @param compressed   If the file is compressed in the FPK.
+   */
+  public WorkspaceFile(String filePath, int hash, long modifiedDtTm, String fpkFilePath,
+      boolean compressed) {
+    this(filePath, hash, modifiedDtTm, fpkFilePath, compressed, HashAlgorithm.CRC32);
+  }
 }
@@ -0,0 +1,128 @@
+package com.github.nicholasmoser.workspace;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the files in a workspace state, indexed by file path and by FPK file
+ * path. A file path can be in more than one FPK file, so looking up a file path can return more
+ * than one file. Adding or removing a file returns a new snapshot and leaves this one unchanged, so
+ * a snapshot can be safely shared between threads.
+ */
+public class WorkspaceSnapshot {
+
+  private final ImmutableList<WorkspaceFile> files;
+
+  private final ImmutableListMultimap<String, WorkspaceFile> filePathToFiles;
+
+  private final ImmutableListMultimap<String, WorkspaceFile> fpkFilePathToFiles;
+
+  /**
+   * Creates a new WorkspaceSnapshot.
+   *
+   * @param files The files in the workspace state.
+   */
+  private WorkspaceSnapshot(ImmutableList<WorkspaceFile> files) {
+    this.files = files;
+    ImmutableListMultimap.Builder<String, WorkspaceFile> byFilePath =
+        ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<String, WorkspaceFile> byFPKFilePath =
+        ImmutableListMultimap.builder();
+    for (WorkspaceFile file : files) {
+      byFilePath.put(file.filePath(), file);
+      if (file.fpkFilePath() != null) {
+        byFPKFilePath.put(file.fpkFilePath(), file);
+      }
+    }
+    this.filePathToFiles = byFilePath.build();
+    this.fpkFilePathToFiles = byFPKFilePath.build();
+  }
+
+  /**
+   * Creates a new snapshot of the given files.
+   *
+   * @param files The files in the workspace state.
+   * @return The snapshot.
+   */
+  public static WorkspaceSnapshot of(Collection<WorkspaceFile> files) {
+    return new WorkspaceSnapshot(ImmutableList.copyOf(files));
+  }
+
+  /**
+   * @return All files in the snapshot.
+   */
+  public List<WorkspaceFile> getFiles() {
+    return files;
+  }
+
+  /**
+   * Returns the files with the given file path, one for each FPK file the file path is in.
+   *
+   * @param filePath The file path.
+   * @return The files with the file path, or an empty list if there are none.
+   */
+  public List<WorkspaceFile> getFiles(String filePath) {
+    return filePathToFiles.get(filePath);
+  }
+
+  /**
+   * @param filePath The file path.
+   * @return If the snapshot has any file with the given file path.
+   */
+  public boolean contains(String filePath) {
+    return filePathToFiles.containsKey(filePath);
+  }
+
+  /**
+   * @return The file paths of every FPK file with at least one child.
+   */
+  public Set<String> getFPKFilePaths() {
+    return fpkFilePathToFiles.keySet();
+  }
+
+  /**
+   * @return The file paths of every file in the snapshot.
+   */
+  public Set<String> getFilePaths() {
+    return filePathToFiles.keySet();
+  }
+
+  /**
+   * Returns the child files of an FPK file.
+   *
+   * @param fpkFilePath The FPK file path.
+   * @return The child files, or an empty list if there are none.
+   */
+  public List<WorkspaceFile> getFPKChildren(String fpkFilePath) {
+    return fpkFilePathToFiles.get(fpkFilePath);
+  }
+
+  /**
+   * Returns a new snapshot with a file added.
+   *
+   * @param file The file to add.
+   * @return The new snapshot.
+   */
+  public WorkspaceSnapshot withFile(WorkspaceFile file) {
+    return new WorkspaceSnapshot(ImmutableList.<WorkspaceFile>builderWithExpectedSize(
+        files.size() + 1).addAll(files).add(file).build());
+  }
+
+  /**
+   * Returns a new snapshot with every file with the given file path removed.
+   *
+   * @param filePath The file path to remove.
+   * @return The new snapshot, or this snapshot if there are no files with the file path.
+   */
+  public WorkspaceSnapshot withoutFile(String filePath) {
+    if (!contains(filePath)) {
+      return this;
+    }
+    return new WorkspaceSnapshot(files.stream()
+        .filter(file -> !file.filePath().equals(filePath))
+        .collect(ImmutableList.toImmutableList()));
+  }
+}
@@ -4,6 +4,7 @@ import com.github.nicholasmoser.GNTFileProtos.GNTFiles;
 import com.github.nicholasmoser.fpk.FPKOptions;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -31,6 +32,14 @@ public interface WorkspaceState {
    */
   void addFile(WorkspaceFile file) throws IOException;
 
+  /**
+   * Inserts new files into the workspace state in a single transaction.
+   *
+   * @param files The new files to insert.
+   * @throws IOException If any I/O exception occurs.
+   */
+  void addFiles(Collection<WorkspaceFile> files) throws IOException;
+
   /**
    * Removes a file from the workspace state.
    *
@@ -40,6 +49,15 @@ public interface WorkspaceState {
    */
   boolean removeFile(String filePath) throws IOException;
 
+  /**
+   * Removes files from the workspace state in a single transaction.
+   *
+   * @param filePaths The paths to the files.
+   * @return The number of files deleted.
+   * @throws IOException If any I/O exception occurs.
+   */
+  int removeFiles(Collection<String> filePaths) throws IOException;
+
   /**
    * Deletes the entire workspace state.
    */
@@ -54,6 +72,15 @@ public interface WorkspaceState {
    */
   WorkspaceFile getFile(String filePath) throws IOException;
 
+  /**
+   * Gets the workspace files for the given file paths, in the same order.
+   *
+   * @param filePaths The file paths to retrieve the files for.
+   * @return The workspace files.
+   * @throws IOException If any file path is not in the workspace state or any I/O exception occurs.
+   */
+  List<WorkspaceFile> getFiles(Collection<String> filePaths) throws IOException;
+
   /**
    * @return All files in the workspace state
    * @throws IOException If any I/O exception occurs.
@@ -0,0 +1,287 @@
+package com.github.nicholasmoser.workspace;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Watches a directory and all of its subdirectories for files that are created, modified or
+ * deleted, and records them as dirty paths. Dirty paths are relative to the watched directory and
+ * use forward slashes, like the file paths of a {@link WorkspaceFile}. A deleted directory is
+ * recorded as a single dirty path for the directory.
+ * <p>
+ * Events are recorded as soon as they are received, but the listener is only called once no
+ * events have been received for the debounce duration, so that a burst of changes such as a file
+ * being written in many small pieces only calls the listener once. If events are lost, such as
+ * when too many changes occur at once, the watcher overflows and the caller must scan every file.
+ */
+public class WorkspaceWatcher implements Closeable {
+
+  private static final Logger LOGGER = Logger.getLogger(WorkspaceWatcher.class.getName());
+
+  private final Path directory;
+
+  private final WatchService watchService;
+
+  private final Duration debounce;
+
+  private final Runnable listener;
+
+  private final Map<WatchKey, Path> keys;
+
+  private final Thread thread;
+
+  private Set<String> dirtyPaths;
+
+  private boolean overflowed;
+
+  /**
+   * Creates a new WorkspaceWatcher. Use {@link #start(Path, Duration, Runnable)} to create one.
+   *
+   * @param directory    The directory to watch.
+   * @param watchService The WatchService for the file system of the directory.
+   * @param debounce     How long to wait without events before calling the listener.
+   * @param listener     The listener to call after each burst of events.
+   */
+  private WorkspaceWatcher(Path directory, WatchService watchService, Duration debounce,
+      Runnable listener) {
+    this.directory = directory;
+    this.watchService = watchService;
+    this.debounce = debounce;
+    this.listener = listener;
+    this.keys = new ConcurrentHashMap<>();
+    this.thread = new Thread(this::run, "WorkspaceWatcher");
+    this.thread.setDaemon(true);
+    this.dirtyPaths = new HashSet<>();
+  }
+
+  /**
+   * Starts watching a directory and all of its subdirectories. Only directories on the default
+   * file system of Windows and Linux are watched, since they have native file change
+   * notifications. On other platforms, such as macOS, the JDK falls back to polling for changes
+   * every few seconds, which is too slow to rely on before a build. When the directory is not
+   * watched, the caller must fall back to a full scan of every file to find the changed files.
+   *
+   * @param directory The directory to watch.
+   * @param debounce  How long to wait without events before calling the listener.
+   * @param listener  The listener to call after each burst of events.
+   * @return The WorkspaceWatcher, or empty if the directory cannot be watched.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static Optional<WorkspaceWatcher> start(Path directory, Duration debounce,
+      Runnable listener) throws IOException {
+    if (!isSupported(directory)) {
+      LOGGER.info("Native file change notifications are not supported, workspace not watched.");
+      return Optional.empty();
+    }
+    WatchService watchService = directory.getFileSystem().newWatchService();
+    WorkspaceWatcher watcher = new WorkspaceWatcher(directory, watchService, debounce, listener);
+    try {
+      watcher.registerAll(directory, false);
+    } catch (IOException | RuntimeException e) {
+      watchService.close();
+      throw e;
+    }
+    watcher.thread.start();
+    LOGGER.info(String.format("Watching %d directories under %s", watcher.keys.size(), directory));
+    return Optional.of(watcher);
+  }
+
+  /**
+   * Returns if a directory can be watched with native file change notifications, which is only
+   * the case for the default file system of Windows and Linux.
+   *
+   * @param directory The directory to watch.
+   * @return If the directory can be watched.
+   */
+  public static boolean isSupported(Path directory) {
+    if (directory.getFileSystem() != FileSystems.getDefault()) {
+      return false;
+    }
+    String osName = System.getProperty("os.name");
+    return osName.startsWith("Windows") || osName.startsWith("Linux");
+  }
+
+  /**
+   * Returns the dirty paths since they were last taken and clears them. If the watcher has
+   * overflowed since then, some changes may have been lost, so empty is returned instead and every
+   * file must be checked.
+   *
+   * @return The dirty paths, or empty if every file must be checked.
+   */
+  public synchronized Optional<Set<String>> takeDirtyPaths() {
+    Set<String> taken = dirtyPaths;
+    dirtyPaths = new HashSet<>();
+    if (overflowed) {
+      overflowed = false;
+      return Optional.empty();
+    }
+    return Optional.of(taken);
+  }
+
+  /**
+   * Records the dirty paths of any events that have been received but not processed yet, such as
+   * events received while the listener is running. Call this before taking the dirty paths when
+   * every change received so far must be included, such as before a build.
+   */
+  public void flush() {
+    try {
+      WatchKey key;
+      while ((key = watchService.poll()) != null) {
+        process(key);
+      }
+    } catch (ClosedWatchServiceException e) {
+      // There are no events to process once the watcher is closed
+    }
+  }
+
+  /**
+   * Returns if a file path is dirty. A file path is dirty if it or any of its parent directories
+   * are in the dirty paths.
+   *
+   * @param filePath   The file path relative to the watched directory.
+   * @param dirtyPaths The dirty paths.
+   * @return If the file path is dirty.
+   */
+  public static boolean isDirty(String filePath, Set<String> dirtyPaths) {
+    String path = filePath;
+    while (!dirtyPaths.contains(path)) {
+      int index = path.lastIndexOf('/');
+      if (index < 0) {
+        return false;
+      }
+      path = path.substring(0, index);
+    }
+    return true;
+  }
+
+  /**
+   * Stops watching the directory.
+   *
+   * @throws IOException If an I/O error occurs.
+   */
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+    thread.interrupt();
+  }
+
+  /**
+   * Processes events until the watcher is closed. Events are processed until none have been
+   * received for the debounce duration, and then the listener is called.
+   */
+  private void run() {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        do {
+          process(key);
+          key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+        } while (key != null);
+        try {
+          listener.run();
+        } catch (RuntimeException e) {
+          LOGGER.log(Level.SEVERE, "Workspace watcher listener failed.", e);
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      LOGGER.info("Stopped watching " + directory);
+    }
+  }
+
+  /**
+   * Records the dirty paths of the events of a WatchKey. New directories are also watched, and
+   * any files already in them are recorded as dirty since they may have been created before the
+   * directory was watched.
+   *
+   * @param key The WatchKey.
+   */
+  private void process(WatchKey key) {
+    Path parent = keys.get(key);
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW || parent == null) {
+        setOverflowed();
+        continue;
+      }
+      Path path = parent.resolve((Path) event.context());
+      addDirtyPath(path);
+      if (event.kind() == ENTRY_CREATE && Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+        try {
+          registerAll(path, true);
+        } catch (IOException e) {
+          LOGGER.log(Level.WARNING, "Unable to watch " + path, e);
+          setOverflowed();
+        }
+      }
+    }
+    if (!key.reset()) {
+      // The directory was deleted or can no longer be watched
+      keys.remove(key);
+    }
+  }
+
+  /**
+   * Watches a directory and all of its subdirectories.
+   *
+   * @param start    The directory to watch.
+   * @param addFiles If the files in the directories should be recorded as dirty.
+   * @throws IOException If an I/O error occurs.
+   */
+  private void registerAll(Path start, boolean addFiles) throws IOException {
+    List<Path> directories;
+    try (Stream<Path> stream = Files.walk(start)) {
+      directories = stream.filter(path -> Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+          .toList();
+    }
+    for (Path directory : directories) {
+      WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
+      keys.put(key, directory);
+    }
+    if (addFiles) {
+      // List the files after registering so that files created in between are not missed
+      try (Stream<Path> stream = Files.walk(start)) {
+        stream.filter(path -> !Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+            .forEach(this::addDirtyPath);
+      }
+    }
+  }
+
+  /**
+   * Records a path as dirty.
+   *
+   * @param path The full path.
+   */
+  private synchronized void addDirtyPath(Path path) {
+    dirtyPaths.add(directory.relativize(path).toString().replace('\\', '/'));
+  }
+
+  /**
+   * Records that events have been lost.
+   */
+  private synchronized void setOverflowed() {
+    overflowed = true;
+  }
+}
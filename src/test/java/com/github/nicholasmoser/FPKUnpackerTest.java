@@ -2,15 +2,24 @@ package com.github.nicholasmoser;
 
 import static com.github.nicholasmoser.utils.TestUtil.assertDirectoriesEqual;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import com.github.nicholasmoser.fpk.FileNames;
+import com.github.nicholasmoser.fpk.TestFPKs;
 import com.github.nicholasmoser.gnt4.GNT4FileNames;
 import com.github.nicholasmoser.testing.Prereqs;
 import com.github.nicholasmoser.utils.FileUtils;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
@@ -34,4 +43,134 @@ public class FPKUnpackerTest {
       }
     }
   }
+
+  /**
+   * Tests that unpacking a directory of FPKs in parallel produces the same files as unpacking them
+   * serially.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testUnpackDirectoryParallel() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path serialDir = testDir.resolve("serial");
+      Path fpackDir = serialDir.resolve("files/fpack");
+      Files.createDirectories(fpackDir);
+      Random random = new Random(0);
+      for (int i = 0; i < 20; i++) {
+        Files.write(fpackDir.resolve(String.format("%04d.fpk", i)), createFPK(random, i));
+      }
+      Path parallelDir = testDir.resolve("parallel");
+      FileUtils.copyFolder(serialDir, parallelDir);
+      Optional<FileNames> gnt4FileNames = Optional.of(new GNT4FileNames());
+      new FPKUnpacker(serialDir, gnt4FileNames, false, true).unpackDirectory();
+      new FPKUnpacker(parallelDir, gnt4FileNames, false, true).unpackDirectory(4);
+      assertFalse(Files.exists(parallelDir.resolve("files/fpack")));
+      assertDirectoriesEqual(serialDir, parallelDir);
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that unpacking the FPKs of a separate source directory into a copy of it without the
+   * fpack directory produces the same files as copying the whole directory and unpacking it, and
+   * leaves the FPKs in the source directory.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testUnpackDirectoryFromSource() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path compressedDir = testDir.resolve("compressed");
+      Path fpackDir = compressedDir.resolve("files/fpack");
+      Files.createDirectories(fpackDir);
+      Random random = new Random(1);
+      for (int i = 0; i < 10; i++) {
+        Files.write(fpackDir.resolve(String.format("%04d.fpk", i)), createFPK(random, i));
+      }
+      Files.createDirectories(compressedDir.resolve("sys"));
+      Files.write(compressedDir.resolve("sys/main.dol"), new byte[1000]);
+      Files.write(compressedDir.resolve("files/movie.thp"), new byte[2000]);
+      Optional<FileNames> gnt4FileNames = Optional.of(new GNT4FileNames());
+
+      Path copiedDir = testDir.resolve("copied");
+      FileUtils.copyFolder(compressedDir, copiedDir);
+      new FPKUnpacker(copiedDir, gnt4FileNames, false, true).unpackDirectory(4);
+
+      Path unpackDir = testDir.resolve("unpacked");
+      FileUtils.copyFolder(compressedDir, unpackDir, path -> !path.equals(fpackDir), true);
+      new FPKUnpacker(unpackDir, gnt4FileNames, false, true).unpackDirectory(compressedDir, 4);
+      assertFalse(Files.exists(unpackDir.resolve("files/fpack")));
+      assertTrue(Files.isRegularFile(fpackDir.resolve("0000.fpk")));
+      assertDirectoriesEqual(copiedDir, unpackDir);
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests extracting FPKs whose children are stored out of order, both compressed and not
+   * compressed. The second FPK has smaller children, so the reused buffers are larger than them.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testExtractFPK() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.createDirectories(testDir);
+      Random random = new Random(1);
+      for (int size : new int[]{50_000, 1_000}) {
+        Map<String, byte[]> children = new HashMap<>();
+        for (int i = 0; i < 4; i++) {
+          byte[] child = new byte[size + i];
+          for (int j = 0; j < child.length; j++) {
+            // Every other child is incompressible, so it is stored without compression
+            child[j] = (byte) (i % 2 == 0 ? random.nextInt(4) : random.nextInt());
+          }
+          children.put(String.format("chr/%d.seq", i), child);
+        }
+        Path fpkPath = testDir.resolve(size + ".fpk");
+        Files.write(fpkPath, TestFPKs.createReversedFPK(children, true));
+        Path outputDir = testDir.resolve(String.valueOf(size));
+        FPKUnpacker.extractFPK(fpkPath, outputDir, Optional.empty(), false, true);
+        for (Map.Entry<String, byte[]> child : children.entrySet()) {
+          byte[] actual = Files.readAllBytes(outputDir.resolve(child.getKey()));
+          assertArrayEquals(child.getValue(), actual);
+        }
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Creates a GameCube FPK with a random number of PRS compressed children.
+   *
+   * @param random The random number generator.
+   * @param index  The index of the FPK, used to name its children.
+   * @return The bytes of the FPK.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static byte[] createFPK(Random random, int index) throws IOException {
+    int fileCount = 1 + random.nextInt(5);
+    Map<String, byte[]> children = new HashMap<>();
+    for (int i = 0; i < fileCount; i++) {
+      byte[] child = new byte[100 + random.nextInt(20_000)];
+      for (int j = 0; j < child.length; j++) {
+        child[j] = (byte) random.nextInt(4);
+      }
+      children.put(String.format("chr/%02d/%d.seq", index, i), child);
+    }
+    return TestFPKs.createFPK(children, true);
+  }
 }
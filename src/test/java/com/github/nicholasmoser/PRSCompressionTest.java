@@ -1,13 +1,26 @@
 package com.github.nicholasmoser;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import com.github.nicholasmoser.PRSCompressor.MatchFinder;
+import com.github.nicholasmoser.PRSCompressor.Parse;
+import com.github.nicholasmoser.fpk.FPKFileHeader;
+import com.github.nicholasmoser.testing.Prereqs;
+import com.github.nicholasmoser.utils.FPKUtils;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -67,6 +80,162 @@ public class PRSCompressionTest {
     assertArrayEquals(originalBytes, outputBytes);
   }
 
+  /**
+   * Tests that the hash chain match finder produces the exact same output as the original window
+   * scan for random bytes, repetitive bytes, and a file with random hex values.
+   *
+   * @throws Exception If any exception occurs.
+   */
+  @Test
+  public void testMatchFindersAreIdentical() throws Exception {
+    SecureRandom random = new SecureRandom();
+    for (int i = 10; i < 20000; i += 1999) {
+      byte[] randomBytes = new byte[i];
+      random.nextBytes(randomBytes);
+      assertMatchFindersAreIdentical(randomBytes);
+      byte[] repetitiveBytes = new byte[i];
+      for (int j = 0; j < i; j++) {
+        repetitiveBytes[j] = (byte) random.nextInt(3);
+      }
+      assertMatchFindersAreIdentical(repetitiveBytes);
+    }
+    assertMatchFindersAreIdentical(new byte[5000]);
+    Path randomHexPath = Paths.get("src/test/resources/random_hex.seq");
+    assertMatchFindersAreIdentical(Files.readAllBytes(randomHexPath));
+  }
+
+  /**
+   * Asserts that compressing the given bytes with each match finder produces the same output and
+   * that the output uncompresses back to the given bytes.
+   *
+   * @param originalBytes The bytes to compress.
+   */
+  private void assertMatchFindersAreIdentical(byte[] originalBytes) {
+    byte[] expected = new PRSCompressor(originalBytes, MatchFinder.WINDOW_SCAN).compress();
+    byte[] actual = new PRSCompressor(originalBytes, MatchFinder.HASH_CHAIN).compress();
+    assertArrayEquals(expected, actual);
+    PRSUncompressor uncompressor = new PRSUncompressor(actual, originalBytes.length);
+    assertArrayEquals(originalBytes, uncompressor.uncompress());
+  }
+
+  /**
+   * Tests that the optimal parse uncompresses back to the original bytes and is never larger than
+   * the greedy parse.
+   *
+   * @throws Exception If any exception occurs.
+   */
+  @Test
+  public void testOptimalParse() throws Exception {
+    SecureRandom random = new SecureRandom();
+    for (int i = 10; i < 20000; i += 1999) {
+      byte[] repetitiveBytes = new byte[i];
+      for (int j = 0; j < i; j++) {
+        repetitiveBytes[j] = (byte) random.nextInt(3);
+      }
+      assertOptimalParse(repetitiveBytes);
+    }
+    assertOptimalParse(new byte[5000]);
+    Path randomHexPath = Paths.get("src/test/resources/random_hex.seq");
+    assertOptimalParse(Files.readAllBytes(randomHexPath));
+  }
+
+  /**
+   * Asserts that compressing the given bytes with the optimal parse uncompresses back to the given
+   * bytes and is no larger than the greedy parse.
+   *
+   * @param originalBytes The bytes to compress.
+   */
+  private void assertOptimalParse(byte[] originalBytes) {
+    byte[] greedy = new PRSCompressor(originalBytes, Parse.GREEDY).compress();
+    byte[] optimal = new PRSCompressor(originalBytes, Parse.OPTIMAL).compress();
+    assertTrue(optimal.length <= greedy.length);
+    PRSUncompressor uncompressor = new PRSUncompressor(optimal, originalBytes.length);
+    assertArrayEquals(originalBytes, uncompressor.uncompress());
+  }
+
+  /**
+   * Tests that the fast uncompress methods produce the same bytes as the original uncompressor for
+   * random and compressible bytes, compressed with both parses.
+   */
+  @Test
+  public void testFastUncompress() {
+    SecureRandom random = new SecureRandom();
+    for (int i = 10; i < 20000; i += 1999) {
+      byte[] randomBytes = new byte[i];
+      random.nextBytes(randomBytes);
+      assertFastUncompress(randomBytes);
+      byte[] compressibleBytes = new byte[i];
+      for (int j = 0; j < i; j++) {
+        compressibleBytes[j] = (byte) random.nextInt(3);
+      }
+      assertFastUncompress(compressibleBytes);
+    }
+  }
+
+  /**
+   * Tests that the fast uncompress methods produce the same bytes as the original uncompressor for
+   * every compressed child of every FPK file in GNT4.
+   *
+   * @throws Exception If any exception occurs.
+   */
+  @Test
+  public void testFastUncompressGNT4() throws Exception {
+    Path compressed = Prereqs.getCompressedGNT4();
+    List<Path> fpks;
+    try (Stream<Path> paths = Files.walk(compressed)) {
+      fpks = paths.filter(path -> path.toString().endsWith(".fpk")).toList();
+    }
+    assertFalse(fpks.isEmpty());
+    for (Path fpk : fpks) {
+      byte[] bytes = Files.readAllBytes(fpk);
+      try (InputStream is = new ByteArrayInputStream(bytes)) {
+        int fileCount = FPKUtils.readFPKHeader(is, true);
+        for (int i = 0; i < fileCount; i++) {
+          FPKFileHeader header = FPKUtils.readFPKFileHeader(is, false, true);
+          if (header.getCompressedSize() == header.getUncompressedSize()) {
+            continue;
+          }
+          int offset = header.getOffset();
+          byte[] child = Arrays.copyOfRange(bytes, offset, offset + header.getCompressedSize());
+          byte[] expected = new PRSUncompressor(child, header.getUncompressedSize()).uncompress();
+          byte[] output = new byte[header.getUncompressedSize()];
+          PRSUncompressor.uncompress(bytes, offset, child.length, output, 0, output.length);
+          assertArrayEquals(expected, output, fpk + " " + header.getFileName());
+        }
+      }
+    }
+  }
+
+  /**
+   * Asserts that the bytes compressed with both parses are uncompressed by the fast uncompress
+   * methods to the same bytes as the original uncompressor.
+   *
+   * @param originalBytes The bytes to compress.
+   */
+  private static void assertFastUncompress(byte[] originalBytes) {
+    for (Parse parse : Parse.values()) {
+      byte[] compressed = new PRSCompressor(originalBytes, parse).compress();
+      byte[] expected = new PRSUncompressor(compressed, originalBytes.length).uncompress();
+      assertArrayEquals(originalBytes, expected);
+      byte[] output = new byte[originalBytes.length];
+      assertEquals(originalBytes.length, PRSUncompressor.uncompress(compressed, output));
+      assertArrayEquals(expected, output);
+      ByteBuffer buffer = ByteBuffer.allocate(originalBytes.length);
+      PRSUncompressor.uncompress(ByteBuffer.wrap(compressed), buffer);
+      assertArrayEquals(expected, buffer.array());
+      assertEquals(originalBytes.length, buffer.position());
+
+      // Uncompress from the middle of a larger byte array into the middle of a larger byte array
+      byte[] input = new byte[compressed.length + 32];
+      System.arraycopy(compressed, 0, input, 8, compressed.length);
+      byte[] larger = new byte[originalBytes.length + 32];
+      int written = PRSUncompressor.uncompress(input, 8, compressed.length, larger, 16,
+          originalBytes.length);
+      assertEquals(originalBytes.length, written);
+      assertArrayEquals(expected, Arrays.copyOfRange(larger, 16, 16 + originalBytes.length));
+    }
+  }
+
   /**
    * Tests the PRS compression of a single file that is notorious for having issues.
    * 
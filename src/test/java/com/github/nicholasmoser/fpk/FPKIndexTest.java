@@ -0,0 +1,114 @@
+package com.github.nicholasmoser.fpk;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.nicholasmoser.utils.FPKUtils;
+import com.github.nicholasmoser.utils.FileUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link FPKIndex}.
+ */
+public class FPKIndexTest {
+
+  /**
+   * Tests looking up and reading compressed and uncompressed children of an FPK file on disk, and
+   * that the cached index is read again after the FPK file is modified.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testReadChildren() throws Exception {
+    Path fpkPath = FileUtils.getTempDirectory().resolve(UUID.randomUUID() + ".fpk");
+    try {
+      Map<String, byte[]> children = createChildren(new Random(0), 4);
+      Files.write(fpkPath, TestFPKs.createFPK(children, true));
+      FPKIndex index = FPKIndex.get(fpkPath, false, true);
+      assertSame(index, FPKIndex.get(fpkPath, false, true));
+      assertEquals(4, index.getHeaders().size());
+      for (int i = 0; i < children.size(); i++) {
+        byte[] child = children.get(getName(i));
+        assertArrayEquals(child, index.readChild(getName(i)));
+        assertArrayEquals(child, FPKUtils.getChildBytes(fpkPath, getName(i), false, true));
+      }
+      assertFalse(index.getHeader("missing.seq").isPresent());
+      assertThrows(IOException.class, () -> index.readChild("missing.seq"));
+
+      // Modify the FPK file so that the cached index is no longer valid
+      Map<String, byte[]> modified = createChildren(new Random(1), 2);
+      Files.write(fpkPath, TestFPKs.createFPK(modified, true));
+      Files.setLastModifiedTime(fpkPath, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+      FPKIndex modifiedIndex = FPKIndex.get(fpkPath, false, true);
+      assertNotSame(index, modifiedIndex);
+      assertEquals(2, modifiedIndex.getHeaders().size());
+      assertArrayEquals(modified.get(getName(1)), modifiedIndex.readChild(getName(1)));
+    } finally {
+      FPKIndex.invalidate(fpkPath);
+      Files.deleteIfExists(fpkPath);
+    }
+  }
+
+  /**
+   * Tests reading the index of an FPK file in memory.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testReadBytes() throws Exception {
+    Map<String, byte[]> children = createChildren(new Random(2), 3);
+    byte[] fpk = TestFPKs.createFPK(children, true);
+    FPKIndex index = FPKIndex.read(ByteBuffer.wrap(fpk), false, true);
+    List<FPKFileHeader> headers = index.getHeaders();
+    assertEquals(3, headers.size());
+    for (int i = 0; i < children.size(); i++) {
+      assertEquals(getName(i), headers.get(i).getFileName());
+      assertEquals(children.get(getName(i)).length, headers.get(i).getUncompressedSize());
+    }
+    assertThrows(IOException.class, () -> index.readChild(getName(0)));
+    byte[] truncated = new byte[40];
+    System.arraycopy(fpk, 0, truncated, 0, truncated.length);
+    assertThrows(IOException.class, () -> FPKIndex.read(ByteBuffer.wrap(truncated), false, true));
+  }
+
+  /**
+   * @param index The index of the child.
+   * @return The file name of the child.
+   */
+  private static String getName(int index) {
+    return String.format("chr/ino/%04d.seq", index);
+  }
+
+  /**
+   * Creates random children, where every other child is incompressible.
+   *
+   * @param random The random number generator.
+   * @param count  The number of children.
+   * @return The names of the children to their bytes.
+   */
+  private static Map<String, byte[]> createChildren(Random random, int count) {
+    Map<String, byte[]> children = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      byte[] child = new byte[100 + random.nextInt(5_000)];
+      for (int j = 0; j < child.length; j++) {
+        child[j] = (byte) (i % 2 == 0 ? random.nextInt(4) : random.nextInt());
+      }
+      children.put(getName(i), child);
+    }
+    return children;
+  }
+}
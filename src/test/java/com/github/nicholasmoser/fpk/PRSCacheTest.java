@@ -0,0 +1,100 @@
+package com.github.nicholasmoser.fpk;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.PRSCompressor;
+import com.github.nicholasmoser.PRSCompressor.Parse;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class PRSCacheTest {
+
+  /**
+   * Tests that compressed bytes put in the cache can be retrieved by a new cache for the same
+   * directory, and that a different parse of the same bytes is a miss.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testPutAndGet() throws Exception {
+    Path cacheDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      byte[] input = getInput(1, 5000);
+      byte[] output = new PRSCompressor(input).compress();
+      PRSCache cache = new PRSCache(cacheDir, PRSCache.DEFAULT_MAX_SIZE);
+      assertTrue(cache.get(input, Parse.GREEDY).isEmpty());
+      cache.put(input, Parse.GREEDY, output);
+
+      PRSCache newCache = new PRSCache(cacheDir, PRSCache.DEFAULT_MAX_SIZE);
+      Optional<byte[]> cached = newCache.get(input, Parse.GREEDY);
+      assertTrue(cached.isPresent());
+      assertArrayEquals(output, cached.get());
+      assertTrue(newCache.get(input, Parse.OPTIMAL).isEmpty());
+      assertEquals(1, newCache.getHits());
+      assertEquals(1, newCache.getMisses());
+    } finally {
+      if (Files.isDirectory(cacheDir)) {
+        MoreFiles.deleteRecursively(cacheDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that the least recently used entries are removed when the cache exceeds its maximum size.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testEviction() throws Exception {
+    Path cacheDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      byte[] first = getInput(1, 1000);
+      byte[] second = getInput(2, 1000);
+      byte[] third = getInput(3, 1000);
+      byte[] firstOutput = new PRSCompressor(first).compress();
+      byte[] secondOutput = new PRSCompressor(second).compress();
+      byte[] thirdOutput = new PRSCompressor(third).compress();
+      long maxSize = firstOutput.length + secondOutput.length + thirdOutput.length - 1;
+      PRSCache cache = new PRSCache(cacheDir, maxSize);
+      cache.put(first, Parse.GREEDY, firstOutput);
+      cache.put(second, Parse.GREEDY, secondOutput);
+      // Use the first entry so that the second entry is the least recently used
+      assertTrue(cache.get(first, Parse.GREEDY).isPresent());
+      cache.put(third, Parse.GREEDY, thirdOutput);
+
+      assertTrue(cache.getTotalSize() <= maxSize);
+      assertTrue(cache.get(first, Parse.GREEDY).isPresent());
+      assertTrue(cache.get(second, Parse.GREEDY).isEmpty());
+      assertTrue(cache.get(third, Parse.GREEDY).isPresent());
+    } finally {
+      if (Files.isDirectory(cacheDir)) {
+        MoreFiles.deleteRecursively(cacheDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Returns compressible bytes generated from the given seed.
+   *
+   * @param seed   The random seed.
+   * @param length The number of bytes.
+   * @return The bytes.
+   */
+  private static byte[] getInput(long seed, int length) {
+    Random random = new Random(seed);
+    byte[] input = new byte[length];
+    for (int i = 0; i < length; i++) {
+      input[i] = (byte) random.nextInt(4);
+    }
+    return input;
+  }
+}
@@ -0,0 +1,86 @@
+package com.github.nicholasmoser.fpk;
+
+import com.github.nicholasmoser.PRSCompressor;
+import com.github.nicholasmoser.utils.FPKUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates GameCube FPK files for tests.
+ */
+public class TestFPKs {
+
+  /**
+   * Creates a GameCube FPK file from children sorted by name.
+   *
+   * @param children The names of the children to their bytes.
+   * @param compress If the children should be PRS compressed. Each child is only stored compressed
+   *                 if compressing it makes it smaller.
+   * @return The bytes of the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static byte[] createFPK(Map<String, byte[]> children, boolean compress)
+      throws IOException {
+    return createFPK(children, compress, false);
+  }
+
+  /**
+   * Creates a GameCube FPK file from children sorted by name, with the data of the children in the
+   * reverse order of their file headers.
+   *
+   * @param children The names of the children to their bytes.
+   * @param compress If the children should be PRS compressed. Each child is only stored compressed
+   *                 if compressing it makes it smaller.
+   * @return The bytes of the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  public static byte[] createReversedFPK(Map<String, byte[]> children, boolean compress)
+      throws IOException {
+    return createFPK(children, compress, true);
+  }
+
+  /**
+   * Creates a GameCube FPK file from children sorted by name.
+   *
+   * @param children The names of the children to their bytes.
+   * @param compress If the children should be PRS compressed.
+   * @param reversed If the data of the children is in the reverse order of their file headers.
+   * @return The bytes of the FPK file.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static byte[] createFPK(Map<String, byte[]> children, boolean compress,
+      boolean reversed) throws IOException {
+    List<String> names = children.keySet().stream().sorted().toList();
+    int count = names.size();
+    byte[][] stored = new byte[count][];
+    int[] offsets = new int[count];
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    int offset = 16 + count * 32;
+    for (int i = 0; i < count; i++) {
+      int index = reversed ? count - 1 - i : i;
+      byte[] child = children.get(names.get(index));
+      stored[index] = child;
+      if (compress) {
+        byte[] compressed = new PRSCompressor(child).compress();
+        if (compressed.length < child.length) {
+          stored[index] = compressed;
+        }
+      }
+      offsets[index] = offset + data.size();
+      data.write(stored[index]);
+      data.write(new byte[(16 - stored[index].length % 16) % 16]);
+    }
+    ByteArrayOutputStream fpk = new ByteArrayOutputStream();
+    fpk.write(FPKUtils.createFPKHeader(count, offset + data.size(), true));
+    for (int i = 0; i < count; i++) {
+      String name = names.get(i);
+      FPKFileHeader header = new FPKFileHeader(name, offsets[i], stored[i].length,
+          children.get(name).length, false, true);
+      fpk.write(header.getBytes());
+    }
+    data.writeTo(fpk);
+    return fpk.toByteArray();
+  }
+}
@@ -0,0 +1,118 @@
+package com.github.nicholasmoser.gnt4;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.utils.CRC32;
+import com.github.nicholasmoser.utils.CRC32C;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.github.nicholasmoser.workspace.HashAlgorithm;
+import com.github.nicholasmoser.workspace.WorkspaceFile;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link GNT4Workspace}.
+ */
+public class GNT4WorkspaceTest {
+
+  /**
+   * Tests that the changed files are the files that were removed or modified with new contents,
+   * and not files that were only modified with the same contents, for both hash algorithms.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testGetChangedFiles() throws Exception {
+    Path workspaceDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      GNT4Workspace workspace = new GNT4Workspace(workspaceDir, null);
+      Path uncompressed = workspace.getUncompressedDirectory();
+      List<WorkspaceFile> allFiles = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        String filePath = String.format("files/dir%d/%04d.bin", i % 4, i);
+        Path path = uncompressed.resolve(filePath);
+        Files.createDirectories(path.getParent());
+        byte[] bytes = String.valueOf(i).getBytes();
+        Files.write(path, bytes);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        // Workspaces created before CRC32C have CRC32 hashes
+        if (i % 2 == 0) {
+          allFiles.add(new WorkspaceFile(filePath, CRC32.getHash(bytes), modified, null, false));
+        } else {
+          allFiles.add(new WorkspaceFile(filePath, CRC32C.getHash(bytes), modified, null, false,
+              HashAlgorithm.CRC32C));
+        }
+      }
+      FileTime later = FileTime.fromMillis(System.currentTimeMillis() + 10_000);
+      Path touched = uncompressed.resolve("files/dir1/0001.bin");
+      Files.setLastModifiedTime(touched, later);
+      Path modified = uncompressed.resolve("files/dir2/0002.bin");
+      Files.writeString(modified, "modified");
+      Files.setLastModifiedTime(modified, later);
+      Files.delete(uncompressed.resolve("files/dir3/0003.bin"));
+
+      Set<String> expected = Set.of("files/dir2/0002.bin", "files/dir3/0003.bin");
+      assertEquals(expected, workspace.getChangedFiles(allFiles));
+      assertEquals(expected, workspace.streamChangedFiles(allFiles).collect(Collectors.toSet()));
+    } finally {
+      if (Files.isDirectory(workspaceDir)) {
+        MoreFiles.deleteRecursively(workspaceDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that the changed files are still correct while watching the workspace, where only the
+   * files changed since the last check are checked again.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testGetChangedFilesWhileWatching() throws Exception {
+    Path workspaceDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    GNT4Workspace workspace = new GNT4Workspace(workspaceDir, null);
+    try {
+      Path uncompressed = workspace.getUncompressedDirectory();
+      List<WorkspaceFile> allFiles = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        String filePath = String.format("files/dir%d/%04d.bin", i % 4, i);
+        Path path = uncompressed.resolve(filePath);
+        Files.createDirectories(path.getParent());
+        byte[] bytes = String.valueOf(i).getBytes();
+        Files.write(path, bytes);
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        allFiles.add(new WorkspaceFile(filePath, CRC32.getHash(bytes), modified, null, false));
+      }
+      Semaphore calls = new Semaphore(0);
+      workspace.startWatching(calls::release);
+      Files.delete(uncompressed.resolve("files/dir3/0003.bin"));
+      assertEquals(Set.of("files/dir3/0003.bin"), workspace.getChangedFiles(allFiles));
+
+      FileTime later = FileTime.fromMillis(System.currentTimeMillis() + 10_000);
+      Path modified = uncompressed.resolve("files/dir2/0002.bin");
+      Files.writeString(modified, "modified");
+      Files.setLastModifiedTime(modified, later);
+      Files.write(uncompressed.resolve("files/dir3/0003.bin"), "3".getBytes());
+      assertTrue(calls.tryAcquire(10, TimeUnit.SECONDS));
+      Thread.sleep(1000);
+      assertEquals(Set.of("files/dir2/0002.bin"), workspace.getChangedFiles(allFiles));
+    } finally {
+      workspace.stopWatching();
+      if (Files.isDirectory(workspaceDir)) {
+        MoreFiles.deleteRecursively(workspaceDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+}
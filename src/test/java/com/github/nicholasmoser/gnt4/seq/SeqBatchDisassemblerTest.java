@@ -0,0 +1,124 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.gnt4.seq.SeqBatchDisassembler.Result;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SeqBatchDisassembler}.
+ */
+public class SeqBatchDisassemblerTest {
+
+  // Register moves, an unknown opcode, a pointer opcode, a branch and a branch link
+  private static final byte[] BLOCK = new byte[]{
+      0x04, 0x02, 0x02, 0x13,
+      0x04, 0x02, 0x13, 0x2f,
+      0x04, 0x02, 0x1a, 0x3f, 0x00, 0x00, 0x00, 0x01,
+      0x01, 0x00, 0x00, 0x00,
+      0x09, 0x08, 0x1d, 0x3f, 0x00, 0x01, (byte) 0xbf, 0x24,
+      0x01, 0x32, 0x00, 0x00, 0x00, 0x00, 0x00, 0x10,
+      0x01, 0x3c, 0x00, 0x00, 0x00, 0x00, 0x00, 0x10
+  };
+
+  // An opcode group that is not implemented
+  private static final byte[] INVALID_WORD = new byte[]{0x07, 0x00, 0x00, 0x00};
+
+  /**
+   * Tests disassembling the seq files of a workspace with valid, invalid and missing seq files.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testDisassembleAll() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path uncompressedDir = testDir.resolve("uncompressed");
+      Path outputDir = testDir.resolve("output");
+      writeSeq(uncompressedDir.resolve(Seqs.CAMERA_00), 3, false);
+      writeSeq(uncompressedDir.resolve(Seqs.M_ENTRY), 2, true);
+      // Too short to have a seq header
+      Files.write(uncompressedDir.resolve(Seqs.M_VS), new byte[8]);
+
+      // Only the seq files in the workspace
+      List<String> fileNames = SeqBatchDisassembler.getFileNames(uncompressedDir);
+      assertEquals(List.of(Seqs.CAMERA_00, Seqs.M_ENTRY, Seqs.M_VS), fileNames);
+
+      Set<String> completed = ConcurrentHashMap.newKeySet();
+      List<Result> results = SeqBatchDisassembler.disassembleAll(uncompressedDir, fileNames,
+          outputDir, true, false, 4, result -> completed.add(result.fileName()));
+      assertEquals(Set.of(Seqs.CAMERA_00, Seqs.M_ENTRY, Seqs.M_VS), completed);
+
+      // In the order of the file names
+      assertEquals(3, results.size());
+      assertEquals(Seqs.CAMERA_00, results.get(0).fileName());
+      assertEquals(Seqs.M_ENTRY, results.get(1).fileName());
+      assertEquals(Seqs.M_VS, results.get(2).fileName());
+
+      Result camera = results.get(0);
+      assertFalse(camera.failed());
+      assertEquals(21, camera.opcodes());
+      assertEquals(0, camera.invalidBytes());
+      Result entry = results.get(1);
+      assertFalse(entry.failed());
+      assertEquals(16, entry.opcodes());
+      assertEquals(8, entry.invalidBytes());
+      assertTrue(results.get(2).failed());
+
+      // The txt files are the same as disassembling each seq file by itself
+      for (String fileName : List.of(Seqs.CAMERA_00, Seqs.M_ENTRY)) {
+        Path expected = testDir.resolve("expected.txt");
+        SeqKing.generateTXT(uncompressedDir.resolve(fileName), fileName, expected, false, true);
+        Path actual = outputDir.resolve(fileName + ".txt");
+        assertArrayEquals(Files.readAllBytes(expected), Files.readAllBytes(actual));
+        assertFalse(Files.exists(outputDir.resolve(fileName + ".html")));
+      }
+      assertFalse(Files.exists(outputDir.resolve(Seqs.M_VS + ".txt")));
+
+      List<String> summary = Files.readAllLines(outputDir.resolve(SeqBatchDisassembler.SUMMARY));
+      assertEquals(Seqs.CAMERA_00 + ": 21 opcodes, 0 invalid bytes", summary.get(0));
+      assertEquals(Seqs.M_ENTRY + ": 16 opcodes, 8 invalid bytes", summary.get(1));
+      assertTrue(summary.get(2).startsWith(Seqs.M_VS + ": failed: "));
+      assertEquals("Total: 3 seq files, 1 with invalid bytes, 8 invalid bytes, 1 failed",
+          summary.get(summary.size() - 1));
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Writes a synthetic seq file, a 16-byte header followed by a repeated block of opcodes.
+   *
+   * @param seqPath    The path to write the seq file to.
+   * @param blockCount The number of blocks of opcodes.
+   * @param invalid    If an invalid word should be written after each block.
+   * @throws Exception If any Exception occurs.
+   */
+  private static void writeSeq(Path seqPath, int blockCount, boolean invalid) throws Exception {
+    ByteArrayOutputStream seq = new ByteArrayOutputStream();
+    seq.write(new byte[16]);
+    for (int i = 0; i < blockCount; i++) {
+      seq.write(BLOCK);
+      if (invalid) {
+        seq.write(INVALID_WORD);
+      }
+    }
+    Files.createDirectories(seqPath.getParent());
+    Files.write(seqPath, seq.toByteArray());
+  }
+}
@@ -0,0 +1,142 @@
+package com.github.nicholasmoser.gnt4.seq;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.gnt4.seq.opcodes.Opcode;
+import com.github.nicholasmoser.utils.ByteStream;
+import java.io.IOException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link SeqOpcodeTable}.
+ */
+public class SeqOpcodeTableTest {
+
+  private static final int SEEDS = 8;
+
+  /**
+   * Tests that the table implements the same opcodes as {@link SeqHelper#getSeqOpcode(ByteStream,
+   * byte, byte)}.
+   */
+  @Test
+  public void testSameOpcodesAsSeqHelper() {
+    for (int index = 0; index <= 0xFFFF; index++) {
+      byte opcodeGroup = (byte) (index >> 8);
+      byte opcode = (byte) index;
+      byte[] bytes = new byte[64];
+      bytes[0] = opcodeGroup;
+      bytes[1] = opcode;
+      String message = String.format("%04X", index);
+      assertEquals(isImplemented(bytes), SeqOpcodeTable.isImplemented(opcodeGroup, opcode),
+          message);
+    }
+  }
+
+  /**
+   * Tests that the table decodes opcodes the same as {@link SeqHelper#getSeqOpcode(ByteStream,
+   * byte, byte)}, and that the lengths of them are correct.
+   */
+  @Test
+  public void testDecode() throws Exception {
+    for (int index = 0; index <= 0xFFFF; index++) {
+      byte opcodeGroup = (byte) (index >> 8);
+      byte opcode = (byte) index;
+      if (!SeqOpcodeTable.isImplemented(opcodeGroup, opcode)) {
+        continue;
+      }
+      Random random = new Random(index);
+      for (int seed = 0; seed < SEEDS; seed++) {
+        byte[] bytes = new byte[128];
+        random.nextBytes(bytes);
+        bytes[0] = opcodeGroup;
+        bytes[1] = opcode;
+        String message = String.format("%04X with seed %d", index, seed);
+        Opcode expected;
+        try {
+          expected = SeqHelper.getSeqOpcode(new ByteStream(bytes), opcodeGroup, opcode);
+        } catch (Exception e) {
+          // Not valid operands for this opcode
+          continue;
+        }
+        ByteStream bs = new ByteStream(bytes);
+        int length = SeqOpcodeTable.getLength(bs);
+        assertEquals(0, bs.offset(), message);
+        Opcode actual = SeqOpcodeTable.decode(bs, opcodeGroup, opcode);
+        assertEquals(expected.getClass(), actual.getClass(), message);
+        assertArrayEquals(expected.getBytes(), actual.getBytes(), message);
+        assertEquals(bs.offset(), length, message);
+      }
+    }
+  }
+
+  /**
+   * Tests that an unimplemented opcode is handled without decoding it.
+   */
+  @Test
+  public void testUnimplemented() throws Exception {
+    byte[] bytes = new byte[]{0x07, 0x00, 0x00, 0x00};
+    assertFalse(SeqOpcodeTable.isImplemented((byte) 0x07, (byte) 0x00));
+    ByteStream bs = new ByteStream(bytes);
+    assertEquals(0, SeqOpcodeTable.getLength(bs));
+    assertEquals(0, bs.offset());
+    assertThrows(IllegalStateException.class,
+        () -> SeqOpcodeTable.decode(bs, (byte) 0x07, (byte) 0x00));
+  }
+
+  /**
+   * Tests that decoding an unimplemented opcode throws the same exceptions as
+   * {@link SeqHelper#getSeqOpcode(ByteStream, byte, byte)}.
+   */
+  @Test
+  public void testUnimplementedExceptions() {
+    // An implemented opcode group with an unimplemented opcode
+    ByteStream unimplementedOpcode = new ByteStream(new byte[]{0x05, 0x00, 0x00, 0x00});
+    IOException opcodeException = assertThrows(IOException.class,
+        () -> SeqOpcodeTable.decode(unimplementedOpcode, (byte) 0x05, (byte) 0x00));
+    assertEquals("Unimplemented: 00", opcodeException.getMessage());
+    // An unimplemented opcode group
+    ByteStream unimplementedGroup = new ByteStream(new byte[]{0x07, 0x00, 0x00, 0x00});
+    IllegalStateException groupException = assertThrows(IllegalStateException.class,
+        () -> SeqOpcodeTable.decode(unimplementedGroup, (byte) 0x07, (byte) 0x00));
+    assertEquals("Unknown opcode group: 07 at offset 0x0", groupException.getMessage());
+  }
+
+  /**
+   * Tests the length of the modding specific no-op, which depends on how many null words there are.
+   */
+  @Test
+  public void testNullBytes() throws Exception {
+    byte[] bytes = new byte[]{(byte) 0xCC, (byte) 0xCC, (byte) 0xCC, (byte) 0xCC, (byte) 0xCC,
+        (byte) 0xCC, (byte) 0xCC, (byte) 0xCC, 0x00, 0x00, 0x00, 0x00};
+    assertTrue(SeqOpcodeTable.isImplemented((byte) 0xCC, (byte) 0xCC));
+    ByteStream bs = new ByteStream(bytes);
+    assertEquals(8, SeqOpcodeTable.getLength(bs));
+    assertEquals(0, bs.offset());
+    assertEquals(8, SeqOpcodeTable.decode(bs, (byte) 0xCC, (byte) 0xCC).getBytes().length);
+    assertEquals(8, bs.offset());
+  }
+
+  /**
+   * @param bytes The bytes of an opcode followed by zeroes.
+   * @return If {@link SeqHelper#getSeqOpcode(ByteStream, byte, byte)} implements the opcode.
+   */
+  private static boolean isImplemented(byte[] bytes) {
+    try {
+      SeqHelper.getSeqOpcode(new ByteStream(bytes), bytes[0], bytes[1]);
+      return true;
+    } catch (IOException e) {
+      String message = e.getMessage();
+      return message == null || !message.startsWith("Unimplemented: ");
+    } catch (IllegalStateException e) {
+      String message = e.getMessage();
+      return message == null || !message.startsWith("Unknown opcode group: ");
+    } catch (Exception e) {
+      return true;
+    }
+  }
+}
@@ -1,11 +1,18 @@
 package com.github.nicholasmoser.iso;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.github.nicholasmoser.testing.Prereqs;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 public class FileSystemTableTest {
@@ -18,4 +25,60 @@ public class FileSystemTableTest {
     assertThat(Files.size(fst)).isEqualTo(0x33E7);
     assertThat(items).doesNotContainNull();
   }
+
+  @Test
+  public void rewrittenFileSystemCanBeRead() throws Exception {
+    Path inputDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path sys = inputDir.resolve("sys");
+      Files.createDirectories(sys);
+      Files.write(sys.resolve("boot.bin"), new byte[ISO.BOOT_BIN_LEN]);
+      Files.write(sys.resolve("bi2.bin"), new byte[ISO.BI_2_LEN]);
+      Files.write(sys.resolve("apploader.img"), new byte[0x2000]);
+      Files.write(sys.resolve("main.dol"), new byte[0x1000]);
+      Files.write(sys.resolve("fst.bin"), new byte[0]);
+      // Nested directories that end at the same entry, followed by more files in the parents
+      Path files = inputDir.resolve("files");
+      for (int i = 0; i < 60; i++) {
+        Path directory = files.resolve(String.format("dir%d/sub%d/deep%d", i % 3, i % 2, i % 4));
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(String.format("%04d.bin", i)), new byte[i]);
+        Files.write(files.resolve(String.format("dir%d/%04d.bin", i % 3, i)), new byte[i]);
+      }
+      Files.write(files.resolve("root.bin"), new byte[4]);
+      ISOHeader isoHeader = new DirectoryParser(inputDir, true).getISOHeader();
+      FileSystemTable.rewrite(inputDir, isoHeader);
+
+      Path fstBin = inputDir.resolve(isoHeader.getFstBin().getGamePath());
+      List<ISOItem> items = FileSystemTable.read(fstBin);
+      assertThat(items).containsExactlyElementsOf(isoHeader.getFiles());
+
+      // The fst.bin can also be read from the middle of a larger buffer
+      byte[] bytes = Files.readAllBytes(fstBin);
+      ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 8);
+      buffer.position(4);
+      buffer.put(bytes);
+      buffer.position(4).limit(bytes.length + 4);
+      assertThat(FileSystemTable.read(buffer)).isEqualTo(items);
+      assertThat(buffer.position()).isEqualTo(4);
+    } finally {
+      if (Files.isDirectory(inputDir)) {
+        MoreFiles.deleteRecursively(inputDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  @Test
+  public void truncatedFileSystemCannotBeRead() {
+    ByteBuffer buffer = ByteBuffer.allocate(36);
+    buffer.put(0, (byte) 1);
+    buffer.putInt(8, 2);
+    buffer.putInt(12, 1); // File name at offset 1 of the string table
+    for (int i = 24; i < buffer.limit(); i++) {
+      buffer.put(i, (byte) 'a'); // File name without a null terminator
+    }
+    assertThatThrownBy(() -> FileSystemTable.read(buffer)).isInstanceOf(IOException.class);
+    buffer.putInt(8, 4);
+    assertThatThrownBy(() -> FileSystemTable.read(buffer)).isInstanceOf(IOException.class);
+  }
 }
@@ -0,0 +1,211 @@
+package com.github.nicholasmoser.iso;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.github.nicholasmoser.utils.ByteUtils;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ISOCreator}.
+ */
+public class ISOCreatorTest {
+
+  /**
+   * Tests that writing an ISO with a FileChannel produces the same ISO as writing it with an
+   * OutputStream.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testFileChannelMatchesOutputStream() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      createSyntheticFiles(inputDir, 40, 100_000);
+      Path streamISO = testDir.resolve("stream.iso");
+      Path channelISO = testDir.resolve("channel.iso");
+      new ISOCreator(inputDir, streamISO, false).create(false);
+      new ISOCreator(inputDir, channelISO, true).create(false);
+      assertEquals(-1L, Files.mismatch(streamISO, channelISO));
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that writing an ISO with a FileChannel with the files pushed to the end of the ISO
+   * places each file at the position from the fst.bin and ends at the last file.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testFileChannelPushFilesToEnd() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      createSyntheticFiles(inputDir, 40, 100_000);
+      Path channelISO = testDir.resolve("channel.iso");
+      new ISOCreator(inputDir, channelISO, true).create(true);
+      ISOHeader expected = new DirectoryParser(inputDir, true).getISOHeader();
+      ISOHeader actual = new ISOParser(channelISO).getISOHeader();
+      assertEquals(expected.getFiles(), actual.getFiles());
+      long end = 0;
+      try (FileChannel iso = FileChannel.open(channelISO)) {
+        for (ISOItem item : actual.getFiles()) {
+          if (!item.isDirectory()) {
+            ISOFile file = (ISOFile) item;
+            ByteBuffer buffer = ByteBuffer.allocate(file.getLen());
+            iso.read(buffer, file.getPos());
+            Path filePath = inputDir.resolve("files").resolve(file.getGamePath());
+            assertArrayEquals(Files.readAllBytes(filePath), buffer.array());
+            end = Math.max(end, file.getPos() + file.getLen());
+          }
+        }
+      }
+      assertEquals(end, Files.size(channelISO));
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that updating an ISO with changed files writes smaller files over their previous position,
+   * relocates larger files, and leaves the unchanged files where they were.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testUpdate() throws Exception {
+    assertUpdate(false);
+    assertUpdate(true);
+  }
+
+  /**
+   * Asserts that updating an ISO with a smaller file and a larger file results in an ISO with the
+   * same files as the input directory, with the unchanged files at the same positions.
+   *
+   * @param pushFilesToEnd If the files should be pushed to the end of the ISO.
+   * @throws Exception If any Exception occurs.
+   */
+  private static void assertUpdate(boolean pushFilesToEnd) throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      createSyntheticFiles(inputDir, 40, 100_000);
+      Path iso = testDir.resolve("update.iso");
+      ISOCreator creator = new ISOCreator(inputDir, iso);
+      creator.create(pushFilesToEnd);
+      ISOHeader before = new ISOParser(iso).getISOHeader();
+
+      Path files = inputDir.resolve("files");
+      Random random = new Random(0);
+      Files.write(files.resolve("dir1/0001.bin"), randomBytes(random, 10));
+      Files.write(files.resolve("dir2/0002.bin"), randomBytes(random, 200_000));
+      creator.update(List.of("files/dir1/0001.bin", "files/dir2/0002.bin"), pushFilesToEnd);
+      ISOHeader after = new ISOParser(iso).getISOHeader();
+
+      ISOFile shrunk = getFile(after, "dir1/0001.bin");
+      ISOFile grown = getFile(after, "dir2/0002.bin");
+      assertEquals(getFile(before, "dir1/0001.bin").getPos(), shrunk.getPos());
+      assertEquals(10, shrunk.getLen());
+      assertNotEquals(getFile(before, "dir2/0002.bin").getPos(), grown.getPos());
+      assertEquals(200_000, grown.getLen());
+      try (FileChannel channel = FileChannel.open(iso)) {
+        for (ISOItem item : after.getFiles()) {
+          if (!item.isDirectory()) {
+            ISOFile file = (ISOFile) item;
+            if (file != shrunk && file != grown) {
+              assertEquals(getFile(before, file.getGamePath()), file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(file.getLen());
+            channel.read(buffer, file.getPos());
+            Path filePath = files.resolve(file.getGamePath());
+            assertArrayEquals(Files.readAllBytes(filePath), buffer.array());
+          }
+        }
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Returns the ISOFile with the given game path from an ISOHeader.
+   *
+   * @param isoHeader The ISOHeader.
+   * @param gamePath  The game path of the file.
+   * @return The ISOFile.
+   */
+  private static ISOFile getFile(ISOHeader isoHeader, String gamePath) {
+    return isoHeader.getFiles()
+        .stream()
+        .filter(item -> item.getGamePath().equals(gamePath))
+        .map(ISOFile.class::cast)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  /**
+   * Creates a synthetic ISO file tree with the sys files and a number of random files spread over
+   * a few directories.
+   *
+   * @param inputDir  The directory to create the file tree in.
+   * @param fileCount The number of files to create under the files directory.
+   * @param maxSize   The maximum size of each file.
+   * @throws IOException If an I/O error occurs.
+   */
+  static void createSyntheticFiles(Path inputDir, int fileCount, int maxSize)
+      throws IOException {
+    Random random = new Random(fileCount);
+    Path sys = inputDir.resolve("sys");
+    Files.createDirectories(sys);
+    byte[] bootBin = new byte[ISO.BOOT_BIN_LEN];
+    // GameCube magic number
+    System.arraycopy(ByteUtils.fromUint32(0xC2339F3D), 0, bootBin, 28, 4);
+    Files.write(sys.resolve("boot.bin"), bootBin);
+    Files.write(sys.resolve("bi2.bin"), new byte[ISO.BI_2_LEN]);
+    Files.write(sys.resolve("apploader.img"), randomBytes(random, 0x1234));
+    Files.write(sys.resolve("main.dol"), randomBytes(random, 0x56789));
+    Files.write(sys.resolve("fst.bin"), new byte[0]);
+    Path files = inputDir.resolve("files");
+    for (int i = 0; i < fileCount; i++) {
+      Path directory = files.resolve(String.format("dir%d", i % 4));
+      Files.createDirectories(directory);
+      int size = maxSize / 2 + random.nextInt(maxSize / 2);
+      Files.write(directory.resolve(String.format("%04d.bin", i)), randomBytes(random, size));
+    }
+    Files.write(files.resolve("root.bin"), randomBytes(random, 123));
+  }
+
+  /**
+   * Returns random bytes.
+   *
+   * @param random The random number generator.
+   * @param size   The number of bytes.
+   * @return The random bytes.
+   */
+  private static byte[] randomBytes(Random random, int size) {
+    byte[] bytes = new byte[size];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+}
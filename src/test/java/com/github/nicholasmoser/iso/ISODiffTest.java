@@ -0,0 +1,153 @@
+package com.github.nicholasmoser.iso;
+
+import static com.github.nicholasmoser.fpk.TestFPKs.createFPK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.fpk.FPKOptions;
+import com.github.nicholasmoser.iso.ISODiff.Difference;
+import com.github.nicholasmoser.utils.ByteUtils;
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ISODiff}.
+ */
+public class ISODiffTest {
+
+  private static final FPKOptions FPK_OPTIONS = new FPKOptions(false, true, null);
+
+  /**
+   * Tests that the difference between two ISOs includes the added and changed files, and the
+   * changed and added children of a changed FPK file. A child that is compressed differently but
+   * has the same uncompressed bytes is not changed.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testCompare() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      byte[] first = getChild(1);
+      byte[] second = getChild(2);
+      byte[] third = getChild(3);
+      Path inputDir1 = testDir.resolve("input1");
+      ISOCreatorTest.createSyntheticFiles(inputDir1, 10, 10_000);
+      Files.createDirectories(inputDir1.resolve("files/fpack"));
+      Files.write(inputDir1.resolve("files/fpack/test.fpk"),
+          createFPK(Map.of("chr/a.seq", first, "chr/b.seq", second), false));
+      Path inputDir2 = testDir.resolve("input2");
+      FileUtils.copyFolder(inputDir1, inputDir2);
+      Files.write(inputDir2.resolve("files/dir1/0001.bin"), new byte[100]);
+      Files.write(inputDir2.resolve("files/extra.bin"), new byte[100]);
+      Files.write(inputDir2.resolve("files/fpack/test.fpk"),
+          createFPK(Map.of("chr/a.seq", first, "chr/b.seq", third, "chr/c.seq", third), true));
+
+      Path iso1 = testDir.resolve("first.iso");
+      Path iso2 = testDir.resolve("second.iso");
+      new ISOCreator(inputDir1, iso1).create(false);
+      new ISOCreator(inputDir2, iso2).create(false);
+      try (ISOFileSystem fileSystem1 = ISOFileSystem.open(iso1);
+          ISOFileSystem fileSystem2 = ISOFileSystem.open(iso2)) {
+        Difference difference = new ISODiff(fileSystem1, fileSystem2,
+            Optional.of(FPK_OPTIONS)).compare();
+        assertEquals(List.of(), difference.onlyInFirst());
+        assertEquals(List.of("files/extra.bin"), difference.onlyInSecond());
+        assertTrue(difference.changed().contains("files/dir1/0001.bin"));
+        assertTrue(difference.changed().contains("files/fpack/test.fpk"));
+        assertFalse(difference.changed().contains("files/dir0/0000.bin"));
+
+        Difference children = difference.children().get("files/fpack/test.fpk");
+        assertEquals(List.of(), children.onlyInFirst());
+        assertEquals(List.of("chr/c.seq"), children.onlyInSecond());
+        assertEquals(List.of("chr/b.seq"), children.changed());
+
+        Difference none = new ISODiff(fileSystem1, fileSystem1, Optional.of(FPK_OPTIONS))
+            .compare();
+        assertEquals(List.of(), none.changed());
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that FPK files that cannot be read are still listed as changed without a difference of
+   * their children, and do not stop the other FPK files from being compared.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testCompareCorruptFPK() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      byte[] first = getChild(1);
+      byte[] second = getChild(2);
+      Path inputDir1 = testDir.resolve("input1");
+      ISOCreatorTest.createSyntheticFiles(inputDir1, 10, 10_000);
+      Path fpack1 = inputDir1.resolve("files/fpack");
+      Files.createDirectories(fpack1);
+      Files.write(fpack1.resolve("count.fpk"), createFPK(Map.of("chr/a.seq", first), false));
+      Files.write(fpack1.resolve("offset.fpk"), createFPK(Map.of("chr/a.seq", first), false));
+      Files.write(fpack1.resolve("test.fpk"), createFPK(Map.of("chr/a.seq", first), false));
+      Path inputDir2 = testDir.resolve("input2");
+      FileUtils.copyFolder(inputDir1, inputDir2);
+      Path fpack2 = inputDir2.resolve("files/fpack");
+      // More file headers than fit in the FPK file
+      byte[] count = createFPK(Map.of("chr/a.seq", second), false);
+      System.arraycopy(ByteUtils.fromUint32(1000), 0, count, 4, 4);
+      Files.write(fpack2.resolve("count.fpk"), count);
+      // A child offset before the start of the FPK file
+      byte[] offset = createFPK(Map.of("chr/a.seq", second), false);
+      System.arraycopy(ByteUtils.fromUint32(-16), 0, offset, 36, 4);
+      Files.write(fpack2.resolve("offset.fpk"), offset);
+      Files.write(fpack2.resolve("test.fpk"), createFPK(Map.of("chr/a.seq", second), false));
+
+      Path iso1 = testDir.resolve("first.iso");
+      Path iso2 = testDir.resolve("second.iso");
+      new ISOCreator(inputDir1, iso1).create(false);
+      new ISOCreator(inputDir2, iso2).create(false);
+      try (ISOFileSystem fileSystem1 = ISOFileSystem.open(iso1);
+          ISOFileSystem fileSystem2 = ISOFileSystem.open(iso2)) {
+        Difference difference = new ISODiff(fileSystem1, fileSystem2,
+            Optional.of(FPK_OPTIONS)).compare();
+        assertTrue(difference.changed().contains("files/fpack/count.fpk"));
+        assertTrue(difference.changed().contains("files/fpack/offset.fpk"));
+        assertTrue(difference.changed().contains("files/fpack/test.fpk"));
+        assertFalse(difference.children().containsKey("files/fpack/count.fpk"));
+        assertFalse(difference.children().containsKey("files/fpack/offset.fpk"));
+        Difference children = difference.children().get("files/fpack/test.fpk");
+        assertEquals(List.of("chr/a.seq"), children.changed());
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Returns compressible bytes for an FPK child.
+   *
+   * @param value The value to fill the child with.
+   * @return The bytes of the child.
+   */
+  private static byte[] getChild(int value) {
+    byte[] bytes = new byte[1000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (i % 10 == 0 ? value : 0);
+    }
+    return bytes;
+  }
+}
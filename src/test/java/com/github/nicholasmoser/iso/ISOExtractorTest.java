@@ -0,0 +1,70 @@
+package com.github.nicholasmoser.iso;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ISOExtractor}.
+ */
+public class ISOExtractorTest {
+
+  /**
+   * Tests that extracting an ISO in parallel produces the same files as extracting it
+   * sequentially.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testParallelMatchesSequential() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      ISOCreatorTest.createSyntheticFiles(inputDir, 100, 1_000_000);
+      Path iso = testDir.resolve("test.iso");
+      new ISOCreator(inputDir, iso).create(true);
+      Path sequentialDir = testDir.resolve("sequential");
+      Path parallelDir = testDir.resolve("parallel");
+      new ISOExtractor(iso, sequentialDir, false).extract();
+      new ISOExtractor(iso, parallelDir, true).extract();
+
+      List<Path> sequentialFiles = getRelativeFiles(sequentialDir);
+      assertEquals(sequentialFiles, getRelativeFiles(parallelDir));
+      assertEquals(getRelativeFiles(inputDir), sequentialFiles);
+      for (Path file : sequentialFiles) {
+        if (Files.isDirectory(sequentialDir.resolve(file))) {
+          continue;
+        }
+        assertEquals(-1L, Files.mismatch(sequentialDir.resolve(file), parallelDir.resolve(file)));
+        if (file.startsWith("files")) {
+          assertEquals(-1L, Files.mismatch(inputDir.resolve(file), parallelDir.resolve(file)));
+        }
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Returns the sorted paths of all files and directories in a directory relative to it.
+   *
+   * @param directory The directory.
+   * @return The relative paths.
+   * @throws Exception If any Exception occurs.
+   */
+  private static List<Path> getRelativeFiles(Path directory) throws Exception {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      return paths.map(directory::relativize).sorted().toList();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.github.nicholasmoser.iso;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ISOFileSystem}.
+ */
+public class ISOFileSystemTest {
+
+  /**
+   * Tests that each file of an ISOFileSystem has the same bytes as the file the ISO was created
+   * from.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testFilesMatchInput() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      ISOCreatorTest.createSyntheticFiles(inputDir, 40, 100_000);
+      Path iso = testDir.resolve("test.iso");
+      new ISOCreator(inputDir, iso).create(true);
+      try (ISOFileSystem fileSystem = ISOFileSystem.open(iso)) {
+        assertEquals(46, fileSystem.getFilePaths().size());
+        for (String path : fileSystem.getFilePaths()) {
+          // The apploader.img and main.dol lengths are not exact for synthetic sys files
+          if (path.equals("sys/apploader.img") || path.equals("sys/main.dol")) {
+            continue;
+          }
+          ByteBuffer bytes = fileSystem.getBytes(path);
+          assertTrue(bytes.isReadOnly());
+          assertEquals(ByteBuffer.wrap(Files.readAllBytes(inputDir.resolve(path))), bytes);
+        }
+        assertTrue(fileSystem.getFile("files/dir0/0000.bin").isPresent());
+        assertTrue(fileSystem.getFile("dir0/0000.bin").isEmpty());
+        assertThrows(NoSuchFileException.class, () -> fileSystem.getBytes("files/missing.bin"));
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that the game ID is read from the start of the boot.bin.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testGameId() throws Exception {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Path inputDir = testDir.resolve("input");
+      ISOCreatorTest.createSyntheticFiles(inputDir, 4, 1_000);
+      Path bootBin = inputDir.resolve("sys/boot.bin");
+      byte[] bytes = Files.readAllBytes(bootBin);
+      System.arraycopy("G4NJDA".getBytes(StandardCharsets.US_ASCII), 0, bytes, 0, 6);
+      Files.write(bootBin, bytes);
+      Path iso = testDir.resolve("test.iso");
+      new ISOCreator(inputDir, iso).create(false);
+      try (ISOFileSystem fileSystem = ISOFileSystem.open(iso)) {
+        assertEquals("G4NJDA", fileSystem.getGameId());
+      }
+    } finally {
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+}
@@ -1,402 +1,290 @@
 package com.github.nicholasmoser.tools;
 
+import static com.github.nicholasmoser.fpk.TestFPKs.createFPK;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
-import com.github.nicholasmoser.utils.GUIUtils;
+import com.github.nicholasmoser.Game;
+import com.github.nicholasmoser.iso.ISO;
+import com.github.nicholasmoser.iso.ISOCreator;
+import com.github.nicholasmoser.iso.ISOFileSystem;
+import com.github.nicholasmoser.utils.ByteUtils;
+import com.github.nicholasmoser.utils.FileUtils;
 import com.google.common.io.MoreFiles;
 import com.google.common.io.RecursiveDeleteOption;
-import java.io.OutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
+/**
+ * Tests for {@link ISOCompareTool}. The sys/fst.bin lists the files of an ISO and the sys/boot.bin
+ * has the offset and size of it, so both are changed when the names or sizes of the files change.
+ */
 public class ISOCompareToolTest {
+
   private static final String ISO1 = "ISO1";
   private static final String ISO2 = "ISO2";
 
-  /**
-   * Compare two empty directories. Neither directory should list any differences or changes.
-   *
-   * @throws Exception If any exception occurs
-   */
-  @Test
-  public void compareEmptyDirectories() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
-  }
+  private static final String OTHER_GAME_ID = "GXXE01";
 
   /**
-   * Compare two directories, one with a single empty file and one empty. The directory with a
-   * single empty file should have that file listed under "Files only in ISO1".
+   * Compare two ISOs with the same files. Neither ISO should list any differences or changes.
    *
-   * @throws Exception If any exception occurs.
+   * @throws Exception If any exception occurs
    */
   @Test
-  public void compareOneEmptyFileDirectoryAndEmptyDirectory() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createFile(temp1.resolve("test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "test\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareSameFiles() throws Exception {
+    Map<String, byte[]> files = Map.of("test", new byte[]{69}, "test2/test", new byte[0]);
+    String difference = getDifference(files, files, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one empty and one with a single empty file. The directory with a
-   * single empty file should have that file listed under "Files only in ISO2".
+   * Compare two ISOs, one with an extra file. The extra file should be listed under "Files only in
+   * ISO1".
    *
    * @throws Exception If any exception occurs.
    */
   @Test
-  public void compareEmptyDirectoryAndOneEmptyFileDirectory() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createFile(temp2.resolve("test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "test\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareFileOnlyInFirst() throws Exception {
+    Map<String, byte[]> files1 = Map.of("base", new byte[]{1}, "test", new byte[]{69});
+    Map<String, byte[]> files2 = Map.of("base", new byte[]{1});
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "files/test\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "sys/boot.bin\n"
+        + "sys/fst.bin\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, each with a single empty file. Neither directory should list any
-   * differences or changes.
+   * Compare two ISOs, one with an extra file. The extra file should be listed under "Files only in
+   * ISO2".
    *
    * @throws Exception If any exception occurs.
    */
   @Test
-  public void compareOneEmptyFileDirectories() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createFile(temp1.resolve("test"));
-    Files.createFile(temp2.resolve("test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareFileOnlyInSecond() throws Exception {
+    Map<String, byte[]> files1 = Map.of("base", new byte[]{1});
+    Map<String, byte[]> files2 = Map.of("base", new byte[]{1}, "test", new byte[]{69});
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "files/test\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "sys/boot.bin\n"
+        + "sys/fst.bin\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, each with a single empty file in a subdirectory. Neither directory
-   * should list any differences or changes.
+   * Compare two ISOs, one with a file in the files directory and one with a file of the same name
+   * in a subdirectory. Each file should be listed under "Files only in" for their respective
+   * section.
    *
    * @throws Exception If any exception occurs.
    */
   @Test
-  public void compareOneEmptyFileSubdirectoryDirectories() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createDirectories(temp1.resolve("test"));
-    Files.createDirectories(temp2.resolve("test"));
-    Files.createFile(temp1.resolve("test/test"));
-    Files.createFile(temp2.resolve("test/test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareFileInDirectoryAndSubdirectory() throws Exception {
+    Map<String, byte[]> files1 = Map.of("test/test", new byte[]{69});
+    Map<String, byte[]> files2 = Map.of("test", new byte[]{69});
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "files/test/test\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "files/test\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "sys/boot.bin\n"
+        + "sys/fst.bin\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one with an empty file in the main directory and one with an empty
-   * file in a subdirectory. Each file should be listed under "Files only in" for their respective
-   * section.
+   * Compare two ISOs, one with a file with a byte in it and another with a file with a different
+   * byte in it. This file should be shown as having been changed since the files have different
+   * bytes in them.
    *
-   * @throws Exception If any exception occurs.
+   * @throws Exception If any exception occurs
    */
   @Test
-  public void compareEmptyFileMainDirectoryAndSubdirectory() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createDirectories(temp1.resolve("test"));
-    Files.createFile(temp1.resolve("test/test"));
-    Files.createFile(temp2.resolve("test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String windowsMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "test\\test\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "test\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      String message = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "test/test\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "test\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      if (GUIUtils.isWindows()) {
-        assertEquals(windowsMessage, difference);
-      } else {
-        assertEquals(message, difference);
-      }
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareFileWithByteAndFileWithDifferentByte() throws Exception {
+    Map<String, byte[]> files1 = Map.of("test", new byte[]{69});
+    Map<String, byte[]> files2 = Map.of("test", new byte[]{56});
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "files/test\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one with an empty file in a subdirectory and an empty directory.
-   * The empty file in the subdirectory should be listed.
+   * Compare two ISOs, one with a file with a byte in it and another with a file with two bytes in
+   * it. The file should be reported as having been changed since they have different sizes.
    *
-   * @throws Exception If any exception occurs.
+   * @throws Exception If any exception occurs
    */
   @Test
-  public void compareEmptyFileSubdirectoryAndEmptyDirectory() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Files.createDirectories(temp1.resolve("test"));
-    Files.createFile(temp1.resolve("test/test"));
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String windowsMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "test\\test\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      String message = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "test/test\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      if (GUIUtils.isWindows()) {
-        assertEquals(windowsMessage, difference);
-      } else {
-        assertEquals(message, difference);
-      }
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareFilesWithDifferentSizes() throws Exception {
+    Map<String, byte[]> files1 = Map.of("test", new byte[]{69});
+    Map<String, byte[]> files2 = Map.of("test", new byte[]{69, 69});
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "sys/fst.bin\n"
+        + "files/test\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one with an empty file and one with a file with a byte in it. This
-   * file should report as being changed.
+   * Compare two GNT4 ISOs with a changed FPK file. The changed children of the FPK file should be
+   * listed under it with their fixed GNT4 file names, along with the children only in one of the
+   * ISOs.
    *
    * @throws Exception If any exception occurs
    */
   @Test
-  public void compareEmptyFileAndFileWithByte() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Path file1 = temp1.resolve("test");
-    Path file2 = temp2.resolve("test");
-    Files.createFile(file1);
-    Files.createFile(file2);
-    try(OutputStream os = Files.newOutputStream(file1)) {
-      os.write(69);
-    }
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n"
-          + "test\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareGNT4FPKChildren() throws Exception {
+    Map<String, byte[]> files1 = Map.of("fpack/test.fpk",
+        createFPK(Map.of("hr/a.seq", new byte[]{1}, "hr/b.seq", new byte[]{2}), false));
+    Map<String, byte[]> files2 = Map.of("fpack/test.fpk",
+        createFPK(Map.of("hr/a.seq", new byte[]{3}, "hr/c.seq", new byte[]{2}), false));
+    String difference = getDifference(files1, files2, Game.GNT4.getGameId());
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "files/fpack/test.fpk\n"
+        + "  chr/a.seq\n"
+        + "  chr/b.seq (only in ISO1)\n"
+        + "  chr/c.seq (only in ISO2)\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one with a file with a byte in it and another with a file with the
-   * same byte in it. No files should be shown as having been changed since it is the same size and
-   * byte in the file.
+   * Compare two ISOs of another game with a changed FPK file. The FPK file should be listed as
+   * changed without its children, since the FPK options of other games are not known.
    *
    * @throws Exception If any exception occurs
    */
   @Test
-  public void compareFileWithByteAndFileWithSameByte() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Path file1 = temp1.resolve("test");
-    Path file2 = temp2.resolve("test");
-    Files.createFile(file1);
-    Files.createFile(file2);
-    try(OutputStream os = Files.newOutputStream(file1)) {
-      os.write(69);
-    }
-    try(OutputStream os = Files.newOutputStream(file2)) {
-      os.write(69);
-    }
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
-    }
+  public void compareOtherGameFPK() throws Exception {
+    Map<String, byte[]> files1 = Map.of("fpack/test.fpk",
+        createFPK(Map.of("hr/a.seq", new byte[]{1}), false));
+    Map<String, byte[]> files2 = Map.of("fpack/test.fpk",
+        createFPK(Map.of("hr/a.seq", new byte[]{3}), false));
+    String difference = getDifference(files1, files2, OTHER_GAME_ID);
+    String expectedMessage = "\nFiles only in ISO1\n"
+        + "------------------\n"
+        + "\n"
+        + "Files only in ISO2\n"
+        + "------------------\n"
+        + "\n"
+        + "Changed Files\n"
+        + "-------------\n"
+        + "files/fpack/test.fpk\n";
+    assertEquals(expectedMessage, difference);
   }
 
   /**
-   * Compare two directories, one with a file with a byte in it and another with a file with a
-   * different byte in it. This file should be shown as having been changed since the files have
-   * different bytes in them.
+   * Creates an ISO for each set of files in the temp directory and returns the difference between
+   * them.
    *
-   * @throws Exception If any exception occurs
+   * @param files1 The game paths of the files of the first ISO to their bytes.
+   * @param files2 The game paths of the files of the second ISO to their bytes.
+   * @param gameId The game ID of both ISOs.
+   * @return The difference message.
+   * @throws IOException If an I/O error occurs.
    */
-  @Test
-  public void compareFileWithByteAndFileWithDifferentByte() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Path file1 = temp1.resolve("test");
-    Path file2 = temp2.resolve("test");
-    Files.createFile(file1);
-    Files.createFile(file2);
-    try(OutputStream os = Files.newOutputStream(file1)) {
-      os.write(69);
-    }
-    try(OutputStream os = Files.newOutputStream(file2)) {
-      os.write(56);
-    }
+  private static String getDifference(Map<String, byte[]> files1, Map<String, byte[]> files2,
+      String gameId) throws IOException {
+    Path testDir = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
     try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n"
-          + "test\n";
-      assertEquals(expectedMessage, difference);
+      Path iso1 = createISO(testDir.resolve("input1"), files1, gameId);
+      Path iso2 = createISO(testDir.resolve("input2"), files2, gameId);
+      try (ISOFileSystem fileSystem1 = ISOFileSystem.open(iso1);
+          ISOFileSystem fileSystem2 = ISOFileSystem.open(iso2)) {
+        return ISOCompareTool.getDifference(fileSystem1, fileSystem2, ISO1, ISO2);
+      }
     } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
+      if (Files.isDirectory(testDir)) {
+        MoreFiles.deleteRecursively(testDir, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
     }
   }
 
   /**
-   * Compare two directories, one with a file with a byte in it and another with a file with
-   * two bytes in it. The file should be reports as having been changed since they have different
-   * sizes.
+   * Creates an ISO from the sys files and the given files.
    *
-   * @throws Exception If any exception occurs
+   * @param inputDir The directory to create the file tree of the ISO in.
+   * @param files    The game paths of the files to their bytes.
+   * @param gameId   The game ID of the ISO.
+   * @return The path to the ISO.
+   * @throws IOException If an I/O error occurs.
    */
-  @Test
-  public void compareFilesWithDifferentSizes() throws Exception {
-    Path temp1 = Files.createTempDirectory(ISO1);
-    Path temp2 = Files.createTempDirectory(ISO2);
-    Path file1 = temp1.resolve("test");
-    Path file2 = temp2.resolve("test");
-    Files.createFile(file1);
-    Files.createFile(file2);
-    try(OutputStream os = Files.newOutputStream(file1)) {
-      os.write(69);
-    }
-    try(OutputStream os = Files.newOutputStream(file2)) {
-      os.write(69);
-      os.write(69);
-    }
-    try {
-      String difference = ISOCompareTool.getDifference(temp1, temp2, ISO1, ISO2);
-      String expectedMessage = "\nFiles only in ISO1\n"
-          + "------------------\n"
-          + "\n"
-          + "Files only in ISO2\n"
-          + "------------------\n"
-          + "\n"
-          + "Changed Files\n"
-          + "-------------\n"
-          + "test\n";
-      assertEquals(expectedMessage, difference);
-    } finally {
-      MoreFiles.deleteRecursively(temp1, RecursiveDeleteOption.ALLOW_INSECURE);
-      MoreFiles.deleteRecursively(temp2, RecursiveDeleteOption.ALLOW_INSECURE);
+  private static Path createISO(Path inputDir, Map<String, byte[]> files, String gameId)
+      throws IOException {
+    Path sys = inputDir.resolve("sys");
+    Files.createDirectories(sys);
+    byte[] bootBin = new byte[ISO.BOOT_BIN_LEN];
+    System.arraycopy(gameId.getBytes(StandardCharsets.US_ASCII), 0, bootBin, 0, 6);
+    // GameCube magic number
+    System.arraycopy(ByteUtils.fromUint32(0xC2339F3D), 0, bootBin, 28, 4);
+    Files.write(sys.resolve("boot.bin"), bootBin);
+    Files.write(sys.resolve("bi2.bin"), new byte[ISO.BI_2_LEN]);
+    Files.write(sys.resolve("apploader.img"), new byte[0x2000]);
+    Files.write(sys.resolve("main.dol"), new byte[0x1000]);
+    Files.write(sys.resolve("fst.bin"), new byte[0]);
+    for (Map.Entry<String, byte[]> file : files.entrySet()) {
+      Path filePath = inputDir.resolve("files").resolve(file.getKey());
+      Files.createDirectories(filePath.getParent());
+      Files.write(filePath, file.getValue());
     }
+    Path iso = inputDir.resolveSibling(inputDir.getFileName() + ".iso");
+    new ISOCreator(inputDir, iso).create(false);
+    return iso;
   }
 }
@@ -0,0 +1,131 @@
+package com.github.nicholasmoser.utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class BinaryReaderTest {
+
+  @Test
+  public void testReadBytes() throws Exception {
+    byte[] bytes = getBytes();
+    try (BinaryReader reader = BinaryReader.of(bytes)) {
+      assertValues(reader, bytes);
+    }
+  }
+
+  @Test
+  public void testReadByteBufferFromPosition() throws Exception {
+    byte[] bytes = getBytes();
+    ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 3);
+    buffer.position(3);
+    buffer.put(bytes);
+    buffer.position(3);
+    try (BinaryReader reader = BinaryReader.of(buffer)) {
+      assertEquals(bytes.length, reader.size());
+      assertValues(reader, bytes);
+    }
+  }
+
+  @Test
+  public void testReadFile() throws Exception {
+    // Larger than the buffer so that values are read across refills of it
+    byte[] bytes = new byte[50_000];
+    new Random(0).nextBytes(bytes);
+    Path tempFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.write(tempFile, bytes);
+      try (BinaryReader reader = BinaryReader.open(tempFile)) {
+        assertEquals(bytes.length, reader.size());
+        // Values that straddle the end of the buffer
+        for (int position : new int[]{8190, 8191, 16381, 49996}) {
+          reader.seek(position);
+          assertEquals(ByteUtils.toInt32(bytes, position), reader.readInt32());
+          assertEquals(position + 4, reader.position());
+        }
+        // A seek backwards after a refill
+        reader.seek(2);
+        assertEquals(ByteUtils.toInt32(bytes, 2), reader.readInt32());
+        // A read larger than the buffer that starts in it
+        reader.seek(100);
+        byte[] large = new byte[20_000];
+        reader.readFully(large);
+        assertArrayEquals(Arrays.copyOfRange(bytes, 100, 20_100), large);
+        assertEquals(20_100, reader.position());
+        assertEquals(ByteUtils.toInt32(bytes, 20_100), reader.readInt32());
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Test
+  public void testEndOfFile() throws Exception {
+    Path tempFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.write(tempFile, new byte[]{1, 2, 3, 4, 5, 6});
+      try (BinaryReader reader = BinaryReader.open(tempFile)) {
+        reader.seek(4);
+        assertThrows(EOFException.class, reader::readInt32);
+        assertEquals(4, reader.position());
+        assertEquals(0x0506, reader.readInt16());
+        assertThrows(EOFException.class, reader::readByte);
+        assertThrows(EOFException.class, () -> reader.seek(7));
+        assertThrows(EOFException.class, () -> reader.skip(1));
+      }
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * @return Bytes with a value of each type.
+   */
+  private static byte[] getBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    buffer.put((byte) 0x80);
+    buffer.putShort((short) -2);
+    buffer.putInt(0xC2339F3D);
+    buffer.putFloat(1.5f);
+    buffer.put("fst.bin".getBytes());
+    buffer.put((byte) 0);
+    return Arrays.copyOf(buffer.array(), buffer.position() + 5);
+  }
+
+  /**
+   * Asserts that the values of {@link #getBytes()} are read.
+   *
+   * @param reader The reader at position 0.
+   * @param bytes  The bytes being read.
+   * @throws Exception If any Exception occurs.
+   */
+  private static void assertValues(BinaryReader reader, byte[] bytes) throws Exception {
+    assertEquals((byte) 0x80, reader.readByte());
+    assertEquals(0xFFFE, reader.readUint16());
+    assertEquals(0xC2339F3DL, reader.readUint32());
+    assertEquals(1.5f, reader.readFloat());
+    assertEquals("fst.bin", reader.readString());
+    assertEquals(bytes.length - 5, reader.position());
+    reader.align(4);
+    assertEquals(20, reader.position());
+    reader.seek(3);
+    assertEquals(0xC2339F3D, reader.readInt32());
+    reader.seek(1);
+    assertEquals(-2, reader.readInt16());
+    reader.skip(8);
+    byte[] name = new byte[3];
+    reader.readFully(name);
+    assertArrayEquals("fst".getBytes(), name);
+    reader.seek(bytes.length);
+    assertThrows(EOFException.class, reader::readByte);
+  }
+}
@@ -220,4 +220,44 @@ public class ByteStreamTest {
     Assertions.assertThrows(IllegalArgumentException.class, () -> bs.seek(-1));
     Assertions.assertThrows(IllegalArgumentException.class, () -> bs.seek(-55555));
   }
+
+  /**
+   * Tests that peeking does not move the position or change the mark.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testPeekKeepsMark() throws Exception {
+    byte[] bytes = new byte[]{0x11, 0x22, 0x33, 0x44, 0x01, 0x02, 0x03, 0x04};
+    ByteStream bs = new ByteStream(bytes);
+    bs.mark();
+    bs.skipWord();
+    assertEquals(0x01020304, bs.peekWord());
+    assertArrayEquals(new byte[]{0x01, 0x02, 0x03, 0x04}, bs.peekWordBytes());
+    assertArrayEquals(new byte[]{0x01, 0x02}, bs.peekBytes(2));
+    assertEquals(4, bs.offset());
+    bs.reset();
+    assertEquals(0, bs.offset());
+    assertEquals(0x1122, bs.readShort());
+    assertEquals(0x33440102, bs.readWord());
+    assertEquals(6, bs.offset());
+    assertThrows(IOException.class, bs::readWord);
+    assertEquals(8, bs.offset());
+  }
+
+  /**
+   * Tests that a range of bytes can be copied regardless of the position.
+   */
+  @Test
+  public void testGetBytes() {
+    byte[] bytes = new byte[]{0x11, 0x22, 0x33, 0x44, 0x01, 0x02, 0x03, 0x04};
+    ByteStream bs = new ByteStream(bytes);
+    assertArrayEquals(new byte[]{0x22, 0x33, 0x44}, bs.getBytes(1, 4));
+    assertArrayEquals(bytes, bs.getBytes(0, 8));
+    assertArrayEquals(new byte[0], bs.getBytes(8, 8));
+    assertEquals(0, bs.offset());
+    assertThrows(IndexOutOfBoundsException.class, () -> bs.getBytes(4, 9));
+    assertThrows(IndexOutOfBoundsException.class, () -> bs.getBytes(-1, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> bs.getBytes(3, 2));
+  }
 }
@@ -0,0 +1,37 @@
+package com.github.nicholasmoser.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+public class CRC32CTest {
+
+  @Test
+  public void testCheckValue() {
+    assertEquals(0xE3069283, CRC32C.getHash("123456789".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void test32BytesOfZeroes() {
+    assertEquals(0x8A9136AA, CRC32C.getHash(new byte[32]));
+  }
+
+  @Test
+  public void testFileSameAsBytes() throws Exception {
+    // Larger than the buffer so that the file is hashed in more than one chunk
+    byte[] bytes = new byte[3 * 1024 * 1024 + 17];
+    new Random(0).nextBytes(bytes);
+    Path tempFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.write(tempFile, bytes);
+      assertEquals(CRC32C.getHash(bytes), CRC32C.getHash(tempFile));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Random;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
@@ -50,4 +51,18 @@ public class CRC32Test {
       Files.deleteIfExists(tempFile);
     }
   }
+
+  @Test
+  public void testLargeFileSameAsBytes() throws Exception {
+    // Larger than the buffer so that the file is hashed in more than one chunk
+    byte[] bytes = new byte[3 * 1024 * 1024 + 17];
+    new Random(0).nextBytes(bytes);
+    Path tempFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.write(tempFile, bytes);
+      assertEquals(CRC32.getHash(bytes), CRC32.getHash(tempFile));
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
 }
@@ -208,4 +208,38 @@ public class FileUtilsTest {
       }
     }
   }
+
+  /**
+   * Tests that copying a folder with hard links skips the filtered paths and links the files, so
+   * that writing to a linked file in place changes it in both folders.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testCopyFolderHardLinks() throws Exception {
+    Path tempDir = FileUtils.getTempDirectory();
+    Path testDir1 = tempDir.resolve(UUID.randomUUID().toString());
+    Path testDir2 = tempDir.resolve(UUID.randomUUID().toString());
+    Path skipped = testDir1.resolve("skipped");
+    try {
+      Files.createDirectories(skipped);
+      Files.writeString(skipped.resolve("file1"), "skipped");
+      Files.writeString(testDir1.resolve("file2"), "linked");
+      Files.writeString(testDir1.resolve("file3"), "skipped");
+      FileUtils.copyFolder(testDir1, testDir2,
+          path -> !path.equals(skipped) && !path.endsWith("file3"), true);
+      assertFalse(Files.exists(testDir2.resolve("skipped")));
+      assertFalse(Files.exists(testDir2.resolve("file3")));
+      assertTrue(Files.isSameFile(testDir1.resolve("file2"), testDir2.resolve("file2")));
+      Files.writeString(testDir2.resolve("file2"), "changed");
+      assertEquals("changed", Files.readString(testDir1.resolve("file2")));
+    } finally {
+      if (Files.isDirectory(testDir1)) {
+        MoreFiles.deleteRecursively(testDir1, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+      if (Files.isDirectory(testDir2)) {
+        MoreFiles.deleteRecursively(testDir2, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
 }
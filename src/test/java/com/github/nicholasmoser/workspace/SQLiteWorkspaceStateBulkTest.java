@@ -0,0 +1,60 @@
+package com.github.nicholasmoser.workspace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the bulk operations of {@link SQLiteWorkspaceState}.
+ */
+public class SQLiteWorkspaceStateBulkTest {
+
+  /**
+   * Tests adding, getting and removing many files at once.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testBulkOperations() throws Exception {
+    Path stateFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID() + ".db");
+    WorkspaceState state = SQLiteWorkspaceState.create(stateFile);
+    try {
+      List<WorkspaceFile> files = new ArrayList<>();
+      List<String> filePaths = new ArrayList<>();
+      for (int i = 0; i < 500; i++) {
+        String filePath = String.format("files/chr/%04d.seq", i);
+        String fpkFilePath = i % 2 == 0 ? "files/fpack/chr.fpk" : null;
+        files.add(new WorkspaceFile(filePath, i, i * 2L, fpkFilePath, i % 3 == 0,
+            HashAlgorithm.CRC32C));
+        filePaths.add(filePath);
+      }
+      state.addFiles(files);
+      assertEquals(files, state.getFiles(filePaths));
+      assertEquals(files.get(42), state.getFile(filePaths.get(42)));
+
+      List<String> reversed = new ArrayList<>(filePaths.subList(0, 10));
+      Collections.reverse(reversed);
+      assertEquals(reversed, state.getFiles(reversed).stream().map(WorkspaceFile::filePath)
+          .toList());
+
+      assertEquals(250, state.removeFiles(filePaths.subList(0, 250)));
+      assertEquals(250, state.getAllFiles().size());
+      assertEquals(0, state.removeFiles(filePaths.subList(0, 250)));
+      assertThrows(IOException.class, () -> state.getFiles(filePaths.subList(0, 1)));
+    } finally {
+      state.close();
+      Files.deleteIfExists(stateFile);
+      Files.deleteIfExists(Path.of(stateFile + "-wal"));
+      Files.deleteIfExists(Path.of(stateFile + "-shm"));
+    }
+  }
+}
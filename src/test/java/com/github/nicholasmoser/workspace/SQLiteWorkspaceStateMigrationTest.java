@@ -0,0 +1,65 @@
+package com.github.nicholasmoser.workspace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for migrating the schema of a {@link SQLiteWorkspaceState} database.
+ */
+public class SQLiteWorkspaceStateMigrationTest {
+
+  /**
+   * Tests that loading a database from before the hash_algorithm column was added migrates it, and
+   * that its existing files are marked as CRC32.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testMigrateHashAlgorithm() throws Exception {
+    Path stateFile = FileUtils.getTempDirectory().resolve(UUID.randomUUID() + ".db");
+    WorkspaceState state = null;
+    try {
+      try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + stateFile);
+          Statement stmt = conn.createStatement()) {
+        stmt.execute("""
+            CREATE TABLE file (
+              file_path TEXT,
+              hash INTEGER NOT NULL,
+              modified_dt_tm INTEGER,
+              fpk_file_path TEXT,
+              compressed INTEGER,
+              PRIMARY KEY (file_path, fpk_file_path)
+            );
+            """);
+        stmt.execute("INSERT INTO file VALUES('files/a.bin',1,2,'files/fpack/a.fpk',1)");
+      }
+      state = SQLiteWorkspaceState.load(stateFile);
+      state.addFile(new WorkspaceFile("files/b.bin", 3, 4, null, false, HashAlgorithm.CRC32C));
+      List<WorkspaceFile> files = state.getAllFiles();
+      assertEquals(List.of(
+          new WorkspaceFile("files/a.bin", 1, 2, "files/fpack/a.fpk", true, HashAlgorithm.CRC32),
+          new WorkspaceFile("files/b.bin", 3, 4, null, false, HashAlgorithm.CRC32C)), files);
+
+      // Loading again does not migrate again
+      state.close();
+      state = SQLiteWorkspaceState.load(stateFile);
+      assertEquals(files, state.getAllFiles());
+    } finally {
+      if (state != null) {
+        state.close();
+      }
+      Files.deleteIfExists(stateFile);
+      Files.deleteIfExists(Path.of(stateFile + "-wal"));
+      Files.deleteIfExists(Path.of(stateFile + "-shm"));
+    }
+  }
+}
@@ -106,7 +106,14 @@ public class SQLiteWorkspaceStateTest {
       for (int i = 0; i < existingFiles.size(); i++) {
         WorkspaceFile freshFile = freshFiles.get(i);
         WorkspaceFile existingFile = existingFiles.get(i);
-        assertThat(freshFile).isEqualTo(existingFile);
+        // Fresh files are hashed with CRC32C but the protobuf hashes are CRC32
+        assertThat(freshFile).usingRecursiveComparison().ignoringFields("hash", "hashAlgorithm")
+            .isEqualTo(existingFile);
+        assertThat(freshFile.hashAlgorithm()).isEqualTo(SQLiteWorkspaceState.HASH_ALGORITHM);
+        assertThat(existingFile.hashAlgorithm()).isEqualTo(HashAlgorithm.CRC32);
+        Path uncompressedPath = workspaceDir.resolve("uncompressed").resolve(freshFile.filePath());
+        assertThat(freshFile.hash()).isEqualTo(HashAlgorithm.CRC32C.getHash(uncompressedPath));
+        assertThat(existingFile.hash()).isEqualTo(HashAlgorithm.CRC32.getHash(uncompressedPath));
       }
       assertThat(freshFiles.size()).isEqualTo(existingFiles.size());
     } finally {
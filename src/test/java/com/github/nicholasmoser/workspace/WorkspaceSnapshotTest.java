@@ -0,0 +1,63 @@
+package com.github.nicholasmoser.workspace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link WorkspaceSnapshot}.
+ */
+public class WorkspaceSnapshotTest {
+
+  private static final WorkspaceFile OMAKE_1 = new WorkspaceFile("files/omake/0002.txg", 1, 1,
+      "files/fpack/game0003.fpk", true);
+  private static final WorkspaceFile OMAKE_2 = new WorkspaceFile("files/omake/0002.txg", 1, 1,
+      "files/fpack/game0004.fpk", true);
+  private static final WorkspaceFile GAME = new WorkspaceFile("files/game/0000.txg", 2, 2,
+      "files/fpack/game0003.fpk", false);
+  private static final WorkspaceFile DOL = new WorkspaceFile("sys/main.dol", 3, 3, null, false);
+
+  /**
+   * Tests looking up files by file path and by FPK file path.
+   */
+  @Test
+  public void testLookups() {
+    WorkspaceSnapshot snapshot = WorkspaceSnapshot.of(List.of(OMAKE_1, OMAKE_2, GAME, DOL));
+    assertEquals(List.of(OMAKE_1, OMAKE_2, GAME, DOL), snapshot.getFiles());
+    assertEquals(List.of(OMAKE_1, OMAKE_2), snapshot.getFiles("files/omake/0002.txg"));
+    assertEquals(List.of(DOL), snapshot.getFiles("sys/main.dol"));
+    assertEquals(List.of(), snapshot.getFiles("files/missing.txg"));
+    assertTrue(snapshot.contains("sys/main.dol"));
+    assertFalse(snapshot.contains("files/missing.txg"));
+    assertEquals(List.of(OMAKE_1, GAME), snapshot.getFPKChildren("files/fpack/game0003.fpk"));
+    assertEquals(List.of(OMAKE_2), snapshot.getFPKChildren("files/fpack/game0004.fpk"));
+    assertEquals(Set.of("files/fpack/game0003.fpk", "files/fpack/game0004.fpk"),
+        snapshot.getFPKFilePaths());
+    assertEquals(Set.of("files/omake/0002.txg", "files/game/0000.txg", "sys/main.dol"),
+        snapshot.getFilePaths());
+  }
+
+  /**
+   * Tests that adding and removing files returns a new snapshot and leaves the original unchanged.
+   */
+  @Test
+  public void testWithAndWithoutFile() {
+    WorkspaceSnapshot snapshot = WorkspaceSnapshot.of(List.of(OMAKE_1, GAME));
+    WorkspaceSnapshot added = snapshot.withFile(OMAKE_2);
+    assertEquals(List.of(OMAKE_1, OMAKE_2), added.getFiles("files/omake/0002.txg"));
+    assertEquals(List.of(OMAKE_2), added.getFPKChildren("files/fpack/game0004.fpk"));
+    assertEquals(List.of(OMAKE_1), snapshot.getFiles("files/omake/0002.txg"));
+
+    WorkspaceSnapshot removed = added.withoutFile("files/omake/0002.txg");
+    assertEquals(List.of(GAME), removed.getFiles());
+    assertEquals(List.of(GAME), removed.getFPKChildren("files/fpack/game0003.fpk"));
+    assertEquals(List.of(), removed.getFPKChildren("files/fpack/game0004.fpk"));
+    assertEquals(3, added.getFiles().size());
+    assertSame(removed, removed.withoutFile("files/omake/0002.txg"));
+  }
+}
@@ -0,0 +1,156 @@
+package com.github.nicholasmoser.workspace;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.nicholasmoser.utils.FileUtils;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link WorkspaceWatcher}.
+ */
+public class WorkspaceWatcherTest {
+
+  private static final Duration DEBOUNCE = Duration.ofMillis(200);
+
+  /**
+   * Tests that modified, created and deleted files are recorded as dirty paths, including files in
+   * a directory created after the watcher was started.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testDirtyPaths() throws Exception {
+    Path directory = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.createDirectories(directory.resolve("files/old"));
+      Files.writeString(directory.resolve("files/a.bin"), "a");
+      Files.writeString(directory.resolve("files/old/b.bin"), "b");
+      Semaphore calls = new Semaphore(0);
+      Optional<WorkspaceWatcher> started = WorkspaceWatcher.start(directory, DEBOUNCE,
+          calls::release);
+      if (started.isEmpty()) {
+        // Native file change notifications are not supported on this file system
+        return;
+      }
+      try (WorkspaceWatcher watcher = started.get()) {
+        Files.writeString(directory.resolve("files/a.bin"), "modified");
+        Path newDirectory = directory.resolve("files/new");
+        Files.createDirectories(newDirectory);
+        Files.writeString(newDirectory.resolve("c.bin"), "c");
+        assertTrue(calls.tryAcquire(10, TimeUnit.SECONDS));
+        Set<String> dirtyPaths = takeUntil(watcher, "files/new/c.bin");
+        assertTrue(dirtyPaths.contains("files/a.bin"));
+        assertTrue(dirtyPaths.contains("files/new"));
+        assertFalse(dirtyPaths.contains("files/old/b.bin"));
+
+        MoreFiles.deleteRecursively(directory.resolve("files/old"));
+        assertTrue(calls.tryAcquire(10, TimeUnit.SECONDS));
+        dirtyPaths = takeUntil(watcher, "files/old");
+        assertTrue(WorkspaceWatcher.isDirty("files/old/b.bin", dirtyPaths));
+        assertFalse(WorkspaceWatcher.isDirty("files/a.bin", dirtyPaths));
+      }
+    } finally {
+      if (Files.isDirectory(directory)) {
+        MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that flushing the watcher records the events received while the listener is running,
+   * which the watcher thread cannot process until the listener returns.
+   *
+   * @throws Exception If any Exception occurs.
+   */
+  @Test
+  public void testFlush() throws Exception {
+    Path directory = FileUtils.getTempDirectory().resolve(UUID.randomUUID().toString());
+    try {
+      Files.createDirectories(directory.resolve("files"));
+      Semaphore calls = new Semaphore(0);
+      CountDownLatch release = new CountDownLatch(1);
+      Optional<WorkspaceWatcher> started = WorkspaceWatcher.start(directory, DEBOUNCE, () -> {
+        calls.release();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      if (started.isEmpty()) {
+        // Native file change notifications are not supported on this file system
+        return;
+      }
+      try (WorkspaceWatcher watcher = started.get()) {
+        Files.writeString(directory.resolve("files/a.bin"), "a");
+        // The listener is now running and blocks the watcher thread
+        assertTrue(calls.tryAcquire(10, TimeUnit.SECONDS));
+        watcher.takeDirtyPaths();
+        Files.writeString(directory.resolve("files/b.bin"), "b");
+        Set<String> dirtyPaths = new HashSet<>();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!dirtyPaths.contains("files/b.bin") && System.nanoTime() < end) {
+          watcher.flush();
+          watcher.takeDirtyPaths().ifPresent(dirtyPaths::addAll);
+          Thread.sleep(10);
+        }
+        assertTrue(dirtyPaths.contains("files/b.bin"));
+      } finally {
+        release.countDown();
+      }
+    } finally {
+      if (Files.isDirectory(directory)) {
+        MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+      }
+    }
+  }
+
+  /**
+   * Tests that a file path is dirty if it or any of its parent directories are dirty.
+   */
+  @Test
+  public void testIsDirty() {
+    Set<String> dirtyPaths = Set.of("files/chr/ino", "files/game/m_title.seq");
+    assertTrue(WorkspaceWatcher.isDirty("files/chr/ino/0000.seq", dirtyPaths));
+    assertTrue(WorkspaceWatcher.isDirty("files/chr/ino", dirtyPaths));
+    assertTrue(WorkspaceWatcher.isDirty("files/game/m_title.seq", dirtyPaths));
+    assertFalse(WorkspaceWatcher.isDirty("files/chr/ino2/0000.seq", dirtyPaths));
+    assertFalse(WorkspaceWatcher.isDirty("files/chr/sak/0000.seq", dirtyPaths));
+    assertFalse(WorkspaceWatcher.isDirty("files", dirtyPaths));
+  }
+
+  /**
+   * Takes the dirty paths of a watcher until they contain an expected path, since the events of a
+   * change may be split across more than one burst.
+   *
+   * @param watcher  The watcher.
+   * @param expected The expected dirty path.
+   * @return All dirty paths taken.
+   * @throws InterruptedException If interrupted while waiting.
+   */
+  private static Set<String> takeUntil(WorkspaceWatcher watcher, String expected)
+      throws InterruptedException {
+    Set<String> dirtyPaths = new HashSet<>();
+    for (int i = 0; i < 50 && !dirtyPaths.contains(expected); i++) {
+      Optional<Set<String>> taken = watcher.takeDirtyPaths();
+      assertTrue(taken.isPresent(), "Watcher overflowed");
+      dirtyPaths.addAll(taken.get());
+      Thread.sleep(DEBOUNCE.toMillis());
+    }
+    assertTrue(dirtyPaths.contains(expected), expected);
+    return dirtyPaths;
+  }
+}